@@ -2,4 +2,10 @@ package ai;
 
 public interface AI extends Runnable {
 
+	/*
+	 * Do at most one frame's worth of work without waiting for the game,
+	 * for runners that step the game and the AI on the same thread.
+	 * Returns false if there was nothing to do this frame.
+	 */
+	boolean tick();
 }
@@ -11,39 +11,42 @@ public abstract class AbstractAI implements AI {
 	@Override
 	public void run() {
 		while(running) {
-			switch(game.getState()) {
-			case PLAYING:
-				if(game.pacman.isAlive()) {
-					while(!game.getMaze().isValidTile(game.pacman.getTilePosition())) {
-						try {
-							Thread.sleep(2);
-						} catch (InterruptedException e) {
-							e.printStackTrace();
-						}
-					}
-					MOVE move = play();
-					if(move != null)
-						game.makeMove(move);
-				} else {
-					reset();
+			if(!tick()) {
+				try { Thread.sleep(2); }
+				catch (InterruptedException e) { running = false; }
+			}
+		}
+	}
+
+	@Override
+	public boolean tick() {
+		switch(game.getState()) {
+		case PLAYING:
+			if(game.pacman.isAlive()) {
+				if(!game.getMaze().isValidTile(game.pacman.getTilePosition())) {
+					return false;
 				}
-				break;
-			case LEVEL_COMPLETE:
+				MOVE move = play();
+				if(move != null)
+					game.makeMove(move);
+			} else {
 				reset();
-				break;
-			case DEMO:
-			case UNKNOWN:
-			case KILLED:
-			case COIN_IN:
-			case START_PRESSED:
-			case GAME_OVER:
-				reset();
-				game.player1Start();
-				break;
-			default:
-				try { Thread.sleep(5); }
-				catch (InterruptedException e) { running = false; }
 			}
+			return true;
+		case LEVEL_COMPLETE:
+			reset();
+			return true;
+		case DEMO:
+		case UNKNOWN:
+		case KILLED:
+		case COIN_IN:
+		case START_PRESSED:
+		case GAME_OVER:
+			reset();
+			game.player1Start();
+			return true;
+		default:
+			return false;
 		}
 	}
 	
@@ -8,17 +8,27 @@ import java.util.Random;
 import ai.common.Game.GHOST;
 import emulator.games.Pacman;
 import emulator.machine.PartMachine;
+import emulator.machine.RandomProvider;
 import emulator.machine.Snapshot;
 
 public class Emulator {
 
 	private final PartMachine emulator;
-	private final Random rng = new Random();
+	private Random rng = RandomProvider.create();
 	
 	public Emulator (Pacman pacman) {
 		emulator = new PartMachine(pacman);
 	}
 
+	/*
+	 * Reseed this emulator and its machine from seed alone.
+	 */
+	public void setSeed(long seed) {
+		Random root = RandomProvider.create(seed);
+		rng = RandomProvider.create(root.nextLong());
+		emulator.setSeed(root.nextLong());
+	}
+
 	public void step() {
 		emulator.step();
 	}
@@ -73,6 +83,10 @@ public class Emulator {
 		setMove(move);
 		Point pacman = getPacmanTile();
 		while(!(pacman.equals(target))) {
+			if(Thread.currentThread().isInterrupted()) {
+				/* given up on, by a caller that has stopped waiting */
+				return false;
+			}
 			emulator.step();
 			if(!isPacmanAlive()) {
 				return false;
@@ -0,0 +1,105 @@
+package ai.common;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import emulator.games.Pacman;
+
+/**
+ * A bounded set of look-ahead emulators that threads check out and hand
+ * back, so several safety checks can run at once without sharing a
+ * machine. Emulators are made the first time they are needed, up to the
+ * pool size; after that acquire() waits for one to come back.
+ *
+ * A thread is given back the emulator it last used whenever that one is
+ * free. Syncing it to the next snapshot of the same game then only
+ * copies the pages that changed.
+ *
+ * Which emulator a thread gets depends on scheduling, so a seeded run
+ * should draw a seed for each check on its own thread and pass it to
+ * acquire(long), rather than rely on the seed an emulator was built with.
+ */
+public class EmulatorPool {
+
+	private final int size;
+	private final List<Emulator> all = new ArrayList<>();
+	private final ArrayDeque<Emulator> free = new ArrayDeque<>();
+	private final ThreadLocal<Emulator> last = new ThreadLocal<>();
+
+	public EmulatorPool() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public EmulatorPool(int size) {
+		if(size < 1) {
+			throw new IllegalArgumentException("EmulatorPool: size " + size);
+		}
+		this.size = size;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Check an emulator out, waiting if they are all in use. It must be
+	 * handed back with release(), and left to this thread until then.
+	 */
+	public Emulator acquire() throws InterruptedException {
+		Emulator emu = last.get();
+		synchronized(this) {
+			while(true) {
+				if(emu != null && free.remove(emu)) {
+					return emu;
+				}
+				if(!free.isEmpty()) {
+					emu = free.pop();
+					break;
+				}
+				if(all.size() < size) {
+					emu = null;
+					break;
+				}
+				wait();
+			}
+			if(emu == null) {
+				/* reserve the slot, so the machine can be built unlocked */
+				all.add(null);
+			}
+		}
+		if(emu == null) {
+			try {
+				emu = new Emulator(new Pacman());
+			} catch(RuntimeException | Error e) {
+				synchronized(this) {
+					all.remove(null);
+					notifyAll();
+				}
+				throw e;
+			}
+			synchronized(this) {
+				all.set(all.indexOf(null), emu);
+			}
+		}
+		last.set(emu);
+		return emu;
+	}
+
+	/**
+	 * Check an emulator out as acquire() does, reseeded from seed alone.
+	 */
+	public Emulator acquire(long seed) throws InterruptedException {
+		Emulator emu = acquire();
+		emu.setSeed(seed);
+		return emu;
+	}
+
+	public synchronized void release(Emulator emu) {
+		if(!all.contains(emu) || free.contains(emu)) {
+			throw new IllegalArgumentException("Emulator was not checked out of this pool");
+		}
+		free.push(emu);
+		notifyAll();
+	}
+}
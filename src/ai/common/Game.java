@@ -10,6 +10,7 @@ import java.util.List;
 
 import emulator.machine.Machine;
 import emulator.machine.Snapshot;
+import emulator.machine.SnapshotMachine;
 
 
 
@@ -34,7 +35,8 @@ public class Game {
 	private boolean logScore = true;
 //	private final String logFile = "MCTS_best.txt";
 //	private final String logFile = "Ensemble_best.txt";
-	private final String logFile = "Ensemble_no_fruit.txt";
+	private String logFile = "Ensemble_no_fruit.txt";
+	private int gamesPlayed, lastGameLevel, lastGameScore;
 //	private final String logFile = "Ensmble_no_fruit_no_emu.txt";
 
 	public Game (Machine machine) {
@@ -48,6 +50,28 @@ public class Game {
 		maze = mazes[0];
 	}
 
+	private Game(Game game, Snapshot snapshot) {
+		machine = new SnapshotMachine(snapshot);
+		pacman = new PacMan();
+		mazes = game.mazes;
+		maze = game.maze;
+		mazeID = game.mazeID;
+		lastState = game.lastState;
+		level = game.level;
+		highLevel = game.highLevel;
+		logScore = false;
+		logFile = null;
+	}
+
+	/*
+	 * A read-only copy of this game as it is now, for other threads to
+	 * look at while this one carries on stepping. It shares the mazes and
+	 * must not be updated.
+	 */
+	public Game freeze() {
+		return new Game(this, machine.getSnapshot());
+	}
+
 	private void message(String message) {
 		String l2 = message;
 		String l1 = "LEVEL " + (int) (machine.memoryRead(0x4e13) + 1);
@@ -239,7 +263,7 @@ public class Game {
 					} else if (e04 == 7) {
 						lastState = STATE.GAME_OVER;
 						if(logScore) {
-							log(level + " " + getScore() + " " + new Date());
+							gameOver(level, getScore());
 							level = 0;
 							logScore = false;
 						}
@@ -273,6 +297,35 @@ public class Game {
 			message("LEVEL " + highLevel);
 	}
 
+	private void gameOver(int level, int score) {
+		lastGameLevel = level;
+		lastGameScore = score;
+		gamesPlayed++;
+		if(logFile != null) {
+			log(level + " " + score + " " + new Date());
+		}
+	}
+
+	/*
+	 * File in res/ that finished games are appended to, or null to not log
+	 * them (and so not exit after 100 games).
+	 */
+	public void setLogFile(String logFile) {
+		this.logFile = logFile;
+	}
+
+	public int getGamesPlayed() {
+		return gamesPlayed;
+	}
+
+	public int getLastGameLevel() {
+		return lastGameLevel;
+	}
+
+	public int getLastGameScore() {
+		return lastGameScore;
+	}
+
 	private int count = 0;
 	private void log(String string) {
 		System.out.println("Logging " + string);
@@ -3,18 +3,24 @@ package ai.common;
 import java.awt.Point;
 
 	public enum MOVE {
-		UP 		{ public MOVE opposite(){return MOVE.DOWN;		 }
+		UP(0,-1)	{ public MOVE opposite(){return MOVE.DOWN;		 }
 				  public int portValue(){ return 254;            }
 				  public Point delta()  { return new Point(0,-1);}},	
-		LEFT 	{ public MOVE opposite(){return MOVE.RIGHT;	     }
+		LEFT(-1,0)	{ public MOVE opposite(){return MOVE.RIGHT;	     }
 			  	  public int portValue(){ return 253;            }
 				  public Point delta()  { return new Point(-1,0);}},	
-		DOWN 	{ public MOVE opposite(){return MOVE.UP;		 }
+		DOWN(0,1)	{ public MOVE opposite(){return MOVE.UP;		 }
 		  		  public int portValue(){ return 247;            }
 				  public Point delta()  { return new Point(0,1); }},		
-		RIGHT 	{ public MOVE opposite(){return MOVE.LEFT;		 }
+		RIGHT(1,0)	{ public MOVE opposite(){return MOVE.LEFT;		 }
 				  public int portValue(){ return 251;            }
 				  public Point delta()  { return new Point(1,0); }};
+		/* the same step as delta(), for code that must not allocate */
+		public final int dx, dy;
+		MOVE(int dx, int dy) {
+			this.dx = dx;
+			this.dy = dy;
+		}
 		public abstract MOVE opposite();
 		public abstract int portValue();
 		public abstract Point delta();
@@ -4,6 +4,7 @@ import java.awt.Point;
 import java.util.List;
 import java.util.Random;
 
+import emulator.machine.RandomProvider;
 import emulator.machine.Snapshot;
 import ai.common.Game;
 import ai.common.Maze;
@@ -36,7 +37,7 @@ public class SimGame {
 	private int ghostsEaten = 0;
 	private int score;
 
-	private final Random rng = new Random();
+	private Random rng = RandomProvider.create();
 	private int pacPause = 1;
 
 	public SimGame(Game game) {
@@ -46,6 +47,18 @@ public class SimGame {
 		score = game.getScore();
 	}
 	
+	/*
+	 * Reseed the simulator and its ghosts, so the rollouts that follow
+	 * depend on the seed and not on which thread made this SimGame.
+	 */
+	public void setSeed(long seed) {
+		Random root = RandomProvider.create(seed);
+		rng = RandomProvider.create(root.nextLong());
+		for(Ghost ghost : ghosts) {
+			ghost.setRandom(RandomProvider.create(root.nextLong()));
+		}
+	}
+	
 	public boolean step() {
 		if (ghostEatenPauseFramesRemaining > 0) {
                 for (int i = 0; i < 4; i++) {
@@ -219,7 +232,7 @@ public class SimGame {
 	}
 
 	public void syncToSnapshot(Snapshot snapshot) {
-		sync(snapshot.RAM);
+		sync(snapshot.getRAM());
 	}
 
 	public void sync(char[] RAM) {
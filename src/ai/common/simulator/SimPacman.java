@@ -11,7 +11,8 @@ public class SimPacman {
 			0b10101010101010101010101010101010,
 			0b11010101011010101101010101101010
 	};
-	public Point pixel = new Point(127,196), tile = new Point(15,24);
+	/* updated in place, so the step loop allocates nothing */
+	public final Point pixel = new Point(127,196), tile = new Point(15,24);
 	private boolean isEnergised = false;
 	private MOVE move = MOVE.LEFT;
 	private MOVE nextMove = MOVE.LEFT;
@@ -46,34 +47,35 @@ public class SimPacman {
 				int tpx = pixel.x % 8;
 				int tpy = pixel.y % 8;
 	
-				Point delta = move.delta();
+				int dx = move.dx, dy = move.dy;
 				
 				switch(move) {
 				case UP:
 				case DOWN:
 					if(tpx < 4) {
-						delta.translate(1, 0);
+						dx++;
 					} else if (tpx > 4) {
-						delta.translate(-1, 0);
+						dx--;
 					}
 					break;
 				default:
 					if(tpy < 4) {
-						delta.translate(0, 1);
+						dy++;
 					} else if (tpy > 4) {
-						delta.translate(0, -1);
+						dy--;
 					}
 				}
-				pixel.translate(delta.x, delta.y);
+				pixel.x += dx;
+				pixel.y += dy;
 				if(pixel.x < 0) {
 					pixel.x = 255;
 				} else if (pixel.x > 255) {
 					pixel.x = 0;
 				}
-				Point newTile = new Point(pixel.x/8, pixel.y/8);
+				int tx = pixel.x/8, ty = pixel.y/8;
 				
-				if(!newTile.equals(tile)) {
-					tile = newTile;
+				if(tx != tile.x || ty != tile.y) {
+					tile.setLocation(tx, ty);
 					if(!tile.equals(target)) {
 						setCurrentMove(this.game.getMaze().getMoveTowards(tile, target));
 					}
@@ -83,12 +85,12 @@ public class SimPacman {
 	}
 	
 	private boolean isLegal(MOVE move, SimGame game) {
-		return game.maze.isLegal(move, pixel);
+		return game.maze.isLegal(move, pixel.x, pixel.y);
 	}
 
 	public void setPixelPosition(Point p) {
-		pixel = p;
-		tile = new Point(p.x/8, p.y/8);
+		pixel.setLocation(p);
+		tile.setLocation(p.x/8, p.y/8);
 	}
 	
 	public void pause(int frames) {
@@ -73,7 +73,7 @@ public class SimData {
 	}
 	
 	public SimData(Snapshot snap) {
-		this(snap.RAM);
+		this(snap.getRAM());
 	}
 	
 	public SimData(SimGame game) {
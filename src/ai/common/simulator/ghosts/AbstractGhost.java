@@ -9,6 +9,7 @@ import ai.common.MOVE;
 import ai.common.simulator.SimGame;
 import ai.common.simulator.maze.SimMaze;
 import ai.common.simulator.maze.Tile;
+import emulator.machine.RandomProvider;
 
 
 public abstract class AbstractGhost implements Ghost {
@@ -16,15 +17,18 @@ public abstract class AbstractGhost implements Ghost {
 	protected MOVE currentOrientation = MOVE.LEFT;
 	protected MOVE previousOrientation = MOVE.LEFT;
 	protected Point target = null;
-	protected Point pixel = null;
-	protected Point tile = null;
+	/* updated in place, so the step loop allocates nothing */
+	protected final Point pixel = new Point();
+	protected final Point tile = new Point();
+	/* what getTarget() returns, reused from call to call */
+	protected final Point chase = new Point();
 	protected int cruiseLevel = 0;
 	protected boolean isFrightened = false;
 	protected int frame = 0;
 	protected int state = 3;
 	protected boolean slow = false;
 	protected boolean tileChanged = false;
-	protected final Random rng = new Random();
+	protected Random rng = RandomProvider.create();
 	protected final Point home = new Point (127,127);
 	protected final Point door = new Point(127,100);
 	protected final int homeBottom = 127, homeTop = 120, homeLeft = 111, homeRight = 143;
@@ -37,6 +41,8 @@ public abstract class AbstractGhost implements Ghost {
 	protected int gid;
 	
 	
+	private static final MOVE[] MOVE_ORDER = { MOVE.UP, MOVE.LEFT, MOVE.DOWN, MOVE.RIGHT };
+
 	private static HashSet<Point> ghostHome = new HashSet<>();
 	
 	static {
@@ -110,25 +116,24 @@ public abstract class AbstractGhost implements Ghost {
 		for(int step = 0 ; step < steps ; step++) {
 			
 			previousOrientation = calculateNextMove(game);
-			Point delta = previousOrientation.delta();
 
-			pixel.translate(delta.x, delta.y);
+			pixel.x += previousOrientation.dx;
+			pixel.y += previousOrientation.dy;
 			if(pixel.x < 0) {
 				pixel.x = 255;
 			} else if (pixel.x > 255) {
 				pixel.x = 0;
 			}
-			Point newTile = new Point(pixel.x/8, pixel.y/8);
-			if(newTile.x != tile.x || newTile.y != tile.y) {
+			int tx = pixel.x/8, ty = pixel.y/8;
+			if(tx != tile.x || ty != tile.y) {
 				tileChanged = true;
+				tile.setLocation(tx, ty);
 			}
-
-			tile = newTile;
 		}
 	}
 	
 	protected MOVE calculateNextMove(SimGame game) {
-		List<MOVE> moves;
+		int moves;
 		
 		// Make the appropriate move for the current state
 		try {
@@ -146,12 +151,15 @@ public abstract class AbstractGhost implements Ghost {
 				}
 				
 				if(tileChanged) {
-						moves = game.maze.getAvailableMoves(tile);
-						moves.remove(previousOrientation.opposite());
-						if (moves.size() == 1) {
-							currentOrientation = moves.get(0);
+						moves = getMoveMask(game, tile.x, tile.y);
+						if(moves < 0) {
+							return previousOrientation;
+						}
+						moves &= ~bit(previousOrientation.opposite());
+						if (Integer.bitCount(moves) == 1) {
+							currentOrientation = getMove(moves, 0);
 						} else {
-							currentOrientation = calculateMove(game, moves, tile, new Point(door.x/8,door.y/8));
+							currentOrientation = calculateMove(game, moves, tile.x, tile.y, door.x/8, door.y/8);
 						}
 					tileChanged = false;
 				}
@@ -193,7 +201,8 @@ public abstract class AbstractGhost implements Ghost {
 				if(pixel.y >= startPosition.y + 4) {
 					if(this instanceof Blinky) {
 						state = 5;
-						target = game.simPacman.tile;
+						/* where Pac-Man is now; his tile Point moves on with him */
+						target = new Point(game.simPacman.tile);
 						currentOrientation = MOVE.LEFT;
 						return MOVE.LEFT;
 					}
@@ -209,31 +218,39 @@ public abstract class AbstractGhost implements Ghost {
 					previousOrientation = previousOrientation.opposite();
 					reverse = false;
 				} else {
-					moves = game.maze.getAvailableMoves(tile);
-					if(moves == null) {
+					moves = getMoveMask(game, tile.x, tile.y);
+					if(moves < 0) {
 						System.err.println("No moves for " + getClass().getSimpleName() + " " + tile);
 						return previousOrientation;
 					}
 					
 					if (isFrightened) {
-						moves.remove(previousOrientation);
-						currentOrientation = moves.get(rng.nextInt(moves.size()));
+						moves &= ~bit(previousOrientation);
+						currentOrientation = getMove(moves, rng.nextInt(Integer.bitCount(moves)));
 					} else {
-						moves.remove(previousOrientation.opposite());
-						Point nextTile = game.maze.getNextTile(tile, previousOrientation);
-						if(isDecisionPoint(pixel,nextTile,game.maze)) {
+						int nextX = tile.x, nextY = tile.y;
+						switch(previousOrientation) {
+						case UP:	nextY = tile.y == 0  ? 31 : tile.y-1; break;
+						case DOWN:	nextY = tile.y == 31 ? 0  : tile.y+1; break;
+						case LEFT:	nextX = tile.x == 0  ? 31 : tile.x-1; break;
+						case RIGHT:	nextX = tile.x == 31 ? 0  : tile.x+1; break;
+						}
+						if(isDecisionPoint(pixel,nextX,nextY,game.maze)) {
 							target = getTarget(game);
-							moves = game.maze.getAvailableMoves(nextTile);
-							moves.remove(previousOrientation.opposite());
+							moves = getMoveMask(game, nextX, nextY);
+							if(moves < 0) {
+								return previousOrientation;
+							}
+							moves &= ~bit(previousOrientation.opposite());
 							if(game.areGhostsRandom()) {
-								currentOrientation = moves.get(rng.nextInt(moves.size()));
+								currentOrientation = getMove(moves, rng.nextInt(Integer.bitCount(moves)));
 							} else {
-								currentOrientation = calculateMove(game, moves, nextTile, target);
+								currentOrientation = calculateMove(game, moves, nextX, nextY, target.x, target.y);
 							}
 						}
 					}
 						
-					if(isTileCentre(pixel) && game.maze.isDecisionTile(tile)) {
+					if(isTileCentre(pixel) && game.maze.isDecisionTile(tile.x, tile.y)) {
 						previousOrientation = currentOrientation;
 					}
 				}
@@ -268,9 +285,9 @@ public abstract class AbstractGhost implements Ghost {
 		}
 	}
 	
-	private boolean isDecisionPoint(Point pixel, Point tile, SimMaze maze) {
-		if(maze.isLegalTilePoint(tile)) {
-			if(maze.isDecisionTile(tile)) {
+	private boolean isDecisionPoint(Point pixel, int tileX, int tileY, SimMaze maze) {
+		if(maze.isLegalTilePoint(tileX, tileY)) {
+			if(maze.isDecisionTile(tileX, tileY)) {
 				switch(previousOrientation) {
 				case UP:	return pixel.y % 8 == 4;
 				case DOWN:	return pixel.y % 8 == 4;
@@ -280,11 +297,37 @@ public abstract class AbstractGhost implements Ghost {
 				}
 			}
 		} else {
-			System.out.println(tile + " is not legal.");
+			System.out.println(new Point(tileX, tileY) + " is not legal.");
 		}
 		return false;
 	}
 
+	/*
+	 * The moves out of a tile, one bit per MOVE ordinal, or -1 if there is
+	 * no such tile.
+	 */
+	private int getMoveMask(SimGame game, int x, int y) {
+		Tile t = x >= 0 && x <= 32 && y >= 0 && y < 32 ? game.maze.getTile(x, y) : null;
+		return t == null ? -1 : t.getMoveMask();
+	}
+
+	private static int bit(MOVE move) {
+		return 1 << move.ordinal();
+	}
+
+	/*
+	 * The index'th move in the mask, in MOVE order, as it would be in the
+	 * tile's list of available moves.
+	 */
+	private static MOVE getMove(int mask, int index) {
+		for(MOVE move : MOVE_ORDER) {
+			if((mask & bit(move)) != 0 && index-- == 0) {
+				return move;
+			}
+		}
+		throw new IndexOutOfBoundsException("Move " + index + " of " + Integer.bitCount(mask));
+	}
+
 	protected abstract Point getTarget(SimGame game);
 	
 	public void setFrightened(boolean frightened) {
@@ -321,8 +364,8 @@ public abstract class AbstractGhost implements Ghost {
 	}
 
 	public void setPixelPosition(Point position) {
-		this.pixel = position;
-		tile = new Point(pixel.x/8, pixel.y/8);
+		pixel.setLocation(position);
+		tile.setLocation(pixel.x/8, pixel.y/8);
 	}
 	
 	public void chomp(int pause) {
@@ -337,15 +380,20 @@ public abstract class AbstractGhost implements Ghost {
 		this.slow = slow;
 	}
 	
-	protected MOVE calculateMove(SimGame game, List<MOVE> moves, Point tile, Point target) {
+	/*
+	 * The move towards the neighbour nearest the target. Squared distances
+	 * order the same as distances, so no square roots are needed.
+	 */
+	protected MOVE calculateMove(SimGame game, int moves, int tileX, int tileY, int targetX, int targetY) {
 		MOVE m = previousOrientation;
-		Tile t = game.maze.getTile(tile);
-		double dist = 10000000;
-		for (MOVE move : new MOVE[] { MOVE.UP, MOVE.LEFT, MOVE.DOWN, MOVE.RIGHT }) {
-			if (moves.contains(move)) {
+		Tile t = game.maze.getTile(tileX, tileY);
+		int dist = Integer.MAX_VALUE;
+		for (MOVE move : MOVE_ORDER) {
+			if ((moves & bit(move)) != 0) {
 				Tile next = t.getNeighbour(move);
 				if (next != null) {
-					double d = target.distance(next.getPosition());
+					int dx = targetX - next.x, dy = targetY - next.y;
+					int d = dx * dx + dy * dy;
 					if (d < dist) {
 						dist = d;
 						m = move;
@@ -476,6 +524,11 @@ public abstract class AbstractGhost implements Ghost {
 		return 0;
 	}
 	
+	@Override
+	public void setRandom(Random rng) {
+		this.rng = rng;
+	}
+	
 	@Override
 	public String getCurrentPattern() {
 		int index = 0;
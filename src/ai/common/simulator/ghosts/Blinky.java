@@ -12,8 +12,7 @@ public class Blinky extends AbstractGhost {
 		homeNextState = 5;
 		homeNextMove = MOVE.UP;
 		startPosition = new Point(127,100);
-		pixel = new Point(startPosition);
-		tile = new Point(pixel.x/8, pixel.y/8);
+		setPixelPosition(startPosition);
 		previousOrientation = MOVE.LEFT;
 		currentOrientation = MOVE.LEFT;
 		state = 4;
@@ -43,8 +42,8 @@ public class Blinky extends AbstractGhost {
 		if(t == null) {
 			return new Point(15,24);
 		}
-		Point p = new Point(t);
-		return p;
+		chase.setLocation(t);
+		return chase;
 	}
 
 	@Override
@@ -1,6 +1,7 @@
 package ai.common.simulator.ghosts;
 
 import java.awt.Point;
+import java.util.Random;
 
 import ai.common.MOVE;
 import ai.common.simulator.SimGame;
@@ -31,4 +32,5 @@ public interface Ghost {
 	void updatePatterns(int[] patterns);
 	String getCurrentPattern();
 	int getCruiseLevel();
+	void setRandom(Random rng);
 }
@@ -12,8 +12,7 @@ public class Inky extends AbstractGhost {
 		homeNextState = 2;
 		homeNextMove = MOVE.LEFT;
 		startPosition = new Point(111,124);
-		pixel = new Point(startPosition);
-		tile = new Point(pixel.x/8, pixel.y/8);
+		setPixelPosition(startPosition);
 		previousOrientation = MOVE.UP;
 		currentOrientation = MOVE.UP;
 		state = 3;
@@ -34,19 +33,19 @@ public class Inky extends AbstractGhost {
 		if(t == null) {
 			return new Point(15,24);
 		}
-		Point p = new Point(t);
+		chase.setLocation(t);
 		
 		switch(game.simPacman.getCurrentMove()) {
-		case UP    : target = new Point(p.x-2, p.y-2); break;
-		case DOWN  : target = new Point(p.x,   p.y+2); break;
-		case LEFT  : target = new Point(p.x-2, p.y  ); break;
-		case RIGHT : target = new Point(p.x+2, p.y  ); break;
+		case UP    : chase.translate(-2, -2); break;
+		case DOWN  : chase.translate( 0,  2); break;
+		case LEFT  : chase.translate(-2,  0); break;
+		case RIGHT : chase.translate( 2,  0); break;
 		}
 		Point b = game.ghosts[0].getTile();
-		int dx = target.x - b.x;
-		int dy = target.y - b.y;
-		target = new Point(target.x + dx, target.y + dy);
-		return target;
+		int dx = chase.x - b.x;
+		int dy = chase.y - b.y;
+		chase.translate(dx, dy);
+		return chase;
 	}
 
 	@Override
@@ -12,8 +12,7 @@ public class Pinky extends AbstractGhost {
 		homeNextState = 3;
 		homeNextMove = MOVE.UP;
 		startPosition = new Point(127,124);
-		pixel = new Point(startPosition);
-		tile = new Point(pixel.x/8, pixel.y/8);
+		setPixelPosition(startPosition);
 		previousOrientation = MOVE.UP;
 		currentOrientation = MOVE.UP;
 		state = 3;
@@ -37,19 +36,19 @@ public class Pinky extends AbstractGhost {
 		if(t == null) {
 			return new Point(15,24);
 		}
-		Point p = new Point(t);
+		chase.setLocation(t);
 		MOVE pmm = game.simPacman.getCurrentMove();
 		if(pmm == null) {
 			System.err.println("Pinky get target pacman move is null");
-			return p;
+			return chase;
 		}
 		switch(pmm) {
-		case UP    : target = new Point(p.x-4, p.y-4); break;
-		case DOWN  : target = new Point(p.x,   p.y+4); break;
-		case LEFT  : target = new Point(p.x-4, p.y  ); break;
-		case RIGHT : target = new Point(p.x+4, p.y  ); break;
+		case UP    : chase.translate(-4, -4); break;
+		case DOWN  : chase.translate( 0,  4); break;
+		case LEFT  : chase.translate(-4,  0); break;
+		case RIGHT : chase.translate( 4,  0); break;
 		}
-		return target;
+		return chase;
 	}
 
 }
@@ -12,8 +12,7 @@ public class Sue extends AbstractGhost {
 		homeNextState = 2;
 		homeNextMove = MOVE.RIGHT;
 		startPosition = new Point(143,124);
-		pixel = new Point(startPosition);
-		tile = new Point(pixel.x/8, pixel.y/8);
+		setPixelPosition(startPosition);
 		previousOrientation = MOVE.UP;
 		currentOrientation = MOVE.UP;
 		state = 3;
@@ -42,16 +41,17 @@ public class Sue extends AbstractGhost {
 		if(t == null) {
 			return new Point(15,24);
 		}
-		Point p = new Point(t);		
-		int distance = (int) (tile.distance(p));
-		distance *= distance;
+		int dx = t.x - tile.x;
+		int dy = t.y - tile.y;
+		/* the same as the truncated distance squared being over 64 */
+		int distance = dx * dx + dy * dy;
 //		System.out.println();
 //		System.out.println("Sim: " + distance);
-		target = new Point(2,33);
-		if(distance > 64) {
-			target = new Point(p);
+		chase.setLocation(2,33);
+		if(distance >= 81) {
+			chase.setLocation(t);
 		}
-		return target;
+		return chase;
 	}
 	
 }
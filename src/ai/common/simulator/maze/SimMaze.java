@@ -7,7 +7,6 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -18,26 +17,24 @@ import ai.common.simulator.data.SimData;
 public class SimMaze {
 	private static final int WIDTH = 32, HEIGHT = 32;
 	private final Tile[][][] mazes = new Tile[4][][];
-	@SuppressWarnings("unchecked")
-	private final static HashSet<Point>[] slowTiles = new HashSet[2];
+	/* the tunnel tiles, where ghosts slow down, indexed [mazeID][x][y] */
+	private final static boolean[][][] slowTiles = new boolean[2][WIDTH][HEIGHT];
 	static {
-		slowTiles[0] = new HashSet<Point>();
 		for(int x : new int[]{1,3,4,27,28,29}) {
-			slowTiles[0].add(new Point(x, 9));
-			slowTiles[0].add(new Point(x, 18));
+			slowTiles[0][x][9] = true;
+			slowTiles[0][x][18] = true;
 		}
-		slowTiles[1] = new HashSet<Point>();
 		for(int x = 2 ; x <= 8 ; x++) {
-			slowTiles[1].add(new Point(x, 2));
+			slowTiles[1][x][2] = true;
 		}
 		for(int x = 23 ; x <= 29 ; x++) {
-			slowTiles[1].add(new Point(x, 2));
+			slowTiles[1][x][2] = true;
 		}
 		for(int x = 2 ; x <= 4 ; x++) {
-			slowTiles[1].add(new Point(x, 24));
+			slowTiles[1][x][24] = true;
 		}
 		for(int x = 27 ; x <= 29 ; x++) {
-			slowTiles[1].add(new Point(x, 24));
+			slowTiles[1][x][24] = true;
 		}
 	}
 	@SuppressWarnings("unchecked")
@@ -239,6 +236,10 @@ public class SimMaze {
 		return currentMaze[tile.x][tile.y];
 	}
 
+	public Tile getTile(int x, int y) {
+		return currentMaze[x == 32 ? 0 : x][y];
+	}
+
 	public Point getNextTile(Point tile, MOVE move) {
 		switch (move) {
 		case UP: 	return tile.y == 0  ? new Point(tile.x,31)  : new Point(tile.x, tile.y-1);
@@ -250,7 +251,14 @@ public class SimMaze {
 	}
 
 	public boolean isDecisionTile(Point tile) {
-		Tile t = getTile(tile);
+		return isDecisionTile(getTile(tile));
+	}
+
+	public boolean isDecisionTile(int x, int y) {
+		return isDecisionTile(getTile(x, y));
+	}
+
+	private boolean isDecisionTile(Tile t) {
 		if(t!=null) {
 			return t.isCorner() || t.isJunction();
 		}
@@ -258,21 +266,24 @@ public class SimMaze {
 	}
 
 	public boolean isLegal(MOVE move, Point pixel) {
-		Tile t = currentMaze[pixel.x/8][pixel.y/8];
+		return isLegal(move, pixel.x, pixel.y);
+	}
+
+	public boolean isLegal(MOVE move, int px, int py) {
+		Tile t = currentMaze[px/8][py/8];
 		if (t == null) return false;
-		List<MOVE> moves = t.getAvailableMoves();
-		if(moves.contains(move)) {
+		if(t.hasMove(move)) {
 			return true;
 		}
 		switch(move) {
 		case UP:
-			return pixel.y > t.getCentrePoint().y;
+			return py > t.centreY;
 		case DOWN:
-			return pixel.y < t.getCentrePoint().y;
+			return py < t.centreY;
 		case RIGHT:
-			return pixel.x < t.getCentrePoint().x;
+			return px < t.centreX;
 		case LEFT:
-			return pixel.x > t.getCentrePoint().x;
+			return px > t.centreX;
 		default:
 			return false;
 		}
@@ -281,7 +292,12 @@ public class SimMaze {
 
 
 	public boolean isSlow(Point tile) {
-		return mazeID < 2 ? slowTiles[mazeID].contains(tile) : false;
+		return isSlow(tile.x, tile.y);
+	}
+
+	public boolean isSlow(int x, int y) {
+		return mazeID < 2 && x >= 0 && x < WIDTH && y >= 0 && y < HEIGHT
+				&& slowTiles[mazeID][x][y];
 	}
 	
 	public List<Point> getPills() {
@@ -588,6 +604,10 @@ public class SimMaze {
 	}
 
 	public boolean isLegalTilePoint(Point tile) {
-		return tile.x >=0 && tile.x < WIDTH && tile.y > 0 && tile.y < HEIGHT;
+		return isLegalTilePoint(tile.x, tile.y);
+	}
+
+	public boolean isLegalTilePoint(int x, int y) {
+		return x >=0 && x < WIDTH && y > 0 && y < HEIGHT;
 	}
 }
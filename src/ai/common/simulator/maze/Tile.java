@@ -30,7 +30,9 @@ public class Tile {
 	};
 
 	private final List<MOVE> moves = new LinkedList<>();
-	public final int x, y;
+	/* bit n set if MOVE with ordinal n leads to a neighbour */
+	private int moveMask;
+	public final int x, y, centreX, centreY;
 	private final Tile[] neighbours;
 	private int value;
 	private boolean isGhostHome, isJunction, isCorner, isDecisionPoint;
@@ -39,6 +41,8 @@ public class Tile {
 	public Tile(int x, int y) {
 		this.x = x;
 		this.y = y;
+		centreX = x*8+4;
+		centreY = y*8+4;
 		neighbours = new Tile[4];
 		int offset = (31-x) * 32 + y;
 		spriteRAM = 0x4000 + offset;
@@ -103,6 +107,7 @@ public class Tile {
 			Tile n = neighbours[move.ordinal()];
 			if(n != null) {
 				moves.add(move);
+				moveMask |= 1 << move.ordinal();
 			}
 		}
 		if(moves.size() > 2) {
@@ -134,6 +139,14 @@ public class Tile {
 		return ' ';
 	}
 
+	public int getMoveMask() {
+		return moveMask;
+	}
+
+	public boolean hasMove(MOVE move) {
+		return (moveMask & (1 << move.ordinal())) != 0;
+	}
+
 	public List<MOVE> getAvailableMoves() {
 		return new LinkedList<MOVE>(moves);
 	}
@@ -143,7 +156,7 @@ public class Tile {
 	}
 
 	public Point getCentrePoint() {
-		return new Point(x*8+4,y*8+4);
+		return new Point(centreX,centreY);
 	}
 
 	public void paint(Graphics2D g2) {
@@ -1,28 +1,49 @@
 package ai.ensemble;
 
 import java.awt.Point;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 import ai.AbstractAI;
 import ai.common.Emulator;
+import ai.common.EmulatorPool;
 import ai.common.Game;
 import ai.common.Maze;
 import ai.common.MOVE;
 import ai.common.Game.STATE;
 import ai.common.simulator.SimGame;
-import emulator.games.Pacman;
+import emulator.machine.RandomProvider;
 import emulator.machine.Snapshot;
 
 public class EnsembleAI extends AbstractAI {
 	
-	public final static Emulator emu = new Emulator(new Pacman());
-	private final ExecutorService exec = Executors.newCachedThreadPool();
+	private final EmulatorPool emulators = new EmulatorPool();
+	/*
+	 * Shared by every instance. Its threads are daemons, so a run exits as
+	 * soon as its games are done rather than when idle threads time out.
+	 */
+	private static final ExecutorService exec = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r, "EnsembleAI worker");
+		thread.setDaemon(true);
+		return thread;
+	});
+	/* how long the safety checks at a junction may take, in ns */
+	private static final long SAFETY_DEADLINE = 100_000_000L;
 //	private final SimGame sim;
 	
 	private final Voice[] voices;
+	/*
+	 * Held while a voice runs, so a cancelled run that is still winding
+	 * down never overlaps the next one.
+	 */
+	private final ReentrantLock[] running;
+	private final LatencyHistogram[] latencies;
+	/* how long the voices may take between them at a junction, in ns */
+	private static final long VOICE_BUDGET = 40_000_000L;
 	
 	private MOVE lastMove = MOVE.LEFT;
 	private Point target = null;
@@ -36,7 +57,7 @@ public class EnsembleAI extends AbstractAI {
 			1.0		// Ghost chaser
 	};
 
-	private final Random rng = new Random();
+	private final Random rng = RandomProvider.create();
 
 	private char ghostCounter;
 
@@ -44,13 +65,23 @@ public class EnsembleAI extends AbstractAI {
 //		sim = new SimGame(game);
 		this.game = game;
 		voices = new Voice[]{
-				new GhostDodger(game, 1),
-				new GhostDodger(game, 2),
+				new GhostDodger(game, 1, exec),
+				new GhostDodger(game, 2, exec),
 				new PillMuncher(),
 				new FruitMuncher(),
 				new GhostMuncher(),
 				new GhostChaser()
 		};
+		running = new ReentrantLock[voices.length];
+		latencies = new LatencyHistogram[voices.length];
+		for(int i = 0 ; i < voices.length ; i++) {
+			running[i] = new ReentrantLock();
+			latencies[i] = new LatencyHistogram(i + " " + voices[i].getClass().getSimpleName());
+		}
+	}
+
+	public LatencyHistogram[] getLatencies() {
+		return latencies;
 	}
 
 	protected MOVE play() {
@@ -65,19 +96,13 @@ public class EnsembleAI extends AbstractAI {
 				p = target;
 			}
 			Snapshot snap = game.getSnapshot();
-			char ghostCounter2 = snap.RAM[0x4dd0];
+			char ghostCounter2 = snap.read(0x4dd0);
 			if(ghostCounter2 != ghostCounter) {
 				ghostCounter = ghostCounter2;
 				chomp = true;
 			}
 			Maze maze = game.getMaze();
-			List<MOVE> safe = new LinkedList<>();
-			for(MOVE move : game.pacman.getAvailableMoves()) {
-				Point t = maze.getNextCornerOrJunction(p, move);
-				if(emu.advanceToTargetSimple(move, t, snap)) {
-					safe.add(move);
-				}
-			}
+			List<MOVE> safe = safeMoves(maze, p, snap);
 			if((p.equals(target) || chomp) && safe.size() > 0) {
 //				double[] gd2 = ghostDodger2.getPreferences(game, safe);
 //				double[] gd1 = ghostDodger.getPreferences(game, safe);
@@ -86,19 +111,9 @@ public class EnsembleAI extends AbstractAI {
 //				}
 //				System.out.println();
 
-				double[][] results = new double[voices.length][];
-				try {
-					for (int i = 0 ; i < results.length ; i++) {
-						Voice v = voices[i];
-						results[i] = exec.submit(() -> v.getPreferences(game, safe)).get();
-					}
-				} catch (Exception e) {
-					e.printStackTrace();
-				}
-
-
+				double[][] results = consult(safe);
 				double[] combinedPreferences = combine(results);
-				lastMove = bestMove(combinedPreferences, game.pacman.getAvailableMoves());
+				lastMove = bestMove(combinedPreferences, safe);
 				if(game.pacman.isEnergised()) {
 					target = game.getMaze().getNextCornerOrJunction(p, lastMove);
 				} else {
@@ -106,9 +121,20 @@ public class EnsembleAI extends AbstractAI {
 				}
 			}
 			MOVE move = game.getMaze().getMoveTowards(p, target);
-			emu.syncToSnapshot(game.getSnapshot());
-//			sim.syncToSnapshot(game.getSnapshot());
-			MOVE move2 = emu.oneStepCheck(move, game);
+			MOVE move2;
+			try {
+				Emulator emu = emulators.acquire(rng.nextLong());
+				try {
+					emu.syncToSnapshot(game.getSnapshot());
+//					sim.syncToSnapshot(game.getSnapshot());
+					move2 = emu.oneStepCheck(move, game);
+				} finally {
+					emulators.release(emu);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
 			if(move2 != move) {
 				target = null;
 				lastMove = move2;
@@ -122,6 +148,123 @@ public class EnsembleAI extends AbstractAI {
 		return null;
 	}
 
+	/*
+	 * The moves that reach their next corner or junction alive, each checked
+	 * on its own pooled emulator. A check still running at the deadline is
+	 * cancelled and its move counted as unsafe.
+	 */
+	private List<MOVE> safeMoves(Maze maze, Point p, Snapshot snap) {
+		List<MOVE> moves = game.pacman.getAvailableMoves();
+		List<Future<Boolean>> checks = new ArrayList<>(moves.size());
+		for(MOVE move : moves) {
+			Point t = maze.getNextCornerOrJunction(p, move);
+			/* drawn here, on the game's thread, so seeded runs repeat */
+			long seed = rng.nextLong();
+			checks.add(exec.submit(() -> {
+				Emulator emu = emulators.acquire(seed);
+				try {
+					return emu.advanceToTargetSimple(move, t, snap);
+				} finally {
+					emulators.release(emu);
+				}
+			}));
+		}
+		List<MOVE> safe = new LinkedList<>();
+		long deadline = System.nanoTime() + SAFETY_DEADLINE;
+		for(int i = 0 ; i < checks.size() ; i++) {
+			Future<Boolean> check = checks.get(i);
+			try {
+				if(check.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+					safe.add(moves.get(i));
+				}
+			} catch (TimeoutException e) {
+				check.cancel(true);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				check.cancel(true);
+			} catch (ExecutionException e) {
+				e.printStackTrace();
+			}
+		}
+		return safe;
+	}
+
+	/*
+	 * Ask every voice at once, each about a frozen copy of the game, and
+	 * take the answers as they come in until the budget runs out. A voice
+	 * that has not answered by then is cancelled and given neutral
+	 * preferences. One whose cancelled run from the last junction is still
+	 * winding down answers neutral straight away. How long each voice took
+	 * is recorded whenever it runs to the end, in time or not.
+	 */
+	private double[][] consult(List<MOVE> safe) {
+		Game frozen = game.freeze();
+		double[][] results = new double[voices.length][];
+		Future<?>[] pending = new Future<?>[voices.length];
+		CompletionService<Integer> done = new ExecutorCompletionService<>(exec);
+		long start = System.nanoTime();
+		for(int i = 0 ; i < voices.length ; i++) {
+			final int voice = i;
+			pending[i] = done.submit(() -> {
+				if(!running[voice].tryLock()) {
+					return voice;
+				}
+				try {
+					double[] prefs = voices[voice].getPreferences(frozen, safe);
+					if(!Thread.currentThread().isInterrupted()) {
+						results[voice] = prefs;
+						latencies[voice].record(System.nanoTime() - start);
+					}
+				} finally {
+					running[voice].unlock();
+				}
+				return voice;
+			});
+		}
+		long deadline = start + VOICE_BUDGET;
+		try {
+			for(int waiting = voices.length ; waiting > 0 ; waiting--) {
+				Future<Integer> next = done.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+				if(next == null) {
+					break;
+				}
+				try {
+					next.get();
+				} catch (ExecutionException e) {
+					e.printStackTrace();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		double[][] answered = new double[voices.length][];
+		for(int i = 0 ; i < voices.length ; i++) {
+			if(pending[i].isDone()) {
+				answered[i] = results[i] != null ? results[i] : neutral(i, safe);
+			} else {
+				pending[i].cancel(true);
+				answered[i] = neutral(i, safe);
+			}
+		}
+		return answered;
+	}
+
+	/*
+	 * Stand-in preferences for a late voice. The rest are added in
+	 * combine(), so zeros leave the others unchanged. The ghost dodgers are
+	 * multiplied in, so theirs only let through the moves the emulator
+	 * found safe.
+	 */
+	private double[] neutral(int voice, List<MOVE> safe) {
+		double[] prefs = new double[4];
+		if(voice < 2) {
+			for(MOVE move : safe) {
+				prefs[move.ordinal()] = 1;
+			}
+		}
+		return prefs;
+	}
+
 	private double[] combine(double[]... prefs) {
 		double[] combined = new double[4];
 		for(int i = 0 ; i < 4 ; i++) {
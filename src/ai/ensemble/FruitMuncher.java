@@ -7,10 +7,11 @@ import java.util.Random;
 import ai.common.Game;
 import ai.common.MOVE;
 import ai.common.Game.BONUS;
+import emulator.machine.RandomProvider;
 
 public class FruitMuncher implements Voice {
 	
-	private final Random rng = new Random();
+	private final Random rng = RandomProvider.create();
 	private final double epsilon = 1e-6;
 
 	@Override
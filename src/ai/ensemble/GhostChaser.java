@@ -7,10 +7,11 @@ import java.util.Random;
 import ai.common.Game;
 import ai.common.MOVE;
 import ai.common.simulator.ghosts.Ghost;
+import emulator.machine.RandomProvider;
 
 public class GhostChaser implements Voice {
 
-    private final Random rng = new Random();
+    private final Random rng = RandomProvider.create();
     private final static double EPSILON = 1e-3;
 
     @Override
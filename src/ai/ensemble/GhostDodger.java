@@ -1,23 +1,22 @@
 package ai.ensemble;
 
-import java.awt.Point;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
-import ai.common.simulator.SimGame;
-import emulator.machine.Snapshot;
 import ai.common.Game;
-import ai.common.Maze;
 import ai.common.MOVE;
 
 public class GhostDodger implements Voice {
 	
-	private final SimGame sim;
-	private final int maxPaths = 8;
+	private final RolloutEngine engine;
+	private final int minPaths = 4;
+	private final int maxPaths = 16;
 	private final int maxDepth = 8;
+	/* rollout time per junction, in ns */
+	private final long budget = 12_000_000L;
 	
-	public GhostDodger(Game game, int pacPause) {
-		sim = new SimGame(game);
-		sim.setPacPause(pacPause);
+	public GhostDodger(Game game, int pacPause, ExecutorService exec) {
+		engine = new RolloutEngine(game, pacPause, maxDepth, exec);
 	}
 
 	@Override
@@ -27,27 +26,6 @@ public class GhostDodger implements Voice {
 			return new double[]{1,1,1,1};
 		}
 		
-		long stop = System.currentTimeMillis() + 12;
-		double[] prefs = new double[4];
-		Snapshot snap = game.getSnapshot();
-		Maze maze = game.getMaze();
-		Point p = game.pacman.getTilePosition();
-		while(System.currentTimeMillis() < stop) {
-			for (MOVE move : moves) {
-				if(prefs[move.ordinal()] > maxPaths-1) {
-					for (MOVE m : moves) {
-						prefs[m.ordinal()] /= maxPaths;
-					}
-					return prefs;
-				}
-				sim.sync(snap.RAM);
-				Point target = game.getMaze().getNextCornerOrJunction(p, move);
-				prefs[move.ordinal()] += sim.rolloutSafe(target, maxDepth, maze);
-			}
-		}
-		for (MOVE move : moves) {
-			prefs[move.ordinal()] /= maxPaths;
-		}
-		return prefs;
+		return engine.evaluate(game, moves, minPaths, maxPaths, budget);
 	}
-}
\ No newline at end of file
+}
@@ -23,7 +23,7 @@ public class GhostMuncher implements Voice {
 			Snapshot snap = game.getSnapshot();
 			Maze maze = game.getMaze();
 			Point p = game.pacman.getTilePosition();
-			while(System.currentTimeMillis() < stop) {
+			while(System.currentTimeMillis() < stop && !Thread.currentThread().isInterrupted()) {
 				for (MOVE move : moves) {
 					if(prefs[move.ordinal()] > maxPaths-1) {
 						for (MOVE m : moves) {
@@ -31,7 +31,7 @@ public class GhostMuncher implements Voice {
 						}
 						return prefs;
 					}
-					sim.sync(snap.RAM);
+					sim.sync(snap.getRAM());
 					Point target = game.getMaze().getNextCornerOrJunction(p, move);
 					prefs[move.ordinal()] += sim.rolloutGhostMunch(target, maxDepth, maze);
 				}
@@ -0,0 +1,67 @@
+package ai.ensemble;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Counts of how long something took, in power of two buckets of
+ * microseconds: bucket 0 is under 1 us, bucket n is [2^(n-1), 2^n) us.
+ * Safe to record from any thread.
+ */
+public class LatencyHistogram {
+
+	private static final int BUCKETS = 32;
+
+	private final String name;
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	public LatencyHistogram(String name) {
+		this.name = name;
+	}
+
+	public void record(long nanos) {
+		long micros = Math.max(0, nanos / 1000);
+		int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+		counts.incrementAndGet(bucket);
+	}
+
+	public long getCount() {
+		long total = 0;
+		for(int i = 0 ; i < BUCKETS ; i++) {
+			total += counts.get(i);
+		}
+		return total;
+	}
+
+	/*
+	 * Upper bound, in us, of the bucket holding the given fraction of the
+	 * samples, or 0 if there are none.
+	 */
+	public long percentile(double fraction) {
+		long total = getCount();
+		if(total == 0) {
+			return 0;
+		}
+		long wanted = (long) Math.ceil(fraction * total);
+		long seen = 0;
+		for(int i = 0 ; i < BUCKETS ; i++) {
+			seen += counts.get(i);
+			if(seen >= Math.max(1, wanted)) {
+				return 1L << i;
+			}
+		}
+		return 1L << (BUCKETS - 1);
+	}
+
+	public void clear() {
+		for(int i = 0 ; i < BUCKETS ; i++) {
+			counts.set(i, 0);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%-14s n %-8d p50 <%dus p90 <%dus p99 <%dus max <%dus",
+				name, getCount(), percentile(0.5), percentile(0.9), percentile(0.99),
+				percentile(1.0));
+	}
+}
@@ -6,10 +6,11 @@ import java.util.Random;
 
 import ai.common.Game;
 import ai.common.MOVE;
+import emulator.machine.RandomProvider;
 
 public class PillMuncher implements Voice {
 	
-	private final Random rng = new Random();
+	private final Random rng = RandomProvider.create();
 	private final static double EPSILON = 1e-3;
 
 	@Override
@@ -0,0 +1,170 @@
+package ai.ensemble;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import ai.common.Game;
+import ai.common.MOVE;
+import ai.common.Maze;
+import ai.common.simulator.SimGame;
+import emulator.machine.RandomProvider;
+
+/*
+ * Runs safe-path rollouts in the simulator for each candidate move, with
+ * the moves worked on side by side: one on the calling thread and the rest
+ * on the executor, each move with its own SimGame. Every move gets at
+ * least one rollout. After that, rollouts stop at the deadline, when every
+ * move has had maxRollouts, or as soon as each move has had minRollouts
+ * and the best move's confidence interval is clear of all the others'.
+ *
+ * Each move's rollouts are seeded from rng, which is made on the thread
+ * that built the engine. Together with a SimGame per move rather than
+ * per thread, a seeded game replays the same rollouts whichever threads
+ * they end up on.
+ *
+ * Interrupting the calling thread stops every move's rollouts after the
+ * one each is on.
+ */
+public class RolloutEngine {
+
+	/* 90% two sided */
+	private static final double Z = 1.645;
+
+	private final int depth;
+	private final ExecutorService exec;
+	/* indexed by MOVE ordinal */
+	private final SimGame[] sims = new SimGame[4];
+	private final Random rng = RandomProvider.create();
+
+	public RolloutEngine(Game game, int pacPause, int depth, ExecutorService exec) {
+		this.depth = depth;
+		this.exec = exec;
+		for(int i = 0 ; i < sims.length ; i++) {
+			sims[i] = new SimGame(game);
+			sims[i].setPacPause(pacPause);
+		}
+	}
+
+	/*
+	 * The fraction of rollouts each move survived from the state of game,
+	 * indexed by MOVE ordinal.
+	 */
+	public double[] evaluate(Game game, List<MOVE> moves, int minRollouts, int maxRollouts,
+			long nanos) {
+		long deadline = System.nanoTime() + nanos;
+		char[] RAM = game.getSnapshot().getRAM();
+		Maze maze = game.getMaze();
+		Point p = game.pacman.getTilePosition();
+		AtomicIntegerArray safe = new AtomicIntegerArray(4);
+		AtomicIntegerArray trials = new AtomicIntegerArray(4);
+		AtomicBoolean stop = new AtomicBoolean();
+		long[] seeds = new long[moves.size()];
+		for(int i = 0 ; i < seeds.length ; i++) {
+			seeds[i] = rng.nextLong();
+		}
+
+		List<Future<?>> others = new ArrayList<>();
+		for(int i = 1 ; i < moves.size() ; i++) {
+			MOVE move = moves.get(i);
+			long seed = seeds[i];
+			others.add(exec.submit(() -> run(move, seed, moves, RAM, maze, p, safe,
+					trials, stop, minRollouts, maxRollouts, deadline)));
+		}
+		if(!moves.isEmpty()) {
+			run(moves.get(0), seeds[0], moves, RAM, maze, p, safe, trials, stop,
+					minRollouts, maxRollouts, deadline);
+		}
+		/* the others share sims with the next call, so they are always waited for */
+		boolean interrupted = false;
+		for(Future<?> other : others) {
+			while(true) {
+				try {
+					other.get();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+					stop.set(true);
+				} catch (ExecutionException e) {
+					e.printStackTrace();
+					break;
+				}
+			}
+		}
+		if(interrupted) {
+			Thread.currentThread().interrupt();
+		}
+
+		double[] prefs = new double[4];
+		for(MOVE move : moves) {
+			int m = move.ordinal();
+			if(trials.get(m) > 0) {
+				prefs[m] = (double) safe.get(m) / trials.get(m);
+			}
+		}
+		return prefs;
+	}
+
+	private void run(MOVE move, long seed, List<MOVE> moves, char[] RAM, Maze maze,
+			Point p, AtomicIntegerArray safe, AtomicIntegerArray trials,
+			AtomicBoolean stop, int minRollouts, int maxRollouts, long deadline) {
+		int m = move.ordinal();
+		SimGame sim = sims[m];
+		sim.setSeed(seed);
+		Point target = maze.getNextCornerOrJunction(p, move);
+		while(trials.get(m) == 0 || (trials.get(m) < maxRollouts
+				&& System.nanoTime() < deadline && !stop.get())) {
+			sim.sync(RAM);
+			if(sim.rolloutSafe(target, depth, maze) > 0) {
+				safe.incrementAndGet(m);
+			}
+			trials.incrementAndGet(m);
+			if(separated(moves, safe, trials, minRollouts)
+					|| Thread.currentThread().isInterrupted()) {
+				stop.set(true);
+			}
+		}
+	}
+
+	/*
+	 * Whether every move has had minRollouts and the Wilson interval of the
+	 * best one lies wholly above the intervals of the rest.
+	 */
+	private static boolean separated(List<MOVE> moves, AtomicIntegerArray safe,
+			AtomicIntegerArray trials, int minRollouts) {
+		if(moves.size() < 2) {
+			return trials.get(moves.get(0).ordinal()) >= minRollouts;
+		}
+		double[] low = new double[4], high = new double[4];
+		int best = -1;
+		for(MOVE move : moves) {
+			int m = move.ordinal();
+			int n = trials.get(m);
+			if(n < minRollouts) {
+				return false;
+			}
+			double mean = Math.min(1.0, (double) safe.get(m) / n);
+			double centre = (mean + Z * Z / (2 * n)) / (1 + Z * Z / n);
+			double spread = Z * Math.sqrt(mean * (1 - mean) / n + Z * Z / (4.0 * n * n))
+					/ (1 + Z * Z / n);
+			low[m] = centre - spread;
+			high[m] = centre + spread;
+			if(best < 0 || low[m] > low[best]) {
+				best = m;
+			}
+		}
+		for(MOVE move : moves) {
+			int m = move.ordinal();
+			if(m != best && high[m] >= low[best]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
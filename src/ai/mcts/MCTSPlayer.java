@@ -8,6 +8,7 @@ import ai.AbstractAI;
 import ai.common.simulator.SimGame;
 import ai.common.simulator.data.SimData;
 import emulator.games.Pacman;
+import emulator.machine.RandomProvider;
 import emulator.machine.Snapshot;
 import ai.common.Game;
 import ai.common.MOVE;
@@ -20,7 +21,7 @@ public class MCTSPlayer extends AbstractAI {
 	private final Emulator emu = new Emulator(new Pacman());
 	private PacMan pacman;
 	private Point target;
-	private final Random rng = new Random();
+	private final Random rng = RandomProvider.create();
 	private TreeNodeSim root;
 	private MOVE move = MOVE.LEFT;
 	private SimGame sim;
@@ -66,7 +67,7 @@ public class MCTSPlayer extends AbstractAI {
 
 			root = new TreeNodeSim(null, 1, sim, data);
 			root.maxDepth = 0;
-			TreeNodeSim.score = game.getScore();
+			root.score = game.getScore();
 			root.expand(game.getMaze().getAvailableMoves(target));
 
 			while (!pacman.getTilePosition().equals(target)) {
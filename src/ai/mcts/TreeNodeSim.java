@@ -8,6 +8,7 @@ import ai.common.MOVE;
 import ai.common.Maze;
 import ai.common.simulator.SimGame;
 import ai.common.simulator.data.SimData;
+import emulator.machine.RandomProvider;
 
 public class TreeNodeSim {
 
@@ -17,11 +18,11 @@ public class TreeNodeSim {
 	public TreeNodeSim[] children;
 	public int nVisits;
 	public final MOVE move;
-	private Random r = new Random();
+	private Random r = RandomProvider.create();
 	private double epsilon = 1e-6;
 	private boolean pacmanAlive;
 	public double reward;
-	public static int score;
+	public int score;
 	private final SimData simData;
 
 	public TreeNodeSim(MOVE move, int depth, SimGame sim, SimData simData) {
@@ -81,6 +82,7 @@ public class TreeNodeSim {
 		int i = 0;
 		for (MOVE move : moves) {
 			TreeNodeSim node = new TreeNodeSim(move, (int)depth+1, sim, simData);
+			node.score = score;
 			children[i++] = node;
 		}
 	}
@@ -95,6 +97,7 @@ public class TreeNodeSim {
 		maxDepth = (int) Math.max(maxDepth, depth);
 		for (MOVE move : moves) {
 			TreeNodeSim node = new TreeNodeSim(move, (int)depth+1, sim, simData);
+			node.score = score;
 			children[i++] = node;
 		}
 	}
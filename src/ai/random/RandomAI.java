@@ -7,11 +7,12 @@ import ai.AbstractAI;
 import ai.common.Game;
 import ai.common.MOVE;
 import ai.common.Game.PacMan;
+import emulator.machine.RandomProvider;
 
 public class RandomAI extends AbstractAI {
 
 	private final PacMan pacman;
-	private final Random rng = new Random();
+	private final Random rng = RandomProvider.create();
 	private boolean inJunction = false;
 	private MOVE move = MOVE.LEFT;
 
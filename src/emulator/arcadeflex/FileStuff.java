@@ -5,6 +5,14 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
 
 import emulator.memory.CharPtr;
 
@@ -240,6 +248,128 @@ public class FileStuff {
 		return memoryRegions;
 	}
 
+	/*
+	 * As readroms, but each ROM file is memory mapped rather than read
+	 * through a temporary array, and the files are mapped, checked against
+	 * their declared CRCs and copied into place in parallel. A bad CRC is
+	 * reported but the ROM is still used, as MAME does. Returns read-only
+	 * buffers, one byte per address, or null if a ROM could not be loaded.
+	 */
+	public static ByteBuffer[] maproms(RomModule[] romp, String basename, int maxMemoryRegions) {
+		ByteBuffer[] regions = new ByteBuffer[maxMemoryRegions];
+		Map<RomModule, List<RomModule>> files = new LinkedHashMap<>();
+		Map<RomModule, ByteBuffer> targets = new LinkedHashMap<>();
+		int region = -1;
+		RomModule load = null;
+
+		for (int _ptr = 0; romp[_ptr].name != null || romp[_ptr].offset != 0
+				|| romp[_ptr].length != 0; _ptr++) {
+			RomModule rom = romp[_ptr];
+			if (rom.name == null && rom.length == 0) {
+				if (++region == regions.length) {
+					System.out.println("Too many memory regions in RomModule definition");
+					return null;
+				}
+				regions[region] = ByteBuffer.allocate(rom.offset);
+				load = null;
+				continue;
+			}
+			if (region < 0) {
+				System.out.println("Error in RomModule definition: expecting ROM_REGION");
+				return null;
+			}
+			if (rom.name == null || rom.name.compareTo("-1") == 0) {
+				if (load == null) {
+					System.out.println("Error in RomModule definition: ROM_CONTINUE not preceded by ROM_LOAD");
+					return null;
+				}
+			} else {
+				load = rom;
+				files.put(rom, new ArrayList<RomModule>());
+			}
+			int length = rom.length & ~0x80000000;
+			int span = (rom.length & 0x80000000) != 0 ? length * 2 : length;
+			if (rom.offset + span > regions[region].capacity()) {
+				System.out.println("Error in RomModule definition: "
+						+ load.name + " out of memory region space");
+				return null;
+			}
+			files.get(load).add(rom);
+			targets.put(rom, regions[region]);
+		}
+
+		boolean loaded = files.values().parallelStream()
+				.allMatch(loads -> mapfile(basename, loads, targets));
+		if (!loaded) {
+			return null;
+		}
+		for (region = 0; region < regions.length && regions[region] != null; region++) {
+			regions[region] = regions[region].asReadOnlyBuffer();
+		}
+		return regions;
+	}
+
+	/*
+	 * Map one ROM file, check its CRC and copy it to where each of its
+	 * ROM_LOAD, ROM_CONTINUE and ROM_RELOAD entries puts it.
+	 */
+	private static boolean mapfile(String basename, List<RomModule> loads, Map<RomModule, ByteBuffer> targets) {
+		String name = (basename + "/" + loads.get(0).name).trim();
+		MappedByteBuffer data;
+		try (RandomAccessFile raf = new RandomAccessFile(name, "r")) {
+			data = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+		} catch (IOException e) {
+			System.out.println("Unable to read ROM " + name);
+			return false;
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(data.duplicate());
+		int expected = loads.get(0).crc;
+		if (expected != 0 && (int) crc.getValue() != expected) {
+			System.out.printf("%s has bad CRC: %08x, expected %08x%n", name,
+					crc.getValue(), expected);
+		}
+
+		int pos = 0;
+		for (RomModule rom : loads) {
+			int length = rom.length & ~0x80000000;
+			if (rom.name != null && rom.name.compareTo("-1") == 0) {
+				pos = 0;
+			}
+			if (pos + length > data.capacity()) {
+				System.out.println("Unable to read ROM " + name);
+				return false;
+			}
+			/* each file writes its own part of the region, through its own view */
+			ByteBuffer target = targets.get(rom).duplicate();
+			if ((rom.length & 0x80000000) != 0) {
+				for (int i = 0; i < length; i += 2) {
+					target.put(rom.offset + i * 2, data.get(pos + i));
+					target.put(rom.offset + i * 2 + 2, data.get(pos + i + 1));
+				}
+			} else {
+				ByteBuffer source = data.duplicate();
+				source.position(pos).limit(pos + length);
+				target.position(rom.offset);
+				target.put(source);
+			}
+			pos += length;
+		}
+		return true;
+	}
+
+	/*
+	 * A region returned by maproms widened to one char per address.
+	 */
+	public static char[] tochars(ByteBuffer region) {
+		char[] chars = new char[region.capacity()];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = (char) (region.get(i) & 0xFF);
+		}
+		return chars;
+	}
+
 	public static void memset(char[] buf, int value, int size) {
 		for (int mem = 0; mem < size; mem++) {
 			buf[mem] = (char) value;
@@ -1,7 +1,7 @@
 package emulator.cpu.z80;
 
 
-import emulator.machine.Machine;
+import emulator.memory.MemoryBus;
 
 public class Z80 {
 
@@ -318,10 +318,21 @@ public class Z80 {
 	private final int[] pTable   = new int[512];
 	private final int[] zsTable  = new int[512];
 	private final int[] zspTable = new int[512];
-	private final Machine machine;
-
-	public Z80(Machine bus) {
-		this.machine = bus;
+	private final MemoryBus bus;
+	private final char[] memory;
+
+	/*
+	 * Idle loop fast-forward. idleLoops marks the first instruction of each
+	 * wait loop the game driver declared; see idle().
+	 */
+	private boolean[] idleLoops;
+	private final Z80Regs idleRegs = new Z80Regs();
+	private int idlePC = -1, idleICount, idleR, idleCycles;
+	private long skippedCycles;
+
+	public Z80(MemoryBus bus) {
+		this.bus = bus;
+		this.memory = bus.memory;
 		initTables();
 	}
 
@@ -345,14 +356,14 @@ public class Z80 {
 	/* Read a byte from given memory location */
 	/****************************************************************************/
 	private final char Z80_RDMEM(int a) {
-		return (char) machine.memoryRead(a);
+		return (char) bus.read(a);
 	}
 
 	/****************************************************************************/
 	/* Write a byte to given memory location */
 	/****************************************************************************/
 	private final void Z80_WRMEM(int a, int v) {
-		machine.memoryWrite(a, (char) v);
+		bus.write(a, v);
 	}
 
 	/****************************************************************************/
@@ -361,7 +372,7 @@ public class Z80 {
 	/* used to greatly speed up emulation */
 	/****************************************************************************/
 	private char Z80_RDOP(int a) {
-		return (char) machine.memoryRead(a);
+		return memory[a];
 	}
 
 	/****************************************************************************/
@@ -370,7 +381,7 @@ public class Z80 {
 	/* use different encoding mechanisms for opcodes and opcode arguments */
 	/****************************************************************************/
 	private final char Z80_RDOP_ARG(int A) {
-		return (char) machine.memoryRead(A);
+		return memory[A];
 	}
 
 	/****************************************************************************/
@@ -379,7 +390,7 @@ public class Z80 {
 	/* can be used to slightly speed up emulation */
 	/****************************************************************************/
 	private final char Z80_RDSTACK(int a) {
-		return (char) machine.memoryRead(a);
+		return memory[a];
 	}
 
 	/****************************************************************************/
@@ -388,7 +399,7 @@ public class Z80 {
 	/* can be used to slightly speed up emulation */
 	/****************************************************************************/
 	private final void Z80_WRSTACK(int a, int v) {
-		machine.memoryWrite(a, (char) v);
+		Z80_WRMEM(a, v);
 	}
 
 	// ----------------------------------------------
@@ -467,7 +478,7 @@ public class Z80 {
 	}
 
 	private final int M_IN() {
-		int Reg = z80_In(R.BC.L);
+		int Reg = z80_In(R.BC & 0xFF);
 		R.F = (R.F & C_FLAG) | zspTable[Reg];
 		return Reg;
 	}
@@ -614,19 +625,19 @@ public class Z80 {
 	}
 
 	private final void M_ADCW(int Reg) {
-		int q = R.HL.W + Reg + (R.F & 1);
-		R.F = (((R.HL.W ^ q ^ Reg) & 0x1000) >> 8) | ((q >> 16) & 1)
+		int q = R.HL + Reg + (R.F & 1);
+		R.F = (((R.HL ^ q ^ Reg) & 0x1000) >> 8) | ((q >> 16) & 1)
 				| ((q & 0x8000) >> 8) | (((q & 65535) != 0) ? 0 : Z_FLAG)
-				| (((Reg ^ R.HL.W ^ 0x8000) & (Reg ^ q) & 0x8000) >> 13);
-		R.HL.SetW(q & 0xFFFF);
+				| (((Reg ^ R.HL ^ 0x8000) & (Reg ^ q) & 0x8000) >> 13);
+		R.HL = q & 0xFFFF;
 	}
 
 	private final void M_SBCW(int Reg) {
-		int q = R.HL.W - Reg - (R.F & 1);
-		R.F = (((R.HL.W ^ q ^ Reg) & 0x1000) >> 8) | ((q >> 16) & 1)
+		int q = R.HL - Reg - (R.F & 1);
+		R.F = (((R.HL ^ q ^ Reg) & 0x1000) >> 8) | ((q >> 16) & 1)
 				| ((q & 0x8000) >> 8) | (((q & 65535) != 0) ? 0 : Z_FLAG)
-				| (((Reg ^ R.HL.W) & (Reg ^ q) & 0x8000) >> 13) | N_FLAG;
-		R.HL.SetW(q & 0xFFFF);
+				| (((Reg ^ R.HL) & (Reg ^ q) & 0x8000) >> 13) | N_FLAG;
+		R.HL = q & 0xFFFF;
 	}
 
 	private final int M_RDMEM(int A) {
@@ -726,15 +737,15 @@ public class Z80 {
 	}
 
 	private final int M_XIX() {
-		return (R.IX.W + (byte) M_RDMEM_OPCODE()) & 0xFFFF;
+		return (R.IX + (byte) M_RDMEM_OPCODE()) & 0xFFFF;
 	}
 
 	private final int M_XIY() {
-		return (R.IY.W + (byte) M_RDMEM_OPCODE()) & 0xFFFF;
+		return (R.IY + (byte) M_RDMEM_OPCODE()) & 0xFFFF;
 	}
 
 	private final int M_RD_XHL() {
-		return M_RDMEM(R.HL.W);
+		return M_RDMEM(R.HL);
 	}
 
 	private final int M_RD_XIX() {
@@ -763,11 +774,11 @@ public class Z80 {
 	public void reset() {
 		R.AF = R.PC = R.SP = 0;
 		R.A = R.F = 0;
-		R.BC.SetW(0);
-		R.DE.SetW(0);
-		R.HL.SetW(0);
-		R.IX.SetW(0);
-		R.IY.SetW(0);
+		R.BC = 0;
+		R.DE = 0;
+		R.HL = 0;
+		R.IX = 0;
+		R.IY = 0;
 		R.AF2 = R.BC2 = R.DE2 = R.HL2 = 0;
 		R.IFF1 = R.IFF2 = R.HALT = R.IM = R.I = R.R = R.R2 = 0;
 		R.SP = 0xF000;
@@ -854,7 +865,7 @@ public class Z80 {
 				/* Interrupt mode 1. RST 38h */
 				if (R.IM == 1) {
 					iCount -= cycles_main[0xFF];
-					opcode_main[0xFF].handler();
+					exec_main(0xFF);
 				} else
 				/*
 				 * Interrupt mode 0. We check for CALL and JP instructions, if
@@ -870,7 +881,7 @@ public class Z80 {
 					default:
 						j &= 255;
 						iCount -= cycles_main[j];
-						opcode_main[j].handler();
+						exec_main(j);
 						break;
 					}
 				}
@@ -882,60 +893,20 @@ public class Z80 {
 	/* Set all registers to given values */
 	/****************************************************************************/
 	public void setRegs(Z80Regs regs) {
-		R.AF = regs.AF;
-		R.PC = regs.PC;
-		R.SP = regs.SP;
-		R.A = regs.A;
-		R.F = regs.F;
-		R.BC.SetW(regs.BC.W);
-		R.DE.SetW(regs.DE.W);
-		R.HL.SetW(regs.HL.W);
-		R.IX.SetW(regs.IX.W);
-		R.IY.SetW(regs.IY.W);
-		R.AF2 = regs.AF2;
-		R.BC2 = regs.BC2;
-		R.DE2 = regs.DE2;
-		R.HL2 = regs.HL2;
-		R.IFF1 = regs.IFF1;
-		R.IFF2 = regs.IFF2;
-		R.HALT = regs.HALT;
-		R.IM = regs.IM;
-		R.I = regs.I;
-		R.R = regs.R;
-		R.R2 = regs.R2;
-		R.pending_irq = regs.pending_irq;
-		R.pending_nmi = regs.pending_nmi;
+		R.set(regs);
 	}
 
 	/****************************************************************************/
 	/* Get all registers in given buffer */
 	/****************************************************************************/
+	public void getRegs(Z80Regs regs) {
+		regs.set(R);
+	}
+
 	public Z80Regs getRegs() {
-		Z80Regs Regs = new Z80Regs();
-		Regs.AF = R.AF;
-		Regs.PC = R.PC;
-		Regs.SP = R.SP;
-		Regs.A = R.A;
-		Regs.F = R.F;
-		Regs.BC.SetW(R.BC.W);
-		Regs.DE.SetW(R.DE.W);
-		Regs.HL.SetW(R.HL.W);
-		Regs.IX.SetW(R.IX.W);
-		Regs.IY.SetW(R.IY.W);
-		Regs.AF2 = R.AF2;
-		Regs.BC2 = R.BC2;
-		Regs.DE2 = R.DE2;
-		Regs.HL2 = R.HL2;
-		Regs.IFF1 = R.IFF1;
-		Regs.IFF2 = R.IFF2;
-		Regs.HALT = R.HALT;
-		Regs.IM = R.IM;
-		Regs.I = R.I;
-		Regs.R = R.R;
-		Regs.R2 = R.R2;
-		Regs.pending_irq = R.pending_irq;
-		Regs.pending_nmi = R.pending_nmi;
-		return Regs;
+		Z80Regs regs = new Z80Regs();
+		regs.set(R);
+		return regs;
 	}
 
 	/****************************************************************************/
@@ -960,4662 +931,3368 @@ public class Z80 {
 	public void registerDump() {
 		System.out
 				.printf("AF:%04X HL:%04X DE:%04X BC:%04X PC:%04X SP:%04X IX:%04X IY:%04X\n",
-						R.AF, R.HL.W, R.DE.W, R.BC.W, R.PC, R.SP, R.IX.W,
-						R.IY.W);
+						R.AF, R.HL, R.DE, R.BC, R.PC, R.SP, R.IX,
+						R.IY);
 
 	}
 
 	public int execute(int cycles) {
 		iCount = cycles; /* NS 970904 */
+		idlePC = -1;
 		do {
 			if (R.pending_nmi != 0 || R.pending_irq != Z80_IGNORE_INT)
 				interrupt(); /* NS 970901 */
+			if (idleLoops != null && idleLoops[R.PC])
+				idle();
 			R.R++;
 			int i = M_RDOP(R.PC);
 			R.PC = (R.PC + 1) & 0xFFFF;
 			iCount -= cycles_main[i];
-			opcode_main[i].handler();
+			exec_main(i);
 		} while (iCount > 0);
 		return cycles - iCount; /* NS 970904 */
 	}
-	 
 
-	public static abstract interface OpcodeFn {
-		public abstract void handler();
+	/****************************************************************************/
+	/* Called at the top of a declared idle loop. Once two consecutive passes */
+	/* take the same number of cycles and leave every register but R as it */
+	/* was, the loop is spinning on memory that nothing can change before */
+	/* the next interrupt, so all further whole passes are burned at once. */
+	/* The final partial pass is still interpreted, leaving the same state */
+	/* as running every instruction. */
+	/****************************************************************************/
+	private void idle() {
+		if (R.PC == idlePC) {
+			int cycles = idleICount - iCount;
+			if (cycles == idleCycles && sameState(R, idleRegs)) {
+				int passes = (iCount - 1) / cycles;
+				iCount -= passes * cycles;
+				R.R += passes * (R.R - idleR);
+				skippedCycles += (long) passes * cycles;
+				idlePC = -1;
+				return;
+			}
+			idleCycles = cycles;
+		} else {
+			idleCycles = 0;
+		}
+		idlePC = R.PC;
+		idleICount = iCount;
+		idleR = R.R;
+		idleRegs.set(R);
 	}
 
-	// OP-CODES
-	// -------------------------------------------------------------------------------
-
-	private final OpcodeFn adc_a_xhl = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XHL();
-			M_ADC(i);
-		}
-	};
-	private final OpcodeFn adc_a_xix = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIX();
-			M_ADC(i);
-		}
-	};
-	@SuppressWarnings("unused")
-	private final OpcodeFn adc_a_xiy = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIY();
-			M_ADC(i);
-		}
-	};
-	private final OpcodeFn adc_a_a = new OpcodeFn() {
-		public void handler() {
-			M_ADC(R.A);
-		}
-	};
-	private final OpcodeFn adc_a_b = new OpcodeFn() {
-		public void handler() {
-			M_ADC(R.BC.H);
-		}
-	};
-	private final OpcodeFn adc_a_c = new OpcodeFn() {
-		public void handler() {
-			M_ADC(R.BC.L);
-		}
-	};
-	private final OpcodeFn adc_a_d = new OpcodeFn() {
-		public void handler() {
-			M_ADC(R.DE.H);
-		}
-	};
-	private final OpcodeFn adc_a_e = new OpcodeFn() {
-		public void handler() {
-			M_ADC(R.DE.L);
-		}
-	};
-	private final OpcodeFn adc_a_h = new OpcodeFn() {
-		public void handler() {
-			M_ADC(R.HL.H);
-		}
-	};
-	private final OpcodeFn adc_a_l = new OpcodeFn() {
-		public void handler() {
-			M_ADC(R.HL.L);
-		}
-	};
-	private final OpcodeFn adc_a_byte = new OpcodeFn() {
-		public void handler() {
-			int i = M_RDMEM_OPCODE();
-			M_ADC(i);
-		}
-	};
+	private static boolean sameState(Z80Regs a, Z80Regs b) {
+		return a.PC == b.PC && a.SP == b.SP && a.A == b.A && a.F == b.F
+				&& a.BC == b.BC && a.DE == b.DE && a.HL == b.HL
+				&& a.IX == b.IX && a.IY == b.IY && a.AF == b.AF
+				&& a.AF2 == b.AF2 && a.BC2 == b.BC2 && a.DE2 == b.DE2
+				&& a.HL2 == b.HL2 && a.IFF1 == b.IFF1 && a.IFF2 == b.IFF2
+				&& a.HALT == b.HALT && a.IM == b.IM && a.I == b.I
+				&& a.R2 == b.R2 && a.pending_irq == b.pending_irq
+				&& a.pending_nmi == b.pending_nmi;
+	}
 
-	private final OpcodeFn adc_hl_bc = new OpcodeFn() {
-		public void handler() {
-			M_ADCW(R.BC.W);
-		}
-	};
-	private final OpcodeFn adc_hl_de = new OpcodeFn() {
-		public void handler() {
-			M_ADCW(R.DE.W);
-		}
-	};
-	private final OpcodeFn adc_hl_hl = new OpcodeFn() {
-		public void handler() {
-			M_ADCW(R.HL.W);
+	/****************************************************************************/
+	/* Declare the start addresses of loops that only spin waiting for an */
+	/* interrupt. They must not write memory, or idle() would skip writes. */
+	/****************************************************************************/
+	public void setIdleLoops(int... pcs) {
+		if (pcs == null || pcs.length == 0) {
+			idleLoops = null;
+			return;
 		}
-	};
-	@SuppressWarnings("unused")
-	private final OpcodeFn adc_hl_sp = new OpcodeFn() {
-		public void handler() {
-			M_ADCW(R.SP);
+		idleLoops = new boolean[0x10000];
+		for (int pc : pcs) {
+			idleLoops[pc & 0xFFFF] = true;
 		}
-	};
+	}
 
-	private final OpcodeFn add_a_xhl = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XHL();
-			M_ADD(i);
-		}
-	};
-	private final OpcodeFn add_a_xix = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIX();
-			M_ADD(i);
-		}
-	};
-	private final OpcodeFn add_a_xiy = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIY();
-			M_ADD(i);
-		}
-	};
-	private final OpcodeFn add_a_a = new OpcodeFn() {
-		public void handler() {
-			M_ADD(R.A);
-		}
-	};
-	private final OpcodeFn add_a_b = new OpcodeFn() {
-		public void handler() {
-			M_ADD(R.BC.H);
-		}
-	};
-	private final OpcodeFn add_a_c = new OpcodeFn() {
-		public void handler() {
-			M_ADD(R.BC.L);
-		}
-	};
-	private final OpcodeFn add_a_d = new OpcodeFn() {
-		public void handler() {
-			M_ADD(R.DE.H);
-		}
-	};
-	private final OpcodeFn add_a_e = new OpcodeFn() {
-		public void handler() {
-			M_ADD(R.DE.L);
-		}
-	};
-	private final OpcodeFn add_a_h = new OpcodeFn() {
-		public void handler() {
-			M_ADD(R.HL.H);
-		}
-	};
-	private final OpcodeFn add_a_l = new OpcodeFn() {
-		public void handler() {
-			M_ADD(R.HL.L);
-		}
-	};
-	private final OpcodeFn add_a_ixh = new OpcodeFn() {
-		public void handler() {
-			M_ADD(R.IX.H);
-		}
-	};
-	private final OpcodeFn add_a_ixl = new OpcodeFn() {
-		public void handler() {
-			M_ADD(R.IX.L);
-		}
-	};
-	private final OpcodeFn add_a_iyh = new OpcodeFn() {
-		public void handler() {
-			M_ADD(R.IY.H);
-		}
-	};
-	@SuppressWarnings("unused")
-	private final OpcodeFn add_a_iyl = new OpcodeFn() {
-		public void handler() {
-			M_ADD(R.IY.L);
-		}
-	};
-	private final OpcodeFn add_a_byte = new OpcodeFn() {
-		public void handler() {
-			int i = M_RDMEM_OPCODE();
-			M_ADD(i);
-		}
-	};
+	/****************************************************************************/
+	/* Number of cycles burned by idle loop and HALT fast-forward */
+	/****************************************************************************/
+	public long getSkippedCycles() {
+		return skippedCycles;
+	}
 
-	private final OpcodeFn add_hl_bc = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetW(M_ADDW(R.HL.W, R.BC.W));
-		}
-	};
-	private final OpcodeFn add_hl_de = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetW(M_ADDW(R.HL.W, R.DE.W));
-		}
-	};
-	private final OpcodeFn add_hl_hl = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetW(M_ADDW(R.HL.W, R.HL.W));
-		}
-	};
-	private final OpcodeFn add_hl_sp = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetW(M_ADDW(R.HL.W, R.SP));
-		}
-	};
-	private final OpcodeFn add_ix_bc = new OpcodeFn() {
-		public void handler() {
-			R.IX.SetW(M_ADDW(R.IX.W, R.BC.W));
-		}
-	};
-	private final OpcodeFn add_ix_de = new OpcodeFn() {
-		public void handler() {
-			R.IX.SetW(M_ADDW(R.IX.W, R.DE.W));
-		}
-	};
-	private final OpcodeFn add_ix_ix = new OpcodeFn() {
-		public void handler() {
-			R.IX.SetW(M_ADDW(R.IX.W, R.IX.W));
-		}
-	};
-	private final OpcodeFn add_ix_sp = new OpcodeFn() {
-		public void handler() {
-			R.IX.SetW(M_ADDW(R.IX.W, R.SP));
-		}
-	};
-	private final OpcodeFn add_iy_bc = new OpcodeFn() {
-		public void handler() {
-			R.IY.SetW(M_ADDW(R.IY.W, R.BC.W));
-		}
-	};
-	private final OpcodeFn add_iy_de = new OpcodeFn() {
-		public void handler() {
-			R.IY.SetW(M_ADDW(R.IY.W, R.DE.W));
-		}
-	};
-	@SuppressWarnings("unused")
-	private final OpcodeFn add_iy_iy = new OpcodeFn() {
-		public void handler() {
-			R.IY.SetW(M_ADDW(R.IY.W, R.IY.W));
-		}
-	};
-	private final OpcodeFn add_iy_sp = new OpcodeFn() {
-		public void handler() {
-			R.IY.SetW(M_ADDW(R.IY.W, R.SP));
-		}
-	};
+	 
 
-	private final OpcodeFn and_xhl = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XHL();
-			M_AND(i);
-		}
-	};
-	private final OpcodeFn and_xix = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIX();
-			M_AND(i);
-		}
-	};
-	private final OpcodeFn and_xiy = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIY();
-			M_AND(i);
-		}
-	};
-	private final OpcodeFn and_a = new OpcodeFn() {
-		public void handler() {
+	// OP-CODES
+	// -------------------------------------------------------------------------------
+	// One switch per opcode table, so each instruction is a jump into
+	// direct code rather than a call through a megamorphic handler() site.
+	// Opcodes with no implementation end up in unimplemented(). CB is split
+	// in two so each method stays under HotSpot's 8000 byte compile limit.
+
+	private void exec_main(int op) {
+		switch (op) {
+		case 0x00: /* nop */
+			break;
+		case 0x01: /* ld_bc_word */
+			R.BC = M_RDMEM_OPCODE_WORD();
+			break;
+		case 0x02: /* ld_xbc_a */
+			M_WRMEM(R.BC, R.A);
+			break;
+		case 0x03: /* inc_bc */
+			R.BC = (R.BC + 1) & 0xFFFF;
+			break;
+		case 0x04: /* inc_b */
+			R.BC = (R.BC & 0xFF) | (M_INC(R.BC >> 8) << 8);
+			break;
+		case 0x05: /* dec_b */
+			R.BC = (R.BC & 0xFF) | (M_DEC(R.BC >> 8) << 8);
+			break;
+		case 0x06: /* ld_b_byte */
+			R.BC = (R.BC & 0xFF) | (M_RDMEM_OPCODE() << 8);
+			break;
+		case 0x07: /* rlca */
+			M_RLCA();
+			break;
+		case 0x08: /* ex_af_af */
+			{
+				int i;
+				i = (R.A << 8) | R.F;
+				R.A = (R.AF2 >> 8);
+				R.F = (R.AF2 & 0xFF);
+				R.AF2 = i;
+			}
+			break;
+		case 0x09: /* add_hl_bc */
+			R.HL = M_ADDW(R.HL, R.BC);
+			break;
+		case 0x0A: /* ld_a_xbc */
+			R.A = M_RDMEM(R.BC);
+			break;
+		case 0x0B: /* dec_bc */
+			R.BC = (R.BC - 1) & 0xFFFF;
+			break;
+		case 0x0C: /* inc_c */
+			R.BC = (R.BC & 0xFF00) | M_INC(R.BC & 0xFF);
+			break;
+		case 0x0D: /* dec_c */
+			R.BC = (R.BC & 0xFF00) | M_DEC(R.BC & 0xFF);
+			break;
+		case 0x0E: /* ld_c_byte */
+			R.BC = (R.BC & 0xFF00) | M_RDMEM_OPCODE();
+			break;
+		case 0x0F: /* rrca */
+			M_RRCA();
+			break;
+		case 0x10: /* djnz */
+			R.BC = (R.BC - 0x100) & 0xFFFF;
+			if ((R.BC >> 8) != 0) {
+				M_JR();
+			} else {
+				M_SKIP_JR();
+			}
+			break;
+		case 0x11: /* ld_de_word */
+			R.DE = M_RDMEM_OPCODE_WORD();
+			break;
+		case 0x12: /* ld_xde_a */
+			M_WRMEM(R.DE, R.A);
+			break;
+		case 0x13: /* inc_de */
+			R.DE = (R.DE + 1) & 0xFFFF;
+			break;
+		case 0x14: /* inc_d */
+			R.DE = (R.DE & 0xFF) | (M_INC(R.DE >> 8) << 8);
+			break;
+		case 0x15: /* dec_d */
+			R.DE = (R.DE & 0xFF) | (M_DEC(R.DE >> 8) << 8);
+			break;
+		case 0x16: /* ld_d_byte */
+			R.DE = (R.DE & 0xFF) | (M_RDMEM_OPCODE() << 8);
+			break;
+		case 0x17: /* rla */
+			M_RLA();
+			break;
+		case 0x18: /* jr */
+			{
+				int i = R.PC - 1;
+				M_JR();
+				int j = R.PC;
+				if (j == i) {
+					if (iCount > 0)
+						iCount = 0;/* speed up busy loop */
+				} else if ((j == i - 1) && (M_RDOP(j) == 0xfb))/* EI - 1942 */
+				{
+					if (iCount > 4)
+						iCount = 4;
+				}
+			}
+			break;
+		case 0x19: /* add_hl_de */
+			R.HL = M_ADDW(R.HL, R.DE);
+			break;
+		case 0x1A: /* ld_a_xde */
+			R.A = M_RDMEM(R.DE);
+			break;
+		case 0x1B: /* dec_de */
+			R.DE = (R.DE - 1) & 0xFFFF;
+			break;
+		case 0x1C: /* inc_e */
+			R.DE = (R.DE & 0xFF00) | M_INC(R.DE & 0xFF);
+			break;
+		case 0x1D: /* dec_e */
+			R.DE = (R.DE & 0xFF00) | M_DEC(R.DE & 0xFF);
+			break;
+		case 0x1E: /* ld_e_byte */
+			R.DE = (R.DE & 0xFF00) | M_RDMEM_OPCODE();
+			break;
+		case 0x1F: /* rra */
+			M_RRA();
+			break;
+		case 0x20: /* jr_nz */
+			if (M_NZ()) {
+				M_JR();
+			} else {
+				M_SKIP_JR();
+			}
+			break;
+		case 0x21: /* ld_hl_word */
+			R.HL = M_RDMEM_OPCODE_WORD();
+			break;
+		case 0x22: /* ld_xword_hl */
+			M_WRMEM_WORD(M_RDMEM_OPCODE_WORD(), R.HL);
+			break;
+		case 0x23: /* inc_hl */
+			R.HL = (R.HL + 1) & 0xFFFF;
+			break;
+		case 0x24: /* inc_h */
+			R.HL = (R.HL & 0xFF) | (M_INC(R.HL >> 8) << 8);
+			break;
+		case 0x25: /* dec_h */
+			R.HL = (R.HL & 0xFF) | (M_DEC(R.HL >> 8) << 8);
+			break;
+		case 0x26: /* ld_h_byte */
+			R.HL = (R.HL & 0xFF) | (M_RDMEM_OPCODE() << 8);
+			break;
+		case 0x27: /* daa */
+			{
+				int i;
+				i = R.A;
+				if ((R.F & C_FLAG) != 0)
+					i |= 256;
+				if ((R.F & H_FLAG) != 0)
+					i |= 512;
+				if ((R.F & N_FLAG) != 0)
+					i |= 1024;
+				R.A = ((char) DAATable[i]) >> 8;
+				R.F = ((char) DAATable[i]) & 0xFF;
+			}
+			break;
+		case 0x28: /* jr_z */
+			if (M_Z()) {
+				M_JR();
+			} else {
+				M_SKIP_JR();
+			}
+			break;
+		case 0x29: /* add_hl_hl */
+			R.HL = M_ADDW(R.HL, R.HL);
+			break;
+		case 0x2A: /* ld_hl_xword */
+			R.HL = M_RDMEM_WORD(M_RDMEM_OPCODE_WORD());
+			break;
+		case 0x2B: /* dec_hl */
+			R.HL = (R.HL - 1) & 0xFFFF;
+			break;
+		case 0x2C: /* inc_l */
+			R.HL = (R.HL & 0xFF00) | M_INC(R.HL & 0xFF);
+			break;
+		case 0x2D: /* dec_l */
+			R.HL = (R.HL & 0xFF00) | M_DEC(R.HL & 0xFF);
+			break;
+		case 0x2E: /* ld_l_byte */
+			R.HL = (R.HL & 0xFF00) | M_RDMEM_OPCODE();
+			break;
+		case 0x2F: /* cpl */
+			R.A ^= 0xFF;
+			R.F |= (H_FLAG | N_FLAG);
+			break;
+		case 0x30: /* jr_nc */
+			if (M_NC()) {
+				M_JR();
+			} else {
+				M_SKIP_JR();
+			}
+			break;
+		case 0x31: /* ld_sp_word */
+			R.SP = M_RDMEM_OPCODE_WORD();
+			break;
+		case 0x32: /* ld_xbyte_a */
+			{
+				int i = M_RDMEM_OPCODE_WORD();
+				M_WRMEM(i, R.A);
+			}
+			break;
+		case 0x33: /* inc_sp */
+			R.SP = (R.SP + 1) & 0xFFFF;
+			break;
+		case 0x34: /* inc_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_INC(i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0x35: /* dec_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_DEC(i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0x36: /* ld_xhl_byte */
+			{
+				int i = M_RDMEM_OPCODE();
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0x37: /* scf */
+			R.F = (R.F & 0xEC) | C_FLAG;
+			break;
+		case 0x38: /* jr_c */
+			if (M_C()) {
+				M_JR();
+			} else {
+				M_SKIP_JR();
+			}
+			break;
+		case 0x39: /* add_hl_sp */
+			R.HL = M_ADDW(R.HL, R.SP);
+			break;
+		case 0x3A: /* ld_a_xbyte */
+			{
+				int i = M_RDMEM_OPCODE_WORD();
+				R.A = M_RDMEM(i);
+			}
+			break;
+		case 0x3B: /* dec_sp */
+			R.SP = (R.SP - 1) & 0xFFFF;
+			break;
+		case 0x3C: /* inc_a */
+			R.A = M_INC(R.A);
+			break;
+		case 0x3D: /* dec_a */
+			R.A = M_DEC(R.A);
+			break;
+		case 0x3E: /* ld_a_byte */
+			R.A = M_RDMEM_OPCODE();
+			break;
+		case 0x3F: /* ccf */
+			R.F = ((R.F & 0xED) | ((R.F & 1) << 4)) ^ 1;
+			break;
+		case 0x40: /* ld_b_b */
+			break;
+		case 0x41: /* ld_b_c */
+			R.BC = (R.BC & 0xFF) | ((R.BC & 0xFF) << 8);
+			break;
+		case 0x42: /* ld_b_d */
+			R.BC = (R.BC & 0xFF) | (R.DE & 0xFF00);
+			break;
+		case 0x43: /* ld_b_e */
+			R.BC = (R.BC & 0xFF) | ((R.DE & 0xFF) << 8);
+			break;
+		case 0x44: /* ld_b_h */
+			R.BC = (R.BC & 0xFF) | (R.HL & 0xFF00);
+			break;
+		case 0x45: /* ld_b_l */
+			R.BC = (R.BC & 0xFF) | ((R.HL & 0xFF) << 8);
+			break;
+		case 0x46: /* ld_b_xhl */
+			R.BC = (R.BC & 0xFF) | (M_RD_XHL() << 8);
+			break;
+		case 0x47: /* ld_b_a */
+			R.BC = (R.BC & 0xFF) | (R.A << 8);
+			break;
+		case 0x48: /* ld_c_b */
+			R.BC = (R.BC & 0xFF00) | (R.BC >> 8);
+			break;
+		case 0x49: /* ld_c_c */
+			System.out.println("Z80: Unsupported ld_c_c instruction!");
+			break;
+		case 0x4A: /* ld_c_d */
+			R.BC = (R.BC & 0xFF00) | (R.DE >> 8);
+			break;
+		case 0x4B: /* ld_c_e */
+			R.BC = (R.BC & 0xFF00) | (R.DE & 0xFF);
+			break;
+		case 0x4C: /* ld_c_h */
+			R.BC = (R.BC & 0xFF00) | (R.HL >> 8);
+			break;
+		case 0x4D: /* ld_c_l */
+			R.BC = (R.BC & 0xFF00) | (R.HL & 0xFF);
+			break;
+		case 0x4E: /* ld_c_xhl */
+			R.BC = (R.BC & 0xFF00) | M_RD_XHL();
+			break;
+		case 0x4F: /* ld_c_a */
+			R.BC = (R.BC & 0xFF00) | R.A;
+			break;
+		case 0x50: /* ld_d_b */
+			R.DE = (R.DE & 0xFF) | (R.BC & 0xFF00);
+			break;
+		case 0x51: /* ld_d_c */
+			R.DE = (R.DE & 0xFF) | ((R.BC & 0xFF) << 8);
+			break;
+		case 0x52: /* ld_d_d */
+			System.out.println("Z80: Unsupported ld_d_d instruction!");
+			break;
+		case 0x53: /* ld_d_e */
+			R.DE = (R.DE & 0xFF) | ((R.DE & 0xFF) << 8);
+			break;
+		case 0x54: /* ld_d_h */
+			R.DE = (R.DE & 0xFF) | (R.HL & 0xFF00);
+			break;
+		case 0x55: /* ld_d_l */
+			R.DE = (R.DE & 0xFF) | ((R.HL & 0xFF) << 8);
+			break;
+		case 0x56: /* ld_d_xhl */
+			R.DE = (R.DE & 0xFF) | (M_RD_XHL() << 8);
+			break;
+		case 0x57: /* ld_d_a */
+			R.DE = (R.DE & 0xFF) | (R.A << 8);
+			break;
+		case 0x58: /* ld_e_b */
+			R.DE = (R.DE & 0xFF00) | (R.BC >> 8);
+			break;
+		case 0x59: /* ld_e_c */
+			R.DE = (R.DE & 0xFF00) | (R.BC & 0xFF);
+			break;
+		case 0x5A: /* ld_e_d */
+			R.DE = (R.DE & 0xFF00) | (R.DE >> 8);
+			break;
+		case 0x5B: /* ld_e_e */
+			System.out.println("Z80: Unsupported ld_e_e instruction!");
+			break;
+		case 0x5C: /* ld_e_h */
+			R.DE = (R.DE & 0xFF00) | (R.HL >> 8);
+			break;
+		case 0x5D: /* ld_e_l */
+			R.DE = (R.DE & 0xFF00) | (R.HL & 0xFF);
+			break;
+		case 0x5E: /* ld_e_xhl */
+			R.DE = (R.DE & 0xFF00) | M_RD_XHL();
+			break;
+		case 0x5F: /* ld_e_a */
+			R.DE = (R.DE & 0xFF00) | R.A;
+			break;
+		case 0x60: /* ld_h_b */
+			R.HL = (R.HL & 0xFF) | (R.BC & 0xFF00);
+			break;
+		case 0x61: /* ld_h_c */
+			R.HL = (R.HL & 0xFF) | ((R.BC & 0xFF) << 8);
+			break;
+		case 0x62: /* ld_h_d */
+			R.HL = (R.HL & 0xFF) | (R.DE & 0xFF00);
+			break;
+		case 0x63: /* ld_h_e */
+			R.HL = (R.HL & 0xFF) | ((R.DE & 0xFF) << 8);
+			break;
+		case 0x64: /* ld_h_h */
+			System.out.println("Z80: Unsupported ld_h_h instruction!");
+			break;
+		case 0x65: /* ld_h_l */
+			R.HL = (R.HL & 0xFF) | ((R.HL & 0xFF) << 8);
+			break;
+		case 0x66: /* ld_h_xhl */
+			R.HL = (R.HL & 0xFF) | (M_RD_XHL() << 8);
+			break;
+		case 0x67: /* ld_h_a */
+			R.HL = (R.HL & 0xFF) | (R.A << 8);
+			break;
+		case 0x68: /* ld_l_b */
+			R.HL = (R.HL & 0xFF00) | (R.BC >> 8);
+			break;
+		case 0x69: /* ld_l_c */
+			R.HL = (R.HL & 0xFF00) | (R.BC & 0xFF);
+			break;
+		case 0x6A: /* ld_l_d */
+			R.HL = (R.HL & 0xFF00) | (R.DE >> 8);
+			break;
+		case 0x6B: /* ld_l_e */
+			R.HL = (R.HL & 0xFF00) | (R.DE & 0xFF);
+			break;
+		case 0x6C: /* ld_l_h */
+			R.HL = (R.HL & 0xFF00) | (R.HL >> 8);
+			break;
+		case 0x6D: /* ld_l_l */
+			System.out.println("Z80: Unsupported ld_l_l instruction!");
+			break;
+		case 0x6E: /* ld_l_xhl */
+			R.HL = (R.HL & 0xFF00) | M_RD_XHL();
+			break;
+		case 0x6F: /* ld_l_a */
+			R.HL = (R.HL & 0xFF00) | R.A;
+			break;
+		case 0x70: /* ld_xhl_b */
+			M_WRMEM(R.HL, (R.BC >> 8));
+			break;
+		case 0x71: /* ld_xhl_c */
+			M_WRMEM(R.HL, (R.BC & 0xFF));
+			break;
+		case 0x72: /* ld_xhl_d */
+			M_WRMEM(R.HL, (R.DE >> 8));
+			break;
+		case 0x73: /* ld_xhl_e */
+			M_WRMEM(R.HL, (R.DE & 0xFF));
+			break;
+		case 0x74: /* ld_xhl_h */
+			M_WRMEM(R.HL, (R.HL >> 8));
+			break;
+		case 0x75: /* ld_xhl_l */
+			M_WRMEM(R.HL, (R.HL & 0xFF));
+			break;
+		case 0x76: /* halt */
+			R.PC = (R.PC - 1) & 0xFFFF;
+			R.HALT = 1;
+			if (iCount > 0) {
+				skippedCycles += iCount;
+				iCount = 0;
+			}
+			break;
+		case 0x77: /* ld_xhl_a */
+			M_WRMEM(R.HL, R.A);
+			break;
+		case 0x78: /* ld_a_b */
+			R.A = (R.BC >> 8);
+			break;
+		case 0x79: /* ld_a_c */
+			R.A = (R.BC & 0xFF);
+			break;
+		case 0x7A: /* ld_a_d */
+			R.A = (R.DE >> 8);
+			break;
+		case 0x7B: /* ld_a_e */
+			R.A = (R.DE & 0xFF);
+			break;
+		case 0x7C: /* ld_a_h */
+			R.A = (R.HL >> 8);
+			break;
+		case 0x7D: /* ld_a_l */
+			R.A = (R.HL & 0xFF);
+			break;
+		case 0x7E: /* ld_a_xhl */
+			R.A = M_RD_XHL();
+			break;
+		case 0x7F: /* ld_a_a */
+			System.out.println("Z80: Unsupported ld_a_a instruction!");
+			break;
+		case 0x80: /* add_a_b */
+			M_ADD(R.BC >> 8);
+			break;
+		case 0x81: /* add_a_c */
+			M_ADD(R.BC & 0xFF);
+			break;
+		case 0x82: /* add_a_d */
+			M_ADD(R.DE >> 8);
+			break;
+		case 0x83: /* add_a_e */
+			M_ADD(R.DE & 0xFF);
+			break;
+		case 0x84: /* add_a_h */
+			M_ADD(R.HL >> 8);
+			break;
+		case 0x85: /* add_a_l */
+			M_ADD(R.HL & 0xFF);
+			break;
+		case 0x86: /* add_a_xhl */
+			{
+				int i = M_RD_XHL();
+				M_ADD(i);
+			}
+			break;
+		case 0x87: /* add_a_a */
+			M_ADD(R.A);
+			break;
+		case 0x88: /* adc_a_b */
+			M_ADC(R.BC >> 8);
+			break;
+		case 0x89: /* adc_a_c */
+			M_ADC(R.BC & 0xFF);
+			break;
+		case 0x8A: /* adc_a_d */
+			M_ADC(R.DE >> 8);
+			break;
+		case 0x8B: /* adc_a_e */
+			M_ADC(R.DE & 0xFF);
+			break;
+		case 0x8C: /* adc_a_h */
+			M_ADC(R.HL >> 8);
+			break;
+		case 0x8D: /* adc_a_l */
+			M_ADC(R.HL & 0xFF);
+			break;
+		case 0x8E: /* adc_a_xhl */
+			{
+				int i = M_RD_XHL();
+				M_ADC(i);
+			}
+			break;
+		case 0x8F: /* adc_a_a */
+			M_ADC(R.A);
+			break;
+		case 0x90: /* sub_b */
+			M_SUB(R.BC >> 8);
+			break;
+		case 0x91: /* sub_c */
+			M_SUB(R.BC & 0xFF);
+			break;
+		case 0x92: /* sub_d */
+			M_SUB(R.DE >> 8);
+			break;
+		case 0x93: /* sub_e */
+			M_SUB(R.DE & 0xFF);
+			break;
+		case 0x94: /* sub_h */
+			M_SUB(R.HL >> 8);
+			break;
+		case 0x95: /* sub_l */
+			M_SUB(R.HL & 0xFF);
+			break;
+		case 0x96: /* sub_xhl */
+			{
+				int i = M_RD_XHL();
+				M_SUB(i);
+			}
+			break;
+		case 0x97: /* sub_a */
+			R.A = 0;
+			R.F = Z_FLAG | N_FLAG;
+			break;
+		case 0x98: /* sbc_a_b */
+			M_SBC(R.BC >> 8);
+			break;
+		case 0x99: /* sbc_a_c */
+			M_SBC(R.BC & 0xFF);
+			break;
+		case 0x9A: /* sbc_a_d */
+			M_SBC(R.DE >> 8);
+			break;
+		case 0x9B: /* sbc_a_e */
+			M_SBC(R.DE & 0xFF);
+			break;
+		case 0x9C: /* sbc_a_h */
+			M_SBC(R.HL >> 8);
+			break;
+		case 0x9D: /* sbc_a_l */
+			M_SBC(R.HL & 0xFF);
+			break;
+		case 0x9E: /* sbc_a_xhl */
+			{
+				int i = M_RD_XHL();
+				M_SBC(i);
+			}
+			break;
+		case 0x9F: /* sbc_a_a */
+			M_SBC(R.A);
+			break;
+		case 0xA0: /* and_b */
+			M_AND(R.BC >> 8);
+			break;
+		case 0xA1: /* and_c */
+			M_AND(R.BC & 0xFF);
+			break;
+		case 0xA2: /* and_d */
+			M_AND(R.DE >> 8);
+			break;
+		case 0xA3: /* and_e */
+			M_AND(R.DE & 0xFF);
+			break;
+		case 0xA4: /* and_h */
+			M_AND(R.HL >> 8);
+			break;
+		case 0xA5: /* and_l */
+			M_AND(R.HL & 0xFF);
+			break;
+		case 0xA6: /* and_xhl */
+			{
+				int i = M_RD_XHL();
+				M_AND(i);
+			}
+			break;
+		case 0xA7: /* and_a */
 			R.F = zspTable[R.A] | H_FLAG;
-		}
-	};
-	private final OpcodeFn and_b = new OpcodeFn() {
-		public void handler() {
-			M_AND(R.BC.H);
-		}
-	};
-	private final OpcodeFn and_c = new OpcodeFn() {
-		public void handler() {
-			M_AND(R.BC.L);
-		}
-	};
-	private final OpcodeFn and_d = new OpcodeFn() {
-		public void handler() {
-			M_AND(R.DE.H);
-		}
-	};
-	private final OpcodeFn and_e = new OpcodeFn() {
-		public void handler() {
-			M_AND(R.DE.L);
-		}
-	};
-	private final OpcodeFn and_h = new OpcodeFn() {
-		public void handler() {
-			M_AND(R.HL.H);
-		}
-	};
-	private final OpcodeFn and_l = new OpcodeFn() {
-		public void handler() {
-			M_AND(R.HL.L);
-		}
-	};
-	private final OpcodeFn and_byte = new OpcodeFn() {
-		public void handler() {
-			int i = M_RDMEM_OPCODE();
-			M_AND(i);
-		}
-	};
-
-	private final OpcodeFn bit_0_xhl = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XHL();
-			M_BIT(0, i);
-		}
-	};
-	private final OpcodeFn bit_0_xix = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIX();
-			M_BIT(0, i);
-		}
-	};
-	private final OpcodeFn bit_0_xiy = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIY();
-			M_BIT(0, i);
-		}
-	};
-	private final OpcodeFn bit_0_a = new OpcodeFn() {
-		public void handler() {
-			M_BIT(0, R.A);
-		}
-	};
-	private final OpcodeFn bit_0_b = new OpcodeFn() {
-		public void handler() {
-			M_BIT(0, R.BC.H);
-		}
-	};
-	private final OpcodeFn bit_0_c = new OpcodeFn() {
-		public void handler() {
-			M_BIT(0, R.BC.L);
-		}
-	};
-	private final OpcodeFn bit_0_d = new OpcodeFn() {
-		public void handler() {
-			M_BIT(0, R.DE.H);
-		}
-	};
-	private final OpcodeFn bit_0_e = new OpcodeFn() {
-		public void handler() {
-			M_BIT(0, R.DE.L);
-		}
-	};
-	private final OpcodeFn bit_0_h = new OpcodeFn() {
-		public void handler() {
-			M_BIT(0, R.HL.H);
-		}
-	};
-	private final OpcodeFn bit_0_l = new OpcodeFn() {
-		public void handler() {
-			M_BIT(0, R.HL.L);
-		}
-	};
-
-	private final OpcodeFn bit_1_xhl = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XHL();
-			M_BIT(1, i);
-		}
-	};
-	private final OpcodeFn bit_1_xix = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIX();
-			M_BIT(1, i);
-		}
-	};
-	private final OpcodeFn bit_1_xiy = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIY();
-			M_BIT(1, i);
-		}
-	};
-	private final OpcodeFn bit_1_a = new OpcodeFn() {
-		public void handler() {
-			M_BIT(1, R.A);
-		}
-	};
-	private final OpcodeFn bit_1_b = new OpcodeFn() {
-		public void handler() {
-			M_BIT(1, R.BC.H);
-		}
-	};
-	private final OpcodeFn bit_1_c = new OpcodeFn() {
-		public void handler() {
-			M_BIT(1, R.BC.L);
-		}
-	};
-	private final OpcodeFn bit_1_d = new OpcodeFn() {
-		public void handler() {
-			M_BIT(1, R.DE.H);
-		}
-	};
-	private final OpcodeFn bit_1_e = new OpcodeFn() {
-		public void handler() {
-			M_BIT(1, R.DE.L);
-		}
-	};
-	private final OpcodeFn bit_1_h = new OpcodeFn() {
-		public void handler() {
-			M_BIT(1, R.HL.H);
-		}
-	};
-	private final OpcodeFn bit_1_l = new OpcodeFn() {
-		public void handler() {
-			M_BIT(1, R.HL.L);
-		}
-	};
-
-	private final OpcodeFn bit_2_xhl = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XHL();
-			M_BIT(2, i);
-		}
-	};
-	private final OpcodeFn bit_2_xix = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIX();
-			M_BIT(2, i);
-		}
-	};
-	private final OpcodeFn bit_2_xiy = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIY();
-			M_BIT(2, i);
-		}
-	};
-	private final OpcodeFn bit_2_a = new OpcodeFn() {
-		public void handler() {
-			M_BIT(2, R.A);
-		}
-	};
-	private final OpcodeFn bit_2_b = new OpcodeFn() {
-		public void handler() {
-			M_BIT(2, R.BC.H);
-		}
-	};
-	private final OpcodeFn bit_2_c = new OpcodeFn() {
-		public void handler() {
-			M_BIT(2, R.BC.L);
-		}
-	};
-	private final OpcodeFn bit_2_d = new OpcodeFn() {
-		public void handler() {
-			M_BIT(2, R.DE.H);
-		}
-	};
-	private final OpcodeFn bit_2_e = new OpcodeFn() {
-		public void handler() {
-			M_BIT(2, R.DE.L);
-		}
-	};
-	private final OpcodeFn bit_2_h = new OpcodeFn() {
-		public void handler() {
-			M_BIT(2, R.HL.H);
-		}
-	};
-	private final OpcodeFn bit_2_l = new OpcodeFn() {
-		public void handler() {
-			M_BIT(2, R.HL.L);
-		}
-	};
-
-	private final OpcodeFn bit_3_xhl = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XHL();
-			M_BIT(3, i);
-		}
-	};
-	private final OpcodeFn bit_3_xix = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIX();
-			M_BIT(3, i);
-		}
-	};
-	private final OpcodeFn bit_3_xiy = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIY();
-			M_BIT(3, i);
-		}
-	};
-	private final OpcodeFn bit_3_a = new OpcodeFn() {
-		public void handler() {
-			M_BIT(3, R.A);
-		}
-	};
-	private final OpcodeFn bit_3_b = new OpcodeFn() {
-		public void handler() {
-			M_BIT(3, R.BC.H);
-		}
-	};
-	private final OpcodeFn bit_3_c = new OpcodeFn() {
-		public void handler() {
-			M_BIT(3, R.BC.L);
-		}
-	};
-	private final OpcodeFn bit_3_d = new OpcodeFn() {
-		public void handler() {
-			M_BIT(3, R.DE.H);
-		}
-	};
-	private final OpcodeFn bit_3_e = new OpcodeFn() {
-		public void handler() {
-			M_BIT(3, R.DE.L);
-		}
-	};
-	private final OpcodeFn bit_3_h = new OpcodeFn() {
-		public void handler() {
-			M_BIT(3, R.HL.H);
-		}
-	};
-	private final OpcodeFn bit_3_l = new OpcodeFn() {
-		public void handler() {
-			M_BIT(3, R.HL.L);
-		}
-	};
-
-	private final OpcodeFn bit_4_xhl = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XHL();
-			M_BIT(4, i);
-		}
-	};
-	private final OpcodeFn bit_4_xix = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIX();
-			M_BIT(4, i);
-		}
-	};
-	private final OpcodeFn bit_4_xiy = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIY();
-			M_BIT(4, i);
-		}
-	};
-	private final OpcodeFn bit_4_a = new OpcodeFn() {
-		public void handler() {
-			M_BIT(4, R.A);
-		}
-	};
-	private final OpcodeFn bit_4_b = new OpcodeFn() {
-		public void handler() {
-			M_BIT(4, R.BC.H);
-		}
-	};
-	private final OpcodeFn bit_4_c = new OpcodeFn() {
-		public void handler() {
-			M_BIT(4, R.BC.L);
-		}
-	};
-	private final OpcodeFn bit_4_d = new OpcodeFn() {
-		public void handler() {
-			M_BIT(4, R.DE.H);
-		}
-	};
-	private final OpcodeFn bit_4_e = new OpcodeFn() {
-		public void handler() {
-			M_BIT(4, R.DE.L);
-		}
-	};
-	private final OpcodeFn bit_4_h = new OpcodeFn() {
-		public void handler() {
-			M_BIT(4, R.HL.H);
-		}
-	};
-	private final OpcodeFn bit_4_l = new OpcodeFn() {
-		public void handler() {
-			M_BIT(4, R.HL.L);
-		}
-	};
-
-	private final OpcodeFn bit_5_xhl = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XHL();
-			M_BIT(5, i);
-		}
-	};
-	private final OpcodeFn bit_5_xix = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIX();
-			M_BIT(5, i);
-		}
-	};
-	private final OpcodeFn bit_5_xiy = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIY();
-			M_BIT(5, i);
-		}
-	};
-	private final OpcodeFn bit_5_a = new OpcodeFn() {
-		public void handler() {
-			M_BIT(5, R.A);
-		}
-	};
-	private final OpcodeFn bit_5_b = new OpcodeFn() {
-		public void handler() {
-			M_BIT(5, R.BC.H);
-		}
-	};
-	private final OpcodeFn bit_5_c = new OpcodeFn() {
-		public void handler() {
-			M_BIT(5, R.BC.L);
-		}
-	};
-	private final OpcodeFn bit_5_d = new OpcodeFn() {
-		public void handler() {
-			M_BIT(5, R.DE.H);
-		}
-	};
-	private final OpcodeFn bit_5_e = new OpcodeFn() {
-		public void handler() {
-			M_BIT(5, R.DE.L);
-		}
-	};
-	private final OpcodeFn bit_5_h = new OpcodeFn() {
-		public void handler() {
-			M_BIT(5, R.HL.H);
-		}
-	};
-	private final OpcodeFn bit_5_l = new OpcodeFn() {
-		public void handler() {
-			M_BIT(5, R.HL.L);
-		}
-	};
-
-	private final OpcodeFn bit_6_xhl = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XHL();
-			M_BIT(6, i);
-		}
-	};
-	private final OpcodeFn bit_6_xix = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIX();
-			M_BIT(6, i);
-		}
-	};
-	private final OpcodeFn bit_6_xiy = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIY();
-			M_BIT(6, i);
-		}
-	};
-	private final OpcodeFn bit_6_a = new OpcodeFn() {
-		public void handler() {
-			M_BIT(6, R.A);
-		}
-	};
-	private final OpcodeFn bit_6_b = new OpcodeFn() {
-		public void handler() {
-			M_BIT(6, R.BC.H);
-		}
-	};
-	private final OpcodeFn bit_6_c = new OpcodeFn() {
-		public void handler() {
-			M_BIT(6, R.BC.L);
-		}
-	};
-	private final OpcodeFn bit_6_d = new OpcodeFn() {
-		public void handler() {
-			M_BIT(6, R.DE.H);
-		}
-	};
-	private final OpcodeFn bit_6_e = new OpcodeFn() {
-		public void handler() {
-			M_BIT(6, R.DE.L);
-		}
-	};
-	private final OpcodeFn bit_6_h = new OpcodeFn() {
-		public void handler() {
-			M_BIT(6, R.HL.H);
-		}
-	};
-	private final OpcodeFn bit_6_l = new OpcodeFn() {
-		public void handler() {
-			M_BIT(6, R.HL.L);
-		}
-	};
-
-	private final OpcodeFn bit_7_xhl = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XHL();
-			M_BIT(7, i);
-		}
-	};
-	private final OpcodeFn bit_7_xix = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIX();
-			M_BIT(7, i);
-		}
-	};
-	private final OpcodeFn bit_7_xiy = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIY();
-			M_BIT(7, i);
-		}
-	};
-	private final OpcodeFn bit_7_a = new OpcodeFn() {
-		public void handler() {
-			M_BIT(7, R.A);
-		}
-	};
-	private final OpcodeFn bit_7_b = new OpcodeFn() {
-		public void handler() {
-			M_BIT(7, R.BC.H);
-		}
-	};
-	private final OpcodeFn bit_7_c = new OpcodeFn() {
-		public void handler() {
-			M_BIT(7, R.BC.L);
-		}
-	};
-	private final OpcodeFn bit_7_d = new OpcodeFn() {
-		public void handler() {
-			M_BIT(7, R.DE.H);
-		}
-	};
-	private final OpcodeFn bit_7_e = new OpcodeFn() {
-		public void handler() {
-			M_BIT(7, R.DE.L);
-		}
-	};
-	private final OpcodeFn bit_7_h = new OpcodeFn() {
-		public void handler() {
-			M_BIT(7, R.HL.H);
-		}
-	};
-	private final OpcodeFn bit_7_l = new OpcodeFn() {
-		public void handler() {
-			M_BIT(7, R.HL.L);
-		}
-	};
-
-	private final OpcodeFn call_c = new OpcodeFn() {
-		public void handler() {
-			if (M_C()) {
+			break;
+		case 0xA8: /* xor_b */
+			M_XOR(R.BC >> 8);
+			break;
+		case 0xA9: /* xor_c */
+			M_XOR(R.BC & 0xFF);
+			break;
+		case 0xAA: /* xor_d */
+			M_XOR(R.DE >> 8);
+			break;
+		case 0xAB: /* xor_e */
+			M_XOR(R.DE & 0xFF);
+			break;
+		case 0xAC: /* xor_h */
+			M_XOR(R.HL >> 8);
+			break;
+		case 0xAD: /* xor_l */
+			M_XOR(R.HL & 0xFF);
+			break;
+		case 0xAE: /* xor_xhl */
+			{
+				int i = M_RD_XHL();
+				M_XOR(i);
+			}
+			break;
+		case 0xAF: /* xor_a */
+			R.A = 0;
+			R.F = Z_FLAG | V_FLAG;
+			break;
+		case 0xB0: /* or_b */
+			M_OR(R.BC >> 8);
+			break;
+		case 0xB1: /* or_c */
+			M_OR(R.BC & 0xFF);
+			break;
+		case 0xB2: /* or_d */
+			M_OR(R.DE >> 8);
+			break;
+		case 0xB3: /* or_e */
+			M_OR(R.DE & 0xFF);
+			break;
+		case 0xB4: /* or_h */
+			M_OR(R.HL >> 8);
+			break;
+		case 0xB5: /* or_l */
+			M_OR(R.HL & 0xFF);
+			break;
+		case 0xB6: /* or_xhl */
+			{
+				int i = M_RD_XHL();
+				M_OR(i);
+			}
+			break;
+		case 0xB7: /* or_a */
+			R.F = zspTable[R.A];
+			break;
+		case 0xB8: /* cp_b */
+			M_CP(R.BC >> 8);
+			break;
+		case 0xB9: /* cp_c */
+			M_CP(R.BC & 0xFF);
+			break;
+		case 0xBA: /* cp_d */
+			M_CP(R.DE >> 8);
+			break;
+		case 0xBB: /* cp_e */
+			M_CP(R.DE & 0xFF);
+			break;
+		case 0xBC: /* cp_h */
+			M_CP(R.HL >> 8);
+			break;
+		case 0xBD: /* cp_l */
+			M_CP(R.HL & 0xFF);
+			break;
+		case 0xBE: /* cp_xhl */
+			{
+				int i = M_RD_XHL();
+				M_CP(i);
+			}
+			break;
+		case 0xBF: /* cp_a */
+			M_CP(R.A);
+			break;
+		case 0xC0: /* ret_nz */
+			if (M_NZ()) {
+				M_RET();
+			} else {
+				M_SKIP_RET();
+			}
+			break;
+		case 0xC1: /* pop_bc */
+			R.BC = M_POP();
+			break;
+		case 0xC2: /* jp_nz */
+			if (M_NZ()) {
+				M_JP();
+			} else {
+				M_SKIP_JP();
+			}
+			break;
+		case 0xC3: /* jp */
+			{
+				int i = R.PC - 1;
+				M_JP();
+				int j = R.PC;
+				if (j == i) {
+					if (iCount > 0)
+						iCount = 0;/* speed up busy loop */
+				} else if ((j == i - 3) && (M_RDOP(j) == 0x31)) {
+					if (iCount > 10)
+						iCount = 10;
+				}
+			}
+			break;
+		case 0xC4: /* call_nz */
+			if (M_NZ()) {
 				M_CALL();
 			} else {
 				M_SKIP_CALL();
 			}
-		}
-	};
-	private final OpcodeFn call_m = new OpcodeFn() {
-		public void handler() {
-			if (M_M()) {
+			break;
+		case 0xC5: /* push_bc */
+			M_PUSH(R.BC);
+			break;
+		case 0xC6: /* add_a_byte */
+			{
+				int i = M_RDMEM_OPCODE();
+				M_ADD(i);
+			}
+			break;
+		case 0xC7: /* rst_00 */
+			M_RST(0x00);
+			break;
+		case 0xC8: /* ret_z */
+			if (M_Z()) {
+				M_RET();
+			} else {
+				M_SKIP_RET();
+			}
+			break;
+		case 0xC9: /* ret */
+			M_RET();
+			break;
+		case 0xCA: /* jp_z */
+			if (M_Z()) {
+				M_JP();
+			} else {
+				M_SKIP_JP();
+			}
+			break;
+		case 0xCB: /* cb */
+			{
+				R.R += 1;
+				int opcode = M_RDOP(R.PC);
+				R.PC = (R.PC + 1) & 0xFFFF;
+				iCount -= cycles_cb[opcode];
+				exec_cb(opcode);
+			}
+			break;
+		case 0xCC: /* call_z */
+			if (M_Z()) {
 				M_CALL();
 			} else {
 				M_SKIP_CALL();
 			}
-		}
-	};
-	private final OpcodeFn call_nc = new OpcodeFn() {
-		public void handler() {
+			break;
+		case 0xCD: /* call */
+			M_CALL();
+			break;
+		case 0xCE: /* adc_a_byte */
+			{
+				int i = M_RDMEM_OPCODE();
+				M_ADC(i);
+			}
+			break;
+		case 0xCF: /* rst_08 */
+			M_RST(0x08);
+			break;
+		case 0xD0: /* ret_nc */
 			if (M_NC()) {
-				M_CALL();
+				M_RET();
 			} else {
-				M_SKIP_CALL();
+				M_SKIP_RET();
 			}
-		}
-	};
-	private final OpcodeFn call_nz = new OpcodeFn() {
-		public void handler() {
-			if (M_NZ()) {
-				M_CALL();
+			break;
+		case 0xD1: /* pop_de */
+			R.DE = M_POP();
+			break;
+		case 0xD2: /* jp_nc */
+			if (M_NC()) {
+				M_JP();
 			} else {
-				M_SKIP_CALL();
+				M_SKIP_JP();
 			}
-		}
-	};
-	private final OpcodeFn call_p = new OpcodeFn() {
-		public void handler() {
-			if (M_P()) {
+			break;
+		case 0xD3: /* out_byte_a */
+			{
+				int i = M_RDMEM_OPCODE();
+				z80_Out(i, R.A);
+			}
+			break;
+		case 0xD4: /* call_nc */
+			if (M_NC()) {
 				M_CALL();
 			} else {
 				M_SKIP_CALL();
 			}
-		}
-	};
-	private final OpcodeFn call_z = new OpcodeFn() {
-		public void handler() {
-			if (M_Z()) {
+			break;
+		case 0xD5: /* push_de */
+			M_PUSH(R.DE);
+			break;
+		case 0xD6: /* sub_byte */
+			{
+				int i = M_RDMEM_OPCODE();
+				M_SUB(i);
+			}
+			break;
+		case 0xD7: /* rst_10 */
+			M_RST(0x10);
+			break;
+		case 0xD8: /* ret_c */
+			if (M_C()) {
+				M_RET();
+			} else {
+				M_SKIP_RET();
+			}
+			break;
+		case 0xD9: /* exx */
+			{
+				int i;
+				i = R.BC;
+				R.BC = R.BC2;
+				R.BC2 = i;
+				i = R.DE;
+				R.DE = R.DE2;
+				R.DE2 = i;
+				i = R.HL;
+				R.HL = R.HL2;
+				R.HL2 = i;
+			}
+			break;
+		case 0xDA: /* jp_c */
+			if (M_C()) {
+				M_JP();
+			} else {
+				M_SKIP_JP();
+			}
+			break;
+		case 0xDB: /* in_a_byte */
+			{
+				int i = M_RDMEM_OPCODE();
+				R.A = z80_In(i);
+			}
+			break;
+		case 0xDC: /* call_c */
+			if (M_C()) {
 				M_CALL();
 			} else {
 				M_SKIP_CALL();
 			}
-		}
-	};
-	private final OpcodeFn call = new OpcodeFn() {
-		public void handler() {
-			M_CALL();
-		}
-	};
-
-	private final OpcodeFn ccf = new OpcodeFn() {
-		public void handler() {
-			R.F = ((R.F & 0xED) | ((R.F & 1) << 4)) ^ 1;
-		}
-	};
-
-	private final OpcodeFn cp_xhl = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XHL();
-			M_CP(i);
-		}
-	};
-	private final OpcodeFn cp_xix = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIX();
-			M_CP(i);
-		}
-	};
-	private final OpcodeFn cp_xiy = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIY();
-			M_CP(i);
-		}
-	};
-	private final OpcodeFn cp_a = new OpcodeFn() {
-		public void handler() {
-			M_CP(R.A);
-		}
-	};
-	private final OpcodeFn cp_b = new OpcodeFn() {
-		public void handler() {
-			M_CP(R.BC.H);
-		}
-	};
-	private final OpcodeFn cp_c = new OpcodeFn() {
-		public void handler() {
-			M_CP(R.BC.L);
-		}
-	};
-	private final OpcodeFn cp_d = new OpcodeFn() {
-		public void handler() {
-			M_CP(R.DE.H);
-		}
-	};
-	private final OpcodeFn cp_e = new OpcodeFn() {
-		public void handler() {
-			M_CP(R.DE.L);
-		}
-	};
-	private final OpcodeFn cp_h = new OpcodeFn() {
-		public void handler() {
-			M_CP(R.HL.H);
-		}
-	};
-	private final OpcodeFn cp_l = new OpcodeFn() {
-		public void handler() {
-			M_CP(R.HL.L);
-		}
-	};
-	private final OpcodeFn cp_byte = new OpcodeFn() {
-		public void handler() {
-			int i = M_RDMEM_OPCODE();
-			M_CP(i);
-		}
-	};
-
-	private final OpcodeFn cpdr = new OpcodeFn() {
-		public void handler() {
-			int i, j;
-			R.R -= 2;
-			do {
-				R.R += 2;
-				i = M_RDMEM(R.HL.W);
-				j = (R.A - i) & 0xFF;
-				R.HL.AddW(-1);
-				R.BC.AddW(-1);
-				iCount -= 21;
-			} while (R.BC.W != 0 && j != 0 && iCount > 0);
-			R.F = (R.F & C_FLAG) | zsTable[j] | ((R.A ^ i ^ j) & H_FLAG)
-					| (R.BC.W != 0 ? V_FLAG : 0) | N_FLAG;
-			if (R.BC.W != 0 && j != 0)
-				R.PC = (R.PC - 2) & 0xFFFF;
-			else
-				iCount += 5;
-		}
-	};
-
-	private final OpcodeFn cpi = new OpcodeFn() {
-		public void handler() {
-			int i, j;
-			i = M_RDMEM(R.HL.W);
-			j = (R.A - i) & 0xFF;
-			R.HL.AddW(1);
-			R.BC.AddW(-1);
-			R.F = (R.F & C_FLAG) | zsTable[j] | ((R.A ^ i ^ j) & H_FLAG)
-					| (R.BC.W != 0 ? V_FLAG : 0) | N_FLAG;
-		}
-	};
-
-	private final OpcodeFn cpir = new OpcodeFn() {
-		public void handler() {
-			int i, j;
-			R.R -= 2;
-			do {
-				R.R += 2;
-				i = M_RDMEM(R.HL.W);
-				j = (R.A - i) & 0xFF;
-				R.HL.AddW(1);
-				R.BC.AddW(-1);
-				iCount -= 21;
-			} while (R.BC.W != 0 && j != 0 && iCount > 0);
-			R.F = (R.F & C_FLAG) | zsTable[j] | ((R.A ^ i ^ j) & H_FLAG)
-					| (R.BC.W != 0 ? V_FLAG : 0) | N_FLAG;
-			if (R.BC.W != 0 && j != 0)
-				R.PC = (R.PC - 2) & 0xFFFF;
-			else
-				iCount += 5;
-		}
-	};
-
-	private final OpcodeFn cpl = new OpcodeFn() {
-		public void handler() {
-			R.A ^= 0xFF;
-			R.F |= (H_FLAG | N_FLAG);
-		}
-	};
-
-	private final OpcodeFn daa = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = R.A;
-			if ((R.F & C_FLAG) != 0)
-				i |= 256;
-			if ((R.F & H_FLAG) != 0)
-				i |= 512;
-			if ((R.F & N_FLAG) != 0)
-				i |= 1024;
-			R.A = ((char) DAATable[i]) >> 8;
-			R.F = ((char) DAATable[i]) & 0xFF;
-		}
-	};
-
-	private final OpcodeFn dec_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_DEC(i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn dec_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_DEC(i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn dec_xiy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIY();
-			i = M_RDMEM(j);
-			i = M_DEC(i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn dec_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_DEC(R.A);
-		}
-	};
-	private final OpcodeFn dec_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_DEC(R.BC.H));
-		}
-	};
-	private final OpcodeFn dec_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_DEC(R.BC.L));
-		}
-	};
-	private final OpcodeFn dec_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_DEC(R.DE.H));
-		}
-	};
-	private final OpcodeFn dec_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_DEC(R.DE.L));
-		}
-	};
-	private final OpcodeFn dec_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_DEC(R.HL.H));
-		}
-	};
-	private final OpcodeFn dec_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_DEC(R.HL.L));
-		}
-	};
-	private final OpcodeFn dec_ixl = new OpcodeFn() {
-		public void handler() {
-			R.IX.SetL(M_DEC(R.IX.L));
-		}
-	};
-	private final OpcodeFn dec_iyh = new OpcodeFn() {
-		public void handler() {
-			R.IY.SetH(M_DEC(R.IY.H));
-		}
-	};
-	private final OpcodeFn dec_iyl = new OpcodeFn() {
-		public void handler() {
-			R.IY.SetL(M_DEC(R.IY.L));
-		}
-	};
-
-	private final OpcodeFn dec_bc = new OpcodeFn() {
-		public void handler() {
-			R.BC.AddW(-1);
-		}
-	};
-	private final OpcodeFn dec_de = new OpcodeFn() {
-		public void handler() {
-			R.DE.AddW(-1);
-		}
-	};
-	private final OpcodeFn dec_hl = new OpcodeFn() {
-		public void handler() {
-			R.HL.AddW(-1);
-		}
-	};
-	private final OpcodeFn dec_ix = new OpcodeFn() {
-		public void handler() {
-			R.IX.AddW(-1);
-		}
-	};
-	private final OpcodeFn dec_iy = new OpcodeFn() {
-		public void handler() {
-			R.IY.AddW(-1);
-		}
-	};
-	private final OpcodeFn dec_sp = new OpcodeFn() {
-		public void handler() {
-			R.SP = (R.SP - 1) & 0xFFFF;
-		}
-	};
-
-	private final OpcodeFn di = new OpcodeFn() {
-		public void handler() {
-			R.IFF1 = R.IFF2 = 0;
-		}
-	};
-
-	private final OpcodeFn djnz = new OpcodeFn() {
-		public void handler() {
-			R.BC.AddH(-1);
-			if (R.BC.H != 0) {
-				M_JR();
-			} else {
-				M_SKIP_JR();
+			break;
+		case 0xDD: /* dd */
+			{
+				R.R += 1;
+				int opcode = M_RDOP(R.PC);
+				R.PC = (R.PC + 1) & 0xFFFF;
+				iCount -= cycles_xx[opcode];
+				exec_dd(opcode);
 			}
-		}
-	};
-
-	private final OpcodeFn ex_xsp_hl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM_WORD(R.SP);
-			M_WRMEM_WORD(R.SP, R.HL.W);
-			R.HL.SetW(i);
-		}
-	};
-
-	private final OpcodeFn ex_xsp_ix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM_WORD(R.SP);
-			M_WRMEM_WORD(R.SP, R.IX.W);
-			R.IX.SetW(i);
-		}
-	};
-
-	private final OpcodeFn ex_xsp_iy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM_WORD(R.SP);
-			M_WRMEM_WORD(R.SP, R.IY.W);
-			R.IY.SetW(i);
-		}
-	};
-
-	private final OpcodeFn ex_af_af = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = (R.A << 8) | R.F;
-			R.A = (R.AF2 >> 8);
-			R.F = (R.AF2 & 0xFF);
-			R.AF2 = i;
-		}
-	};
-
-	private final OpcodeFn ex_de_hl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = R.DE.W;
-			R.DE.SetW(R.HL.W);
-			R.HL.SetW(i);
-		}
-	};
-
-	private final OpcodeFn exx = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = R.BC.W;
-			R.BC.SetW(R.BC2);
-			R.BC2 = i;
-			i = R.DE.W;
-			R.DE.SetW(R.DE2);
-			R.DE2 = i;
-			i = R.HL.W;
-			R.HL.SetW(R.HL2);
-			R.HL2 = i;
-		}
-	};
-
-	private final OpcodeFn halt = new OpcodeFn() {
-		public void handler() {
-			R.PC = (R.PC - 1) & 0xFFFF;
-			R.HALT = 1;
-			if (iCount > 0)
-				iCount = 0;
-		}
-	};
-
-	private final OpcodeFn im_0 = new OpcodeFn() {
-		public void handler() {
-			R.IM = 0;
-		}
-	};
-	private final OpcodeFn im_1 = new OpcodeFn() {
-		public void handler() {
-			R.IM = 1;
-		}
-	};
-	private final OpcodeFn im_2 = new OpcodeFn() {
-		public void handler() {
-			R.IM = 2;
-		}
-	};
-
-	private final OpcodeFn in_a_c = new OpcodeFn() {
-		public void handler() {
-			R.A = M_IN();
-		}
-	};
-	private final OpcodeFn in_c_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_IN());
-		}
-	};
-	private final OpcodeFn in_b_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_IN());
-		}
-	};
-	private final OpcodeFn in_e_c = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_IN());
-		}
-	};
-	private final OpcodeFn in_l_c = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_IN());
-		}
-	};
-
-	private final OpcodeFn in_a_byte = new OpcodeFn() {
-		public void handler() {
-			int i = M_RDMEM_OPCODE();
-			R.A = z80_In(i);
-		}
-	};
-
-	private final OpcodeFn inc_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_INC(i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn inc_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_INC(i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn inc_xiy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIY();
-			i = M_RDMEM(j);
-			i = M_INC(i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn inc_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_INC(R.A);
-		}
-	};
-	private final OpcodeFn inc_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_INC(R.BC.H));
-		}
-	};
-	private final OpcodeFn inc_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_INC(R.BC.L));
-		}
-	};
-	private final OpcodeFn inc_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_INC(R.DE.H));
-		}
-	};
-	private final OpcodeFn inc_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_INC(R.DE.L));
-		}
-	};
-	private final OpcodeFn inc_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_INC(R.HL.H));
-		}
-	};
-	private final OpcodeFn inc_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_INC(R.HL.L));
-		}
-	};
-	private final OpcodeFn inc_ixl = new OpcodeFn() {
-		public void handler() {
-			R.IX.SetL(M_INC(R.IX.L));
-		}
-	};
-
-	private final OpcodeFn inc_bc = new OpcodeFn() {
-		public void handler() {
-			R.BC.AddW(1);
-		}
-	};
-	private final OpcodeFn inc_de = new OpcodeFn() {
-		public void handler() {
-			R.DE.AddW(1);
-		}
-	};
-	private final OpcodeFn inc_hl = new OpcodeFn() {
-		public void handler() {
-			R.HL.AddW(1);
-		}
-	};
-	private final OpcodeFn inc_ix = new OpcodeFn() {
-		public void handler() {
-			R.IX.AddW(1);
-		}
-	};
-	private final OpcodeFn inc_iy = new OpcodeFn() {
-		public void handler() {
-			R.IY.AddW(1);
-		}
-	};
-	private final OpcodeFn inc_sp = new OpcodeFn() {
-		public void handler() {
-			R.SP = (R.SP + 1) & 0xFFFF;
-		}
-	};
-
-	private final OpcodeFn jp = new OpcodeFn() {
-		public void handler() {
-			// M_JP();
-			int i = R.PC - 1;
-			M_JP();
-			int j = R.PC;
-			if (j == i) {
-				if (iCount > 0)
-					iCount = 0;/* speed up busy loop */
-			} else if ((j == i - 3) && (M_RDOP(j) == 0x31)) {
-				if (iCount > 10)
-					iCount = 10;
+			break;
+		case 0xDE: /* sbc_a_byte */
+			{
+				int i = M_RDMEM_OPCODE();
+				M_SBC(i);
 			}
-
-		}
-	};
-	private final OpcodeFn jp_hl = new OpcodeFn() {
-		public void handler() {
-			R.PC = R.HL.W;
-		}
-	};
-	private final OpcodeFn jp_ix = new OpcodeFn() {
-		public void handler() {
-			R.PC = R.IX.W;
-		}
-	};
-	private final OpcodeFn jp_iy = new OpcodeFn() {
-		public void handler() {
-			R.PC = R.IY.W;
-		}
-	};
-	private final OpcodeFn jp_c = new OpcodeFn() {
-		public void handler() {
-			if (M_C()) {
-				M_JP();
+			break;
+		case 0xDF: /* rst_18 */
+			M_RST(0x18);
+			break;
+		case 0xE0: /* ret_po */
+			if (M_PO()) {
+				M_RET();
 			} else {
-				M_SKIP_JP();
+				M_SKIP_RET();
 			}
-		}
-	};
-	private final OpcodeFn jp_m = new OpcodeFn() {
-		public void handler() {
-			if (M_M()) {
+			break;
+		case 0xE1: /* pop_hl */
+			R.HL = M_POP();
+			break;
+		case 0xE2: /* jp_po */
+			if (M_PO()) {
 				M_JP();
 			} else {
 				M_SKIP_JP();
 			}
-		}
-	};
-	private final OpcodeFn jp_nc = new OpcodeFn() {
-		public void handler() {
-			if (M_NC()) {
-				M_JP();
-			} else {
-				M_SKIP_JP();
+			break;
+		case 0xE3: /* ex_xsp_hl */
+			{
+				int i;
+				i = M_RDMEM_WORD(R.SP);
+				M_WRMEM_WORD(R.SP, R.HL);
+				R.HL = i;
 			}
-		}
-	};
-	private final OpcodeFn jp_nz = new OpcodeFn() {
-		public void handler() {
-			if (M_NZ()) {
-				M_JP();
-			} else {
-				M_SKIP_JP();
+			break;
+		case 0xE5: /* push_hl */
+			M_PUSH(R.HL);
+			break;
+		case 0xE6: /* and_byte */
+			{
+				int i = M_RDMEM_OPCODE();
+				M_AND(i);
 			}
-		}
-	};
-	private final OpcodeFn jp_p = new OpcodeFn() {
-		public void handler() {
-			if (M_P()) {
-				M_JP();
+			break;
+		case 0xE7: /* rst_20 */
+			M_RST(0x20);
+			break;
+		case 0xE8: /* ret_pe */
+			if (M_PE()) {
+				M_RET();
 			} else {
-				M_SKIP_JP();
+				M_SKIP_RET();
 			}
-		}
-	};
-	private final OpcodeFn jp_pe = new OpcodeFn() {
-		public void handler() {
+			break;
+		case 0xE9: /* jp_hl */
+			R.PC = R.HL;
+			break;
+		case 0xEA: /* jp_pe */
 			if (M_PE()) {
 				M_JP();
 			} else {
 				M_SKIP_JP();
 			}
-		}
-	};
-	private final OpcodeFn jp_po = new OpcodeFn() {
-		public void handler() {
-			if (M_PO()) {
-				M_JP();
+			break;
+		case 0xEB: /* ex_de_hl */
+			{
+				int i;
+				i = R.DE;
+				R.DE = R.HL;
+				R.HL = i;
+			}
+			break;
+		case 0xED: /* ed */
+			{
+				R.R += 1;
+				int opcode = M_RDOP(R.PC);
+				R.PC = (R.PC + 1) & 0xFFFF;
+				iCount -= cycles_ed[opcode];
+				exec_ed(opcode);
+			}
+			break;
+		case 0xEE: /* xor_byte */
+			{
+				int i = M_RDMEM_OPCODE();
+				M_XOR(i);
+			}
+			break;
+		case 0xEF: /* rst_28 */
+			M_RST(0x28);
+			break;
+		case 0xF0: /* ret_p */
+			if (M_P()) {
+				M_RET();
 			} else {
-				M_SKIP_JP();
+				M_SKIP_RET();
 			}
-		}
-	};
-	private final OpcodeFn jp_z = new OpcodeFn() {
-		public void handler() {
-			if (M_Z()) {
+			break;
+		case 0xF1: /* pop_af */
+			R.AF = M_POP();
+			R.A = R.AF >> 8;
+			R.F = R.AF & 0xFF;
+			break;
+		case 0xF2: /* jp_p */
+			if (M_P()) {
 				M_JP();
 			} else {
 				M_SKIP_JP();
 			}
-		}
-	};
-
-	private final OpcodeFn jr = new OpcodeFn() {
-		public void handler() {
-			// M_JR();
-			int i = R.PC - 1;
-			M_JR();
-			int j = R.PC;
-			if (j == i) {
-				if (iCount > 0)
-					iCount = 0;/* speed up busy loop */
-			} else if ((j == i - 1) && (M_RDOP(j) == 0xfb))/* EI - 1942 */
-			{
-				if (iCount > 4)
-					iCount = 4;
-			}
-		}
-	};
-	private final OpcodeFn jr_c = new OpcodeFn() {
-		public void handler() {
-			if (M_C()) {
-				M_JR();
+			break;
+		case 0xF3: /* di */
+			R.IFF1 = R.IFF2 = 0;
+			break;
+		case 0xF4: /* call_p */
+			if (M_P()) {
+				M_CALL();
 			} else {
-				M_SKIP_JR();
+				M_SKIP_CALL();
 			}
-		}
-	};
-	private final OpcodeFn jr_nc = new OpcodeFn() {
-		public void handler() {
-			if (M_NC()) {
-				M_JR();
+			break;
+		case 0xF5: /* push_af */
+			M_PUSH((R.A << 8) | R.F);
+			break;
+		case 0xF6: /* or_byte */
+			{
+				int i = M_RDMEM_OPCODE();
+				M_OR(i);
+			}
+			break;
+		case 0xF7: /* rst_30 */
+			M_RST(0x30);
+			break;
+		case 0xF8: /* ret_m */
+			if (M_M()) {
+				M_RET();
 			} else {
-				M_SKIP_JR();
+				M_SKIP_RET();
 			}
-		}
-	};
-	private final OpcodeFn jr_nz = new OpcodeFn() {
-		public void handler() {
-			if (M_NZ()) {
-				M_JR();
+			break;
+		case 0xF9: /* ld_sp_hl */
+			R.SP = R.HL;
+			break;
+		case 0xFA: /* jp_m */
+			if (M_M()) {
+				M_JP();
 			} else {
-				M_SKIP_JR();
+				M_SKIP_JP();
 			}
-		}
-	};
-	private final OpcodeFn jr_z = new OpcodeFn() {
-		public void handler() {
-			if (M_Z()) {
-				M_JR();
+			break;
+		case 0xFB: /* ei */
+			{
+				int opcode;
+				/*
+				 * If interrupts were disabled, execute one more instruction and
+				 * check the IRQ line. If not, simply set interrupt flip/flop 2
+				 * */
+				if (R.IFF1 == 0) {
+					R.IFF1 = R.IFF2 = 1;
+					R.R += 1;
+					opcode = M_RDOP(R.PC);
+					R.PC = (R.PC + 1) & 0xFFFF;
+					iCount -= cycles_main[opcode];
+					exec_main(opcode);
+					interrupt();
+				} else
+					R.IFF2 = 1;
+			}
+			break;
+		case 0xFC: /* call_m */
+			if (M_M()) {
+				M_CALL();
 			} else {
-				M_SKIP_JR();
+				M_SKIP_CALL();
+			}
+			break;
+		case 0xFD: /* fd */
+			{
+				R.R += 1;
+				int opcode = M_RDOP(R.PC);
+				R.PC = (R.PC + 1) & 0xFFFF;
+				iCount -= cycles_xx[opcode];
+				exec_fd(opcode);
+			}
+			break;
+		case 0xFE: /* cp_byte */
+			{
+				int i = M_RDMEM_OPCODE();
+				M_CP(i);
 			}
+			break;
+		case 0xFF: /* rst_38 */
+			M_RST(0x38);
+			break;
+		default:
+			unimplemented("main", op);
 		}
-	};
+	}
 
-	private final OpcodeFn ld_xbc_a = new OpcodeFn() {
-		public void handler() {
-			M_WRMEM(R.BC.W, R.A);
-		}
-	};
-	private final OpcodeFn ld_xde_a = new OpcodeFn() {
-		public void handler() {
-			M_WRMEM(R.DE.W, R.A);
-		}
-	};
-	private final OpcodeFn ld_xhl_a = new OpcodeFn() {
-		public void handler() {
-			M_WRMEM(R.HL.W, R.A);
-		}
-	};
-	private final OpcodeFn ld_xhl_b = new OpcodeFn() {
-		public void handler() {
-			M_WRMEM(R.HL.W, R.BC.H);
-		}
-	};
-	private final OpcodeFn ld_xhl_c = new OpcodeFn() {
-		public void handler() {
-			M_WRMEM(R.HL.W, R.BC.L);
-		}
-	};
-	private final OpcodeFn ld_xhl_d = new OpcodeFn() {
-		public void handler() {
-			M_WRMEM(R.HL.W, R.DE.H);
-		}
-	};
-	private final OpcodeFn ld_xhl_e = new OpcodeFn() {
-		public void handler() {
-			M_WRMEM(R.HL.W, R.DE.L);
-		}
-	};
-	private final OpcodeFn ld_xhl_h = new OpcodeFn() {
-		public void handler() {
-			M_WRMEM(R.HL.W, R.HL.H);
-		}
-	};
-	private final OpcodeFn ld_xhl_l = new OpcodeFn() {
-		public void handler() {
-			M_WRMEM(R.HL.W, R.HL.L);
+	private void exec_cb(int op) {
+		if (op >= 0x80) {
+			exec_cb_res_set(op);
+			return;
+		}
+		switch (op) {
+		case 0x00: /* rlc_b */
+			R.BC = (R.BC & 0xFF) | (M_RLC(R.BC >> 8) << 8);
+			break;
+		case 0x01: /* rlc_c */
+			R.BC = (R.BC & 0xFF00) | M_RLC(R.BC & 0xFF);
+			break;
+		case 0x02: /* rlc_d */
+			R.DE = (R.DE & 0xFF) | (M_RLC(R.DE >> 8) << 8);
+			break;
+		case 0x03: /* rlc_e */
+			R.DE = (R.DE & 0xFF00) | M_RLC(R.DE & 0xFF);
+			break;
+		case 0x04: /* rlc_h */
+			R.HL = (R.HL & 0xFF) | (M_RLC(R.HL >> 8) << 8);
+			break;
+		case 0x05: /* rlc_l */
+			R.HL = (R.HL & 0xFF00) | M_RLC(R.HL & 0xFF);
+			break;
+		case 0x06: /* rlc_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_RLC(i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0x07: /* rlc_a */
+			R.A = M_RLC(R.A);
+			break;
+		case 0x08: /* rrc_b */
+			R.BC = (R.BC & 0xFF) | (M_RRC(R.BC >> 8) << 8);
+			break;
+		case 0x09: /* rrc_c */
+			R.BC = (R.BC & 0xFF00) | M_RRC(R.BC & 0xFF);
+			break;
+		case 0x0A: /* rrc_d */
+			R.DE = (R.DE & 0xFF) | (M_RRC(R.DE >> 8) << 8);
+			break;
+		case 0x0B: /* rrc_e */
+			R.DE = (R.DE & 0xFF00) | M_RRC(R.DE & 0xFF);
+			break;
+		case 0x0C: /* rrc_h */
+			R.HL = (R.HL & 0xFF) | (M_RRC(R.HL >> 8) << 8);
+			break;
+		case 0x0D: /* rrc_l */
+			R.HL = (R.HL & 0xFF00) | M_RRC(R.HL & 0xFF);
+			break;
+		case 0x0E: /* rrc_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_RRC(i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0x0F: /* rrc_a */
+			R.A = M_RRC(R.A);
+			break;
+		case 0x10: /* rl_b */
+			R.BC = (R.BC & 0xFF) | (M_RL(R.BC >> 8) << 8);
+			break;
+		case 0x11: /* rl_c */
+			R.BC = (R.BC & 0xFF00) | M_RL(R.BC & 0xFF);
+			break;
+		case 0x12: /* rl_d */
+			R.DE = (R.DE & 0xFF) | (M_RL(R.DE >> 8) << 8);
+			break;
+		case 0x13: /* rl_e */
+			R.DE = (R.DE & 0xFF00) | M_RL(R.DE & 0xFF);
+			break;
+		case 0x14: /* rl_h */
+			R.HL = (R.HL & 0xFF) | (M_RL(R.HL >> 8) << 8);
+			break;
+		case 0x15: /* rl_l */
+			R.HL = (R.HL & 0xFF00) | M_RL(R.HL & 0xFF);
+			break;
+		case 0x16: /* rl_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_RL(i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0x17: /* rl_a */
+			R.A = M_RL(R.A);
+			break;
+		case 0x18: /* rr_b */
+			R.BC = (R.BC & 0xFF) | (M_RR(R.BC >> 8) << 8);
+			break;
+		case 0x19: /* rr_c */
+			R.BC = (R.BC & 0xFF00) | M_RR(R.BC & 0xFF);
+			break;
+		case 0x1A: /* rr_d */
+			R.DE = (R.DE & 0xFF) | (M_RR(R.DE >> 8) << 8);
+			break;
+		case 0x1B: /* rr_e */
+			R.DE = (R.DE & 0xFF00) | M_RR(R.DE & 0xFF);
+			break;
+		case 0x1C: /* rr_h */
+			R.HL = (R.HL & 0xFF) | (M_RR(R.HL >> 8) << 8);
+			break;
+		case 0x1D: /* rr_l */
+			R.HL = (R.HL & 0xFF00) | M_RR(R.HL & 0xFF);
+			break;
+		case 0x1E: /* rr_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_RR(i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0x1F: /* rr_a */
+			R.A = M_RR(R.A);
+			break;
+		case 0x20: /* sla_b */
+			R.BC = (R.BC & 0xFF) | (M_SLA(R.BC >> 8) << 8);
+			break;
+		case 0x21: /* sla_c */
+			R.BC = (R.BC & 0xFF00) | M_SLA(R.BC & 0xFF);
+			break;
+		case 0x22: /* sla_d */
+			R.DE = (R.DE & 0xFF) | (M_SLA(R.DE >> 8) << 8);
+			break;
+		case 0x23: /* sla_e */
+			R.DE = (R.DE & 0xFF00) | M_SLA(R.DE & 0xFF);
+			break;
+		case 0x24: /* sla_h */
+			R.HL = (R.HL & 0xFF) | (M_SLA(R.HL >> 8) << 8);
+			break;
+		case 0x25: /* sla_l */
+			R.HL = (R.HL & 0xFF00) | M_SLA(R.HL & 0xFF);
+			break;
+		case 0x26: /* sla_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_SLA(i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0x27: /* sla_a */
+			R.A = M_SLA(R.A);
+			break;
+		case 0x28: /* sra_b */
+			R.BC = (R.BC & 0xFF) | (M_SRA(R.BC >> 8) << 8);
+			break;
+		case 0x29: /* sra_c */
+			R.BC = (R.BC & 0xFF00) | M_SRA(R.BC & 0xFF);
+			break;
+		case 0x2A: /* sra_d */
+			R.DE = (R.DE & 0xFF) | (M_SRA(R.DE >> 8) << 8);
+			break;
+		case 0x2B: /* sra_e */
+			R.DE = (R.DE & 0xFF00) | M_SRA(R.DE & 0xFF);
+			break;
+		case 0x2C: /* sra_h */
+			R.HL = (R.HL & 0xFF) | (M_SRA(R.HL >> 8) << 8);
+			break;
+		case 0x2D: /* sra_l */
+			R.HL = (R.HL & 0xFF00) | M_SRA(R.HL & 0xFF);
+			break;
+		case 0x2F: /* sra_a */
+			R.A = M_SRA(R.A);
+			break;
+		case 0x38: /* srl_b */
+			R.BC = (R.BC & 0xFF) | (M_SRL(R.BC >> 8) << 8);
+			break;
+		case 0x39: /* srl_c */
+			R.BC = (R.BC & 0xFF00) | M_SRL(R.BC & 0xFF);
+			break;
+		case 0x3A: /* srl_d */
+			R.DE = (R.DE & 0xFF) | (M_SRL(R.DE >> 8) << 8);
+			break;
+		case 0x3B: /* srl_e */
+			R.DE = (R.DE & 0xFF00) | M_SRL(R.DE & 0xFF);
+			break;
+		case 0x3C: /* srl_h */
+			R.HL = (R.HL & 0xFF) | (M_SRL(R.HL >> 8) << 8);
+			break;
+		case 0x3D: /* srl_l */
+			R.HL = (R.HL & 0xFF00) | M_SRL(R.HL & 0xFF);
+			break;
+		case 0x3F: /* srl_a */
+			R.A = M_SRL(R.A);
+			break;
+		case 0x40: /* bit_0_b */
+			M_BIT(0, (R.BC >> 8));
+			break;
+		case 0x41: /* bit_0_c */
+			M_BIT(0, (R.BC & 0xFF));
+			break;
+		case 0x42: /* bit_0_d */
+			M_BIT(0, (R.DE >> 8));
+			break;
+		case 0x43: /* bit_0_e */
+			M_BIT(0, (R.DE & 0xFF));
+			break;
+		case 0x44: /* bit_0_h */
+			M_BIT(0, (R.HL >> 8));
+			break;
+		case 0x45: /* bit_0_l */
+			M_BIT(0, (R.HL & 0xFF));
+			break;
+		case 0x46: /* bit_0_xhl */
+			{
+				int i = M_RD_XHL();
+				M_BIT(0, i);
+			}
+			break;
+		case 0x47: /* bit_0_a */
+			M_BIT(0, R.A);
+			break;
+		case 0x48: /* bit_1_b */
+			M_BIT(1, (R.BC >> 8));
+			break;
+		case 0x49: /* bit_1_c */
+			M_BIT(1, (R.BC & 0xFF));
+			break;
+		case 0x4A: /* bit_1_d */
+			M_BIT(1, (R.DE >> 8));
+			break;
+		case 0x4B: /* bit_1_e */
+			M_BIT(1, (R.DE & 0xFF));
+			break;
+		case 0x4C: /* bit_1_h */
+			M_BIT(1, (R.HL >> 8));
+			break;
+		case 0x4D: /* bit_1_l */
+			M_BIT(1, (R.HL & 0xFF));
+			break;
+		case 0x4E: /* bit_1_xhl */
+			{
+				int i = M_RD_XHL();
+				M_BIT(1, i);
+			}
+			break;
+		case 0x4F: /* bit_1_a */
+			M_BIT(1, R.A);
+			break;
+		case 0x50: /* bit_2_b */
+			M_BIT(2, (R.BC >> 8));
+			break;
+		case 0x51: /* bit_2_c */
+			M_BIT(2, (R.BC & 0xFF));
+			break;
+		case 0x52: /* bit_2_d */
+			M_BIT(2, (R.DE >> 8));
+			break;
+		case 0x53: /* bit_2_e */
+			M_BIT(2, (R.DE & 0xFF));
+			break;
+		case 0x54: /* bit_2_h */
+			M_BIT(2, (R.HL >> 8));
+			break;
+		case 0x55: /* bit_2_l */
+			M_BIT(2, (R.HL & 0xFF));
+			break;
+		case 0x56: /* bit_2_xhl */
+			{
+				int i = M_RD_XHL();
+				M_BIT(2, i);
+			}
+			break;
+		case 0x57: /* bit_2_a */
+			M_BIT(2, R.A);
+			break;
+		case 0x58: /* bit_3_b */
+			M_BIT(3, (R.BC >> 8));
+			break;
+		case 0x59: /* bit_3_c */
+			M_BIT(3, (R.BC & 0xFF));
+			break;
+		case 0x5A: /* bit_3_d */
+			M_BIT(3, (R.DE >> 8));
+			break;
+		case 0x5B: /* bit_3_e */
+			M_BIT(3, (R.DE & 0xFF));
+			break;
+		case 0x5C: /* bit_3_h */
+			M_BIT(3, (R.HL >> 8));
+			break;
+		case 0x5D: /* bit_3_l */
+			M_BIT(3, (R.HL & 0xFF));
+			break;
+		case 0x5E: /* bit_3_xhl */
+			{
+				int i = M_RD_XHL();
+				M_BIT(3, i);
+			}
+			break;
+		case 0x5F: /* bit_3_a */
+			M_BIT(3, R.A);
+			break;
+		case 0x60: /* bit_4_b */
+			M_BIT(4, (R.BC >> 8));
+			break;
+		case 0x61: /* bit_4_c */
+			M_BIT(4, (R.BC & 0xFF));
+			break;
+		case 0x62: /* bit_4_d */
+			M_BIT(4, (R.DE >> 8));
+			break;
+		case 0x63: /* bit_4_e */
+			M_BIT(4, (R.DE & 0xFF));
+			break;
+		case 0x64: /* bit_4_h */
+			M_BIT(4, (R.HL >> 8));
+			break;
+		case 0x65: /* bit_4_l */
+			M_BIT(4, (R.HL & 0xFF));
+			break;
+		case 0x66: /* bit_4_xhl */
+			{
+				int i = M_RD_XHL();
+				M_BIT(4, i);
+			}
+			break;
+		case 0x67: /* bit_4_a */
+			M_BIT(4, R.A);
+			break;
+		case 0x68: /* bit_5_b */
+			M_BIT(5, (R.BC >> 8));
+			break;
+		case 0x69: /* bit_5_c */
+			M_BIT(5, (R.BC & 0xFF));
+			break;
+		case 0x6A: /* bit_5_d */
+			M_BIT(5, (R.DE >> 8));
+			break;
+		case 0x6B: /* bit_5_e */
+			M_BIT(5, (R.DE & 0xFF));
+			break;
+		case 0x6C: /* bit_5_h */
+			M_BIT(5, (R.HL >> 8));
+			break;
+		case 0x6D: /* bit_5_l */
+			M_BIT(5, (R.HL & 0xFF));
+			break;
+		case 0x6E: /* bit_5_xhl */
+			{
+				int i = M_RD_XHL();
+				M_BIT(5, i);
+			}
+			break;
+		case 0x6F: /* bit_5_a */
+			M_BIT(5, R.A);
+			break;
+		case 0x70: /* bit_6_b */
+			M_BIT(6, (R.BC >> 8));
+			break;
+		case 0x71: /* bit_6_c */
+			M_BIT(6, (R.BC & 0xFF));
+			break;
+		case 0x72: /* bit_6_d */
+			M_BIT(6, (R.DE >> 8));
+			break;
+		case 0x73: /* bit_6_e */
+			M_BIT(6, (R.DE & 0xFF));
+			break;
+		case 0x74: /* bit_6_h */
+			M_BIT(6, (R.HL >> 8));
+			break;
+		case 0x75: /* bit_6_l */
+			M_BIT(6, (R.HL & 0xFF));
+			break;
+		case 0x76: /* bit_6_xhl */
+			{
+				int i = M_RD_XHL();
+				M_BIT(6, i);
+			}
+			break;
+		case 0x77: /* bit_6_a */
+			M_BIT(6, R.A);
+			break;
+		case 0x78: /* bit_7_b */
+			M_BIT(7, (R.BC >> 8));
+			break;
+		case 0x79: /* bit_7_c */
+			M_BIT(7, (R.BC & 0xFF));
+			break;
+		case 0x7A: /* bit_7_d */
+			M_BIT(7, (R.DE >> 8));
+			break;
+		case 0x7B: /* bit_7_e */
+			M_BIT(7, (R.DE & 0xFF));
+			break;
+		case 0x7C: /* bit_7_h */
+			M_BIT(7, (R.HL >> 8));
+			break;
+		case 0x7D: /* bit_7_l */
+			M_BIT(7, (R.HL & 0xFF));
+			break;
+		case 0x7E: /* bit_7_xhl */
+			{
+				int i = M_RD_XHL();
+				M_BIT(7, i);
+			}
+			break;
+		case 0x7F: /* bit_7_a */
+			M_BIT(7, R.A);
+			break;
+		default:
+			unimplemented("cb", op);
 		}
-	};
-	private final OpcodeFn ld_xhl_byte = new OpcodeFn() {
-		public void handler() {
-			int i = M_RDMEM_OPCODE();
-			M_WRMEM(R.HL.W, i);
+	}
+
+	private void exec_cb_res_set(int op) {
+		switch (op) {
+		case 0x80: /* res_0_b */
+			R.BC = (R.BC & 0xFF) | (M_RES(0, (R.BC >> 8)) << 8);
+			break;
+		case 0x81: /* res_0_c */
+			R.BC = (R.BC & 0xFF00) | M_RES(0, (R.BC & 0xFF));
+			break;
+		case 0x82: /* res_0_d */
+			R.DE = (R.DE & 0xFF) | (M_RES(0, (R.DE >> 8)) << 8);
+			break;
+		case 0x83: /* res_0_e */
+			R.DE = (R.DE & 0xFF00) | M_RES(0, (R.DE & 0xFF));
+			break;
+		case 0x84: /* res_0_h */
+			R.HL = (R.HL & 0xFF) | (M_RES(0, (R.HL >> 8)) << 8);
+			break;
+		case 0x85: /* res_0_l */
+			R.HL = (R.HL & 0xFF00) | M_RES(0, (R.HL & 0xFF));
+			break;
+		case 0x86: /* res_0_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_RES(0, i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0x87: /* res_0_a */
+			R.A = M_RES(0, R.A);
+			break;
+		case 0x88: /* res_1_b */
+			R.BC = (R.BC & 0xFF) | (M_RES(1, (R.BC >> 8)) << 8);
+			break;
+		case 0x89: /* res_1_c */
+			R.BC = (R.BC & 0xFF00) | M_RES(1, (R.BC & 0xFF));
+			break;
+		case 0x8A: /* res_1_d */
+			R.DE = (R.DE & 0xFF) | (M_RES(1, (R.DE >> 8)) << 8);
+			break;
+		case 0x8B: /* res_1_e */
+			R.DE = (R.DE & 0xFF00) | M_RES(1, (R.DE & 0xFF));
+			break;
+		case 0x8C: /* res_1_h */
+			R.HL = (R.HL & 0xFF) | (M_RES(1, (R.HL >> 8)) << 8);
+			break;
+		case 0x8D: /* res_1_l */
+			R.HL = (R.HL & 0xFF00) | M_RES(1, (R.HL & 0xFF));
+			break;
+		case 0x8E: /* res_1_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_RES(1, i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0x8F: /* res_1_a */
+			R.A = M_RES(1, R.A);
+			break;
+		case 0x90: /* res_2_b */
+			R.BC = (R.BC & 0xFF) | (M_RES(2, (R.BC >> 8)) << 8);
+			break;
+		case 0x91: /* res_2_c */
+			R.BC = (R.BC & 0xFF00) | M_RES(2, (R.BC & 0xFF));
+			break;
+		case 0x92: /* res_2_d */
+			R.DE = (R.DE & 0xFF) | (M_RES(2, (R.DE >> 8)) << 8);
+			break;
+		case 0x93: /* res_2_e */
+			R.DE = (R.DE & 0xFF00) | M_RES(2, (R.DE & 0xFF));
+			break;
+		case 0x94: /* res_2_h */
+			R.HL = (R.HL & 0xFF) | (M_RES(2, (R.HL >> 8)) << 8);
+			break;
+		case 0x95: /* res_2_l */
+			R.HL = (R.HL & 0xFF00) | M_RES(2, (R.HL & 0xFF));
+			break;
+		case 0x96: /* res_2_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_RES(2, i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0x97: /* res_2_a */
+			R.A = M_RES(2, R.A);
+			break;
+		case 0x98: /* res_3_b */
+			R.BC = (R.BC & 0xFF) | (M_RES(3, (R.BC >> 8)) << 8);
+			break;
+		case 0x99: /* res_3_c */
+			R.BC = (R.BC & 0xFF00) | M_RES(3, (R.BC & 0xFF));
+			break;
+		case 0x9A: /* res_3_d */
+			R.DE = (R.DE & 0xFF) | (M_RES(3, (R.DE >> 8)) << 8);
+			break;
+		case 0x9B: /* res_3_e */
+			R.DE = (R.DE & 0xFF00) | M_RES(3, (R.DE & 0xFF));
+			break;
+		case 0x9C: /* res_3_h */
+			R.HL = (R.HL & 0xFF) | (M_RES(3, (R.HL >> 8)) << 8);
+			break;
+		case 0x9D: /* res_3_l */
+			R.HL = (R.HL & 0xFF00) | M_RES(3, (R.HL & 0xFF));
+			break;
+		case 0x9E: /* res_3_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_RES(3, i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0x9F: /* res_3_a */
+			R.A = M_RES(3, R.A);
+			break;
+		case 0xA0: /* res_4_b */
+			R.BC = (R.BC & 0xFF) | (M_RES(4, (R.BC >> 8)) << 8);
+			break;
+		case 0xA1: /* res_4_c */
+			R.BC = (R.BC & 0xFF00) | M_RES(4, (R.BC & 0xFF));
+			break;
+		case 0xA2: /* res_4_d */
+			R.DE = (R.DE & 0xFF) | (M_RES(4, (R.DE >> 8)) << 8);
+			break;
+		case 0xA3: /* res_4_e */
+			R.DE = (R.DE & 0xFF00) | M_RES(4, (R.DE & 0xFF));
+			break;
+		case 0xA4: /* res_4_h */
+			R.HL = (R.HL & 0xFF) | (M_RES(4, (R.HL >> 8)) << 8);
+			break;
+		case 0xA5: /* res_4_l */
+			R.HL = (R.HL & 0xFF00) | M_RES(4, (R.HL & 0xFF));
+			break;
+		case 0xA6: /* res_4_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_RES(4, i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0xA7: /* res_4_a */
+			R.A = M_RES(4, R.A);
+			break;
+		case 0xA8: /* res_5_b */
+			R.BC = (R.BC & 0xFF) | (M_RES(5, (R.BC >> 8)) << 8);
+			break;
+		case 0xA9: /* res_5_c */
+			R.BC = (R.BC & 0xFF00) | M_RES(5, (R.BC & 0xFF));
+			break;
+		case 0xAA: /* res_5_d */
+			R.DE = (R.DE & 0xFF) | (M_RES(5, (R.DE >> 8)) << 8);
+			break;
+		case 0xAB: /* res_5_e */
+			R.DE = (R.DE & 0xFF00) | M_RES(5, (R.DE & 0xFF));
+			break;
+		case 0xAC: /* res_5_h */
+			R.HL = (R.HL & 0xFF) | (M_RES(5, (R.HL >> 8)) << 8);
+			break;
+		case 0xAD: /* res_5_l */
+			R.HL = (R.HL & 0xFF00) | M_RES(5, (R.HL & 0xFF));
+			break;
+		case 0xAE: /* res_5_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_RES(5, i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0xAF: /* res_5_a */
+			R.A = M_RES(5, R.A);
+			break;
+		case 0xB0: /* res_6_b */
+			R.BC = (R.BC & 0xFF) | (M_RES(6, (R.BC >> 8)) << 8);
+			break;
+		case 0xB1: /* res_6_c */
+			R.BC = (R.BC & 0xFF00) | M_RES(6, (R.BC & 0xFF));
+			break;
+		case 0xB2: /* res_6_d */
+			R.DE = (R.DE & 0xFF) | (M_RES(6, (R.DE >> 8)) << 8);
+			break;
+		case 0xB3: /* res_6_e */
+			R.DE = (R.DE & 0xFF00) | M_RES(6, (R.DE & 0xFF));
+			break;
+		case 0xB4: /* res_6_h */
+			R.HL = (R.HL & 0xFF) | (M_RES(6, (R.HL >> 8)) << 8);
+			break;
+		case 0xB5: /* res_6_l */
+			R.HL = (R.HL & 0xFF00) | M_RES(6, (R.HL & 0xFF));
+			break;
+		case 0xB6: /* res_6_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_RES(6, i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0xB7: /* res_6_a */
+			R.A = M_RES(6, R.A);
+			break;
+		case 0xB8: /* res_7_b */
+			R.BC = (R.BC & 0xFF) | (M_RES(7, (R.BC >> 8)) << 8);
+			break;
+		case 0xB9: /* res_7_c */
+			R.BC = (R.BC & 0xFF00) | M_RES(7, (R.BC & 0xFF));
+			break;
+		case 0xBA: /* res_7_d */
+			R.DE = (R.DE & 0xFF) | (M_RES(7, (R.DE >> 8)) << 8);
+			break;
+		case 0xBB: /* res_7_e */
+			R.DE = (R.DE & 0xFF00) | M_RES(7, (R.DE & 0xFF));
+			break;
+		case 0xBC: /* res_7_h */
+			R.HL = (R.HL & 0xFF) | (M_RES(7, (R.HL >> 8)) << 8);
+			break;
+		case 0xBD: /* res_7_l */
+			R.HL = (R.HL & 0xFF00) | M_RES(7, (R.HL & 0xFF));
+			break;
+		case 0xBE: /* res_7_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_RES(7, i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0xBF: /* res_7_a */
+			R.A = M_RES(7, R.A);
+			break;
+		case 0xC0: /* set_0_b */
+			R.BC = (R.BC & 0xFF) | (M_SET(0, (R.BC >> 8)) << 8);
+			break;
+		case 0xC1: /* set_0_c */
+			R.BC = (R.BC & 0xFF00) | M_SET(0, (R.BC & 0xFF));
+			break;
+		case 0xC2: /* set_0_d */
+			R.DE = (R.DE & 0xFF) | (M_SET(0, (R.DE >> 8)) << 8);
+			break;
+		case 0xC3: /* set_0_e */
+			R.DE = (R.DE & 0xFF00) | M_SET(0, (R.DE & 0xFF));
+			break;
+		case 0xC4: /* set_0_h */
+			R.HL = (R.HL & 0xFF) | (M_SET(0, (R.HL >> 8)) << 8);
+			break;
+		case 0xC5: /* set_0_l */
+			R.HL = (R.HL & 0xFF00) | M_SET(0, (R.HL & 0xFF));
+			break;
+		case 0xC6: /* set_0_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_SET(0, i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0xC7: /* set_0_a */
+			R.A = M_SET(0, R.A);
+			break;
+		case 0xC8: /* set_1_b */
+			R.BC = (R.BC & 0xFF) | (M_SET(1, (R.BC >> 8)) << 8);
+			break;
+		case 0xC9: /* set_1_c */
+			R.BC = (R.BC & 0xFF00) | M_SET(1, (R.BC & 0xFF));
+			break;
+		case 0xCA: /* set_1_d */
+			R.DE = (R.DE & 0xFF) | (M_SET(1, (R.DE >> 8)) << 8);
+			break;
+		case 0xCB: /* set_1_e */
+			R.DE = (R.DE & 0xFF00) | M_SET(1, (R.DE & 0xFF));
+			break;
+		case 0xCC: /* set_1_h */
+			R.HL = (R.HL & 0xFF) | (M_SET(1, (R.HL >> 8)) << 8);
+			break;
+		case 0xCD: /* set_1_l */
+			R.HL = (R.HL & 0xFF00) | M_SET(1, (R.HL & 0xFF));
+			break;
+		case 0xCE: /* set_1_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_SET(1, i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0xCF: /* set_1_a */
+			R.A = M_SET(1, R.A);
+			break;
+		case 0xD0: /* set_2_b */
+			R.BC = (R.BC & 0xFF) | (M_SET(2, (R.BC >> 8)) << 8);
+			break;
+		case 0xD1: /* set_2_c */
+			R.BC = (R.BC & 0xFF00) | M_SET(2, (R.BC & 0xFF));
+			break;
+		case 0xD2: /* set_2_d */
+			R.DE = (R.DE & 0xFF) | (M_SET(2, (R.DE >> 8)) << 8);
+			break;
+		case 0xD3: /* set_2_e */
+			R.DE = (R.DE & 0xFF00) | M_SET(2, (R.DE & 0xFF));
+			break;
+		case 0xD4: /* set_2_h */
+			R.HL = (R.HL & 0xFF) | (M_SET(2, (R.HL >> 8)) << 8);
+			break;
+		case 0xD5: /* set_2_l */
+			R.HL = (R.HL & 0xFF00) | M_SET(2, (R.HL & 0xFF));
+			break;
+		case 0xD6: /* set_2_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_SET(2, i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0xD7: /* set_2_a */
+			R.A = M_SET(2, R.A);
+			break;
+		case 0xD8: /* set_3_b */
+			R.BC = (R.BC & 0xFF) | (M_SET(3, (R.BC >> 8)) << 8);
+			break;
+		case 0xD9: /* set_3_c */
+			R.BC = (R.BC & 0xFF00) | M_SET(3, (R.BC & 0xFF));
+			break;
+		case 0xDA: /* set_3_d */
+			R.DE = (R.DE & 0xFF) | (M_SET(3, (R.DE >> 8)) << 8);
+			break;
+		case 0xDB: /* set_3_e */
+			R.DE = (R.DE & 0xFF00) | M_SET(3, (R.DE & 0xFF));
+			break;
+		case 0xDC: /* set_3_h */
+			R.HL = (R.HL & 0xFF) | (M_SET(3, (R.HL >> 8)) << 8);
+			break;
+		case 0xDD: /* set_3_l */
+			R.HL = (R.HL & 0xFF00) | M_SET(3, (R.HL & 0xFF));
+			break;
+		case 0xDE: /* set_3_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_SET(3, i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0xDF: /* set_3_a */
+			R.A = M_SET(3, R.A);
+			break;
+		case 0xE0: /* set_4_b */
+			R.BC = (R.BC & 0xFF) | (M_SET(4, (R.BC >> 8)) << 8);
+			break;
+		case 0xE1: /* set_4_c */
+			R.BC = (R.BC & 0xFF00) | M_SET(4, (R.BC & 0xFF));
+			break;
+		case 0xE2: /* set_4_d */
+			R.DE = (R.DE & 0xFF) | (M_SET(4, (R.DE >> 8)) << 8);
+			break;
+		case 0xE3: /* set_4_e */
+			R.DE = (R.DE & 0xFF00) | M_SET(4, (R.DE & 0xFF));
+			break;
+		case 0xE4: /* set_4_h */
+			R.HL = (R.HL & 0xFF) | (M_SET(4, (R.HL >> 8)) << 8);
+			break;
+		case 0xE5: /* set_4_l */
+			R.HL = (R.HL & 0xFF00) | M_SET(4, (R.HL & 0xFF));
+			break;
+		case 0xE6: /* set_4_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_SET(4, i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0xE7: /* set_4_a */
+			R.A = M_SET(4, R.A);
+			break;
+		case 0xE8: /* set_5_b */
+			R.BC = (R.BC & 0xFF) | (M_SET(5, (R.BC >> 8)) << 8);
+			break;
+		case 0xE9: /* set_5_c */
+			R.BC = (R.BC & 0xFF00) | M_SET(5, (R.BC & 0xFF));
+			break;
+		case 0xEA: /* set_5_d */
+			R.DE = (R.DE & 0xFF) | (M_SET(5, (R.DE >> 8)) << 8);
+			break;
+		case 0xEB: /* set_5_e */
+			R.DE = (R.DE & 0xFF00) | M_SET(5, (R.DE & 0xFF));
+			break;
+		case 0xEC: /* set_5_h */
+			R.HL = (R.HL & 0xFF) | (M_SET(5, (R.HL >> 8)) << 8);
+			break;
+		case 0xED: /* set_5_l */
+			R.HL = (R.HL & 0xFF00) | M_SET(5, (R.HL & 0xFF));
+			break;
+		case 0xEE: /* set_5_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_SET(5, i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0xEF: /* set_5_a */
+			R.A = M_SET(5, R.A);
+			break;
+		case 0xF0: /* set_6_b */
+			R.BC = (R.BC & 0xFF) | (M_SET(6, (R.BC >> 8)) << 8);
+			break;
+		case 0xF1: /* set_6_c */
+			R.BC = (R.BC & 0xFF00) | M_SET(6, (R.BC & 0xFF));
+			break;
+		case 0xF2: /* set_6_d */
+			R.DE = (R.DE & 0xFF) | (M_SET(6, (R.DE >> 8)) << 8);
+			break;
+		case 0xF3: /* set_6_e */
+			R.DE = (R.DE & 0xFF00) | M_SET(6, (R.DE & 0xFF));
+			break;
+		case 0xF4: /* set_6_h */
+			R.HL = (R.HL & 0xFF) | (M_SET(6, (R.HL >> 8)) << 8);
+			break;
+		case 0xF5: /* set_6_l */
+			R.HL = (R.HL & 0xFF00) | M_SET(6, (R.HL & 0xFF));
+			break;
+		case 0xF6: /* set_6_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_SET(6, i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0xF7: /* set_6_a */
+			R.A = M_SET(6, R.A);
+			break;
+		case 0xF8: /* set_7_b */
+			R.BC = (R.BC & 0xFF) | (M_SET(7, (R.BC >> 8)) << 8);
+			break;
+		case 0xF9: /* set_7_c */
+			R.BC = (R.BC & 0xFF00) | M_SET(7, (R.BC & 0xFF));
+			break;
+		case 0xFA: /* set_7_d */
+			R.DE = (R.DE & 0xFF) | (M_SET(7, (R.DE >> 8)) << 8);
+			break;
+		case 0xFB: /* set_7_e */
+			R.DE = (R.DE & 0xFF00) | M_SET(7, (R.DE & 0xFF));
+			break;
+		case 0xFC: /* set_7_h */
+			R.HL = (R.HL & 0xFF) | (M_SET(7, (R.HL >> 8)) << 8);
+			break;
+		case 0xFD: /* set_7_l */
+			R.HL = (R.HL & 0xFF00) | M_SET(7, (R.HL & 0xFF));
+			break;
+		case 0xFE: /* set_7_xhl */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				i = M_SET(7, i);
+				M_WRMEM(R.HL, i);
+			}
+			break;
+		case 0xFF: /* set_7_a */
+			R.A = M_SET(7, R.A);
+			break;
+		default:
+			unimplemented("cb", op);
 		}
-	};
-	private final OpcodeFn ld_xix_a = new OpcodeFn() {
-		public void handler() {
+	}
+
+	private void exec_dd(int op) {
+		switch (op) {
+		case 0x00: case 0x01: case 0x02: case 0x03: case 0x04: case 0x05:
+		case 0x06: case 0x07: case 0x08: case 0x0A: case 0x0B: case 0x0C:
+		case 0x0D: case 0x0E: case 0x0F: case 0x10: case 0x11: case 0x12:
+		case 0x13: case 0x14: case 0x15: case 0x16: case 0x17: case 0x18:
+		case 0x1A: case 0x1B: case 0x1C: case 0x1D: case 0x1E: case 0x1F:
+		case 0x28: case 0x2F: case 0x30: case 0x31: case 0x32: case 0x33:
+		case 0x37: case 0x38: case 0x3A: case 0x3B: case 0x3C: case 0x3D:
+		case 0x3E: case 0x3F: case 0x76: case 0x78: case 0x79: case 0x7A:
+		case 0x7B: case 0x7F: case 0x80: case 0x81: case 0x82: case 0x83:
+		case 0x87: case 0x90: case 0x91: case 0x92: case 0x93: case 0x97:
+		case 0xC0: case 0xC1: case 0xC2: case 0xC3: case 0xC4: case 0xC5:
+		case 0xC6: case 0xC7: case 0xC8: case 0xC9: case 0xCA: case 0xCC:
+		case 0xCD: case 0xCE: case 0xCF: case 0xD0: case 0xD1: case 0xD2:
+		case 0xD3: case 0xD4: case 0xD5: case 0xD6: case 0xD7: case 0xD8:
+		case 0xD9: case 0xDA: case 0xDB: case 0xDC: case 0xDD: case 0xDE:
+		case 0xDF: case 0xE0: case 0xE2: case 0xE4: case 0xE6: case 0xE7:
+		case 0xE8: case 0xEA: case 0xEB: case 0xEC: case 0xED: case 0xEE:
+		case 0xEF: case 0xF0: case 0xF1: case 0xF2: case 0xF3: case 0xF4:
+		case 0xF5: case 0xF6: case 0xF7: case 0xFD: case 0xFE: /* no_op */
+			R.PC = (R.PC - 1) & 0xFFFF;
+			break;
+		case 0x09: /* add_ix_bc */
+			R.IX = M_ADDW(R.IX, R.BC);
+			break;
+		case 0x19: /* add_ix_de */
+			R.IX = M_ADDW(R.IX, R.DE);
+			break;
+		case 0x21: /* ld_ix_word */
+			R.IX = M_RDMEM_OPCODE_WORD();
+			break;
+		case 0x22: /* ld_xword_ix */
+			M_WRMEM_WORD(M_RDMEM_OPCODE_WORD(), R.IX);
+			break;
+		case 0x23: /* inc_ix */
+			R.IX = (R.IX + 1) & 0xFFFF;
+			break;
+		case 0x26: /* ld_ixh_byte */
+			R.IX = (R.IX & 0xFF) | (M_RDMEM_OPCODE() << 8);
+			break;
+		case 0x29: /* add_ix_ix */
+			R.IX = M_ADDW(R.IX, R.IX);
+			break;
+		case 0x2A: /* ld_ix_xword */
+			R.IX = M_RDMEM_WORD(M_RDMEM_OPCODE_WORD());
+			break;
+		case 0x2B: /* dec_ix */
+			R.IX = (R.IX - 1) & 0xFFFF;
+			break;
+		case 0x2C: /* inc_ixl */
+			R.IX = (R.IX & 0xFF00) | M_INC(R.IX & 0xFF);
+			break;
+		case 0x2D: /* dec_ixl */
+			R.IX = (R.IX & 0xFF00) | M_DEC(R.IX & 0xFF);
+			break;
+		case 0x2E: /* ld_ixl_byte */
+			R.IX = (R.IX & 0xFF00) | M_RDMEM_OPCODE();
+			break;
+		case 0x34: /* inc_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_INC(i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0x35: /* dec_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_DEC(i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0x36: /* ld_xix_byte */
+			{
+				int i, j;
+				i = M_XIX();
+				j = M_RDMEM_OPCODE();
+				M_WRMEM(i, j);
+			}
+			break;
+		case 0x39: /* add_ix_sp */
+			R.IX = M_ADDW(R.IX, R.SP);
+			break;
+		case 0x46: /* ld_b_xix */
+			R.BC = (R.BC & 0xFF) | (M_RD_XIX() << 8);
+			break;
+		case 0x4C: /* ld_c_ixh */
+			R.BC = (R.BC & 0xFF00) | (R.IX >> 8);
+			break;
+		case 0x4E: /* ld_c_xix */
+			R.BC = (R.BC & 0xFF00) | M_RD_XIX();
+			break;
+		case 0x56: /* ld_d_xix */
+			R.DE = (R.DE & 0xFF) | (M_RD_XIX() << 8);
+			break;
+		case 0x5D: /* ld_e_ixl */
+			R.DE = (R.DE & 0xFF00) | (R.IX & 0xFF);
+			break;
+		case 0x5E: /* ld_e_xix */
+			R.DE = (R.DE & 0xFF00) | M_RD_XIX();
+			break;
+		case 0x60: /* ld_ixh_b */
+			R.IX = (R.IX & 0xFF) | (R.BC & 0xFF00);
+			break;
+		case 0x61: /* ld_ixh_c */
+			R.IX = (R.IX & 0xFF) | ((R.BC & 0xFF) << 8);
+			break;
+		case 0x62: /* ld_ixh_d */
+			R.IX = (R.IX & 0xFF) | (R.DE & 0xFF00);
+			break;
+		case 0x63: /* ld_ixh_e */
+			R.IX = (R.IX & 0xFF) | ((R.DE & 0xFF) << 8);
+			break;
+		case 0x66: /* ld_h_xix */
+			R.HL = (R.HL & 0xFF) | (M_RD_XIX() << 8);
+			break;
+		case 0x67: /* ld_ixh_a */
+			R.IX = (R.IX & 0xFF) | (R.A << 8);
+			break;
+		case 0x6E: /* ld_l_xix */
+			R.HL = (R.HL & 0xFF00) | M_RD_XIX();
+			break;
+		case 0x6F: /* ld_ixl_a */
+			R.IX = (R.IX & 0xFF00) | R.A;
+			break;
+		case 0x70: /* ld_xix_b */
+			M_WR_XIX(R.BC >> 8);
+			break;
+		case 0x71: /* ld_xix_c */
+			M_WR_XIX(R.BC & 0xFF);
+			break;
+		case 0x72: /* ld_xix_d */
+			M_WR_XIX(R.DE >> 8);
+			break;
+		case 0x73: /* ld_xix_e */
+			M_WR_XIX(R.DE & 0xFF);
+			break;
+		case 0x74: /* ld_xix_h */
+			M_WR_XIX(R.HL >> 8);
+			break;
+		case 0x75: /* ld_xix_l */
+			M_WR_XIX(R.HL & 0xFF);
+			break;
+		case 0x77: /* ld_xix_a */
 			M_WR_XIX(R.A);
-		}
-	};
-	private final OpcodeFn ld_xix_b = new OpcodeFn() {
-		public void handler() {
-			M_WR_XIX(R.BC.H);
-		}
-	};
-	private final OpcodeFn ld_xix_c = new OpcodeFn() {
-		public void handler() {
-			M_WR_XIX(R.BC.L);
-		}
-	};
-	private final OpcodeFn ld_xix_d = new OpcodeFn() {
-		public void handler() {
-			M_WR_XIX(R.DE.H);
-		}
-	};
-	private final OpcodeFn ld_xix_e = new OpcodeFn() {
-		public void handler() {
-			M_WR_XIX(R.DE.L);
-		}
-	};
-	private final OpcodeFn ld_xix_h = new OpcodeFn() {
-		public void handler() {
-			M_WR_XIX(R.HL.H);
-		}
-	};
-	private final OpcodeFn ld_xix_l = new OpcodeFn() {
-		public void handler() {
-			M_WR_XIX(R.HL.L);
-		}
-	};
-	private final OpcodeFn ld_xix_byte = new OpcodeFn() {
-		public void handler() {
-			int i, j;
-			i = M_XIX();
-			j = M_RDMEM_OPCODE();
-			M_WRMEM(i, j);
-		}
-	};
-	private final OpcodeFn ld_xiy_a = new OpcodeFn() {
-		public void handler() {
-			M_WR_XIY(R.A);
-		}
-	};
-	private final OpcodeFn ld_xiy_b = new OpcodeFn() {
-		public void handler() {
-			M_WR_XIY(R.BC.H);
-		}
-	};
-	private final OpcodeFn ld_xiy_c = new OpcodeFn() {
-		public void handler() {
-			M_WR_XIY(R.BC.L);
-		}
-	};
-	private final OpcodeFn ld_xiy_d = new OpcodeFn() {
-		public void handler() {
-			M_WR_XIY(R.DE.H);
-		}
-	};
-	private final OpcodeFn ld_xiy_e = new OpcodeFn() {
-		public void handler() {
-			M_WR_XIY(R.DE.L);
-		}
-	};
-	private final OpcodeFn ld_xiy_h = new OpcodeFn() {
-		public void handler() {
-			M_WR_XIY(R.HL.H);
-		}
-	};
-	private final OpcodeFn ld_xiy_l = new OpcodeFn() {
-		public void handler() {
-			M_WR_XIY(R.HL.L);
-		}
-	};
-	private final OpcodeFn ld_xiy_byte = new OpcodeFn() {
-		public void handler() {
-			int i, j;
-			i = M_XIY();
-			j = M_RDMEM_OPCODE();
-			M_WRMEM(i, j);
-		}
-	};
-	private final OpcodeFn ld_xbyte_a = new OpcodeFn() {
-		public void handler() {
-			int i = M_RDMEM_OPCODE_WORD();
-			M_WRMEM(i, R.A);
-		}
-	};
-	private final OpcodeFn ld_xword_bc = new OpcodeFn() {
-		public void handler() {
-			M_WRMEM_WORD(M_RDMEM_OPCODE_WORD(), R.BC.W);
-		}
-	};
-	private final OpcodeFn ld_xword_de = new OpcodeFn() {
-		public void handler() {
-			M_WRMEM_WORD(M_RDMEM_OPCODE_WORD(), R.DE.W);
-		}
-	};
-	private final OpcodeFn ld_xword_hl = new OpcodeFn() {
-		public void handler() {
-			M_WRMEM_WORD(M_RDMEM_OPCODE_WORD(), R.HL.W);
-		}
-	};
-	private final OpcodeFn ld_xword_ix = new OpcodeFn() {
-		public void handler() {
-			M_WRMEM_WORD(M_RDMEM_OPCODE_WORD(), R.IX.W);
-		}
-	};
-	private final OpcodeFn ld_xword_iy = new OpcodeFn() {
-		public void handler() {
-			M_WRMEM_WORD(M_RDMEM_OPCODE_WORD(), R.IY.W);
-		}
-	};
-	private final OpcodeFn ld_xword_sp = new OpcodeFn() {
-		public void handler() {
-			M_WRMEM_WORD(M_RDMEM_OPCODE_WORD(), R.SP);
-		}
-	};
-	private final OpcodeFn ld_a_xbc = new OpcodeFn() {
-		public void handler() {
-			R.A = M_RDMEM(R.BC.W);
-		}
-	};
-	private final OpcodeFn ld_a_xde = new OpcodeFn() {
-		public void handler() {
-			R.A = M_RDMEM(R.DE.W);
-		}
-	};
-	private final OpcodeFn ld_a_xhl = new OpcodeFn() {
-		public void handler() {
-			R.A = M_RD_XHL();
-		}
-	};
-	private final OpcodeFn ld_a_xix = new OpcodeFn() {
-		public void handler() {
+			break;
+		case 0x7C: /* ld_a_ixh */
+			R.A = (R.IX >> 8);
+			break;
+		case 0x7D: /* ld_a_ixl */
+			R.A = (R.IX & 0xFF);
+			break;
+		case 0x7E: /* ld_a_xix */
 			R.A = M_RD_XIX();
+			break;
+		case 0x84: /* add_a_ixh */
+			M_ADD(R.IX >> 8);
+			break;
+		case 0x85: /* add_a_ixl */
+			M_ADD(R.IX & 0xFF);
+			break;
+		case 0x86: /* add_a_xix */
+			{
+				int i = M_RD_XIX();
+				M_ADD(i);
+			}
+			break;
+		case 0x8E: /* adc_a_xix */
+			{
+				int i = M_RD_XIX();
+				M_ADC(i);
+			}
+			break;
+		case 0x94: /* sub_ixh */
+			M_SUB(R.IX >> 8);
+			break;
+		case 0x95: /* sub_ixl */
+			M_SUB(R.IX & 0xFF);
+			break;
+		case 0x96: /* sub_xix */
+			{
+				int i = M_RD_XIX();
+				M_SUB(i);
+			}
+			break;
+		case 0x9E: /* sbc_a_xix */
+			{
+				int i = M_RD_XIX();
+				M_SBC(i);
+			}
+			break;
+		case 0xA6: /* and_xix */
+			{
+				int i = M_RD_XIX();
+				M_AND(i);
+			}
+			break;
+		case 0xAC: /* xor_ixh */
+			M_XOR(R.IX >> 8);
+			break;
+		case 0xAE: /* xor_xix */
+			{
+				int i = M_RD_XIX();
+				M_XOR(i);
+			}
+			break;
+		case 0xB6: /* or_xix */
+			{
+				int i = M_RD_XIX();
+				M_OR(i);
+			}
+			break;
+		case 0xBE: /* cp_xix */
+			{
+				int i = M_RD_XIX();
+				M_CP(i);
+			}
+			break;
+		case 0xCB: /* dd_cb */
+			{
+				int opcode = M_RDOP_ARG((R.PC + 1) & 0xFFFF);
+				iCount -= cycles_xx_cb[opcode];
+				exec_dd_cb(opcode);
+				R.PC = (R.PC + 1) & 0xFFFF;
+			}
+			break;
+		case 0xE1: /* pop_ix */
+			R.IX = M_POP();
+			break;
+		case 0xE3: /* ex_xsp_ix */
+			{
+				int i;
+				i = M_RDMEM_WORD(R.SP);
+				M_WRMEM_WORD(R.SP, R.IX);
+				R.IX = i;
+			}
+			break;
+		case 0xE5: /* push_ix */
+			M_PUSH(R.IX);
+			break;
+		case 0xE9: /* jp_ix */
+			R.PC = R.IX;
+			break;
+		default:
+			unimplemented("dd", op);
 		}
-	};
-	private final OpcodeFn ld_a_xiy = new OpcodeFn() {
-		public void handler() {
-			R.A = M_RD_XIY();
-		}
-	};
-	private final OpcodeFn ld_a_xbyte = new OpcodeFn() {
-		public void handler() {
-			int i = M_RDMEM_OPCODE_WORD();
-			R.A = M_RDMEM(i);
-		}
-	};
+	}
 
-	private final OpcodeFn ld_a_byte = new OpcodeFn() {
-		public void handler() {
-			R.A = M_RDMEM_OPCODE();
-		}
-	};
-	private final OpcodeFn ld_b_byte = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_RDMEM_OPCODE());
-		}
-	};
-	private final OpcodeFn ld_c_byte = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_RDMEM_OPCODE());
-		}
-	};
-	private final OpcodeFn ld_d_byte = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_RDMEM_OPCODE());
-		}
-	};
-	private final OpcodeFn ld_e_byte = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_RDMEM_OPCODE());
-		}
-	};
-	private final OpcodeFn ld_h_byte = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_RDMEM_OPCODE());
-		}
-	};
-	private final OpcodeFn ld_l_byte = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_RDMEM_OPCODE());
-		}
-	};
-	private final OpcodeFn ld_ixh_byte = new OpcodeFn() {
-		public void handler() {
-			R.IX.SetH(M_RDMEM_OPCODE());
-		}
-	};
-	private final OpcodeFn ld_ixl_byte = new OpcodeFn() {
-		public void handler() {
-			R.IX.SetL(M_RDMEM_OPCODE());
-		}
-	};
-	private final OpcodeFn ld_iyh_byte = new OpcodeFn() {
-		public void handler() {
-			R.IY.SetH(M_RDMEM_OPCODE());
-		}
-	};
-	private final OpcodeFn ld_iyl_byte = new OpcodeFn() {
-		public void handler() {
-			R.IY.SetL(M_RDMEM_OPCODE());
-		}
-	};
-
-	private final OpcodeFn ld_b_xhl = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_RD_XHL());
-		}
-	};
-	private final OpcodeFn ld_c_xhl = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_RD_XHL());
-		}
-	};
-	private final OpcodeFn ld_d_xhl = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_RD_XHL());
-		}
-	};
-	private final OpcodeFn ld_e_xhl = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_RD_XHL());
-		}
-	};
-	private final OpcodeFn ld_h_xhl = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_RD_XHL());
-		}
-	};
-	private final OpcodeFn ld_l_xhl = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_RD_XHL());
-		}
-	};
-	private final OpcodeFn ld_b_xix = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_RD_XIX());
-		}
-	};
-	private final OpcodeFn ld_c_xix = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_RD_XIX());
-		}
-	};
-	private final OpcodeFn ld_d_xix = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_RD_XIX());
-		}
-	};
-	private final OpcodeFn ld_e_xix = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_RD_XIX());
-		}
-	};
-	private final OpcodeFn ld_h_xix = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_RD_XIX());
-		}
-	};
-	private final OpcodeFn ld_l_xix = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_RD_XIX());
-		}
-	};
-	private final OpcodeFn ld_b_xiy = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_RD_XIY());
-		}
-	};
-	private final OpcodeFn ld_c_xiy = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_RD_XIY());
-		}
-	};
-	private final OpcodeFn ld_d_xiy = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_RD_XIY());
-		}
-	};
-	private final OpcodeFn ld_e_xiy = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_RD_XIY());
-		}
-	};
-	private final OpcodeFn ld_h_xiy = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_RD_XIY());
-		}
-	};
-	private final OpcodeFn ld_l_xiy = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_RD_XIY());
-		}
-	};
-	private final OpcodeFn ld_a_a = new OpcodeFn() {
-		public void handler() {
-			System.out.println("Z80: Unsupported ld_a_a instruction!");
-		}
-	};
-	private final OpcodeFn ld_a_b = new OpcodeFn() {
-		public void handler() {
-			R.A = R.BC.H;
-		}
-	};
-	private final OpcodeFn ld_a_c = new OpcodeFn() {
-		public void handler() {
-			R.A = R.BC.L;
-		}
-	};
-	private final OpcodeFn ld_a_d = new OpcodeFn() {
-		public void handler() {
-			R.A = R.DE.H;
-		}
-	};
-	private final OpcodeFn ld_a_e = new OpcodeFn() {
-		public void handler() {
-			R.A = R.DE.L;
-		}
-	};
-	private final OpcodeFn ld_a_h = new OpcodeFn() {
-		public void handler() {
-			R.A = R.HL.H;
-		}
-	};
-	private final OpcodeFn ld_a_l = new OpcodeFn() {
-		public void handler() {
-			R.A = R.HL.L;
-		}
-	};
-	private final OpcodeFn ld_a_ixh = new OpcodeFn() {
-		public void handler() {
-			R.A = R.IX.H;
-		}
-	};
-	private final OpcodeFn ld_a_ixl = new OpcodeFn() {
-		public void handler() {
-			R.A = R.IX.L;
-		}
-	};
-	private final OpcodeFn ld_a_iyh = new OpcodeFn() {
-		public void handler() {
-			R.A = R.IY.H;
-		}
-	};
-	private final OpcodeFn ld_a_iyl = new OpcodeFn() {
-		public void handler() {
-			R.A = R.IY.L;
-		}
-	};
-	private final OpcodeFn ld_b_b = new OpcodeFn() {
-		public void handler() {
-//			System.out.println("Z80: Unsupported ld_b_b instruction!");
-		}
-	};
-
-	private final OpcodeFn ld_b_a = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(R.A);
-		}
-	};
-	private final OpcodeFn ld_b_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(R.BC.L);
-		}
-	};
-	private final OpcodeFn ld_b_d = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(R.DE.H);
-		}
-	};
-	private final OpcodeFn ld_b_e = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(R.DE.L);
-		}
-	};
-	private final OpcodeFn ld_b_h = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(R.HL.H);
-		}
-	};
-	private final OpcodeFn ld_b_l = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(R.HL.L);
-		}
-	};
-	private final OpcodeFn ld_c_c = new OpcodeFn() {
-		public void handler() {
-			System.out.println("Z80: Unsupported ld_c_c instruction!");
-		}
-	};
-
-	private final OpcodeFn ld_c_a = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(R.A);
-		}
-	};
-	private final OpcodeFn ld_c_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(R.BC.H);
-		}
-	};
-	private final OpcodeFn ld_c_d = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(R.DE.H);
-		}
-	};
-	private final OpcodeFn ld_c_e = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(R.DE.L);
-		}
-	};
-	private final OpcodeFn ld_c_h = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(R.HL.H);
-		}
-	};
-	private final OpcodeFn ld_c_l = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(R.HL.L);
-		}
-	};
-	private final OpcodeFn ld_c_ixh = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(R.IX.H);
-		}
-	};
-	private final OpcodeFn ld_d_d = new OpcodeFn() {
-		public void handler() {
-			System.out.println("Z80: Unsupported ld_d_d instruction!");
-		}
-	};
-
-	private final OpcodeFn ld_d_a = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(R.A);
-		}
-	};
-	private final OpcodeFn ld_d_b = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(R.BC.H);
-		}
-	};
-	private final OpcodeFn ld_d_c = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(R.BC.L);
-		}
-	};
-	private final OpcodeFn ld_d_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(R.DE.L);
-		}
-	};
-	private final OpcodeFn ld_d_h = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(R.HL.H);
-		}
-	};
-	private final OpcodeFn ld_d_l = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(R.HL.L);
-		}
-	};
-	private final OpcodeFn ld_d_iyh = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(R.IY.H);
-		}
-	};
-	@SuppressWarnings("unused")
-	private final OpcodeFn ld_d_iyl = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(R.IY.L);
-		}
-	};
-	private final OpcodeFn ld_e_e = new OpcodeFn() {
-		public void handler() {
-			System.out.println("Z80: Unsupported ld_e_e instruction!");
-		}
-	};
-	private final OpcodeFn ld_e_a = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(R.A);
-		}
-	};
-	private final OpcodeFn ld_e_b = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(R.BC.H);
-		}
-	};
-	private final OpcodeFn ld_e_c = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(R.BC.L);
-		}
-	};
-	private final OpcodeFn ld_e_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(R.DE.H);
-		}
-	};
-	private final OpcodeFn ld_e_h = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(R.HL.H);
-		}
-	};
-	private final OpcodeFn ld_e_l = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(R.HL.L);
-		}
-	};
-	private final OpcodeFn ld_e_ixl = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(R.IX.L);
-		}
-	};
-	@SuppressWarnings("unused")
-	private final OpcodeFn ld_e_iyh = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(R.IY.H);
-		}
-	};
-	private final OpcodeFn ld_e_iyl = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(R.IY.L);
-		}
-	};
-	private final OpcodeFn ld_h_h = new OpcodeFn() {
-		public void handler() {
-			System.out.println("Z80: Unsupported ld_h_h instruction!");
-		}
-	};
-
-	private final OpcodeFn ld_h_a = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(R.A);
-		}
-	};
-	private final OpcodeFn ld_h_b = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(R.BC.H);
-		}
-	};
-	private final OpcodeFn ld_h_c = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(R.BC.L);
-		}
-	};
-	private final OpcodeFn ld_h_d = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(R.DE.H);
-		}
-	};
-	private final OpcodeFn ld_h_e = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(R.DE.L);
-		}
-	};
-	private final OpcodeFn ld_h_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(R.HL.L);
-		}
-	};
-	private final OpcodeFn ld_l_l = new OpcodeFn() {
-		public void handler() {
-			System.out.println("Z80: Unsupported ld_l_l instruction!");
-		}
-	};
-
-	private final OpcodeFn ld_l_a = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(R.A);
-		}
-	};
-	private final OpcodeFn ld_l_b = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(R.BC.H);
-		}
-	};
-	private final OpcodeFn ld_l_c = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(R.BC.L);
-		}
-	};
-	private final OpcodeFn ld_l_d = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(R.DE.H);
-		}
-	};
-	private final OpcodeFn ld_l_e = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(R.DE.L);
-		}
-	};
-	private final OpcodeFn ld_l_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(R.HL.H);
-		}
-	};
-	private final OpcodeFn ld_ixl_a = new OpcodeFn() {
-		public void handler() {
-			R.IX.SetL(R.A);
-		}
-	};
-	private final OpcodeFn ld_iyh_a = new OpcodeFn() {
-		public void handler() {
-			R.IY.SetH(R.A);
-		}
-	};
-	private final OpcodeFn ld_iyl_a = new OpcodeFn() {
-		public void handler() {
-			R.IY.SetL(R.A);
-		}
-	};
-	private final OpcodeFn ld_ixh_a = new OpcodeFn() {
-		public void handler() {
-			R.IX.SetH(R.A);
-		}
-	};
-	private final OpcodeFn ld_ixh_b = new OpcodeFn() {
-		public void handler() {
-			R.IX.SetH(R.BC.H);
-		}
-	};
-	private final OpcodeFn ld_ixh_c = new OpcodeFn() {
-		public void handler() {
-			R.IX.SetH(R.BC.L);
-		}
-	};
-	private final OpcodeFn ld_ixh_d = new OpcodeFn() {
-		public void handler() {
-			R.IX.SetH(R.DE.H);
-		}
-	};
-	private final OpcodeFn ld_ixh_e = new OpcodeFn() {
-		public void handler() {
-			R.IX.SetH(R.DE.L);
-		}
-	};
-
-	private final OpcodeFn ld_bc_xword = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetW(M_RDMEM_WORD(M_RDMEM_OPCODE_WORD()));
-		}
-	};
-	private final OpcodeFn ld_bc_word = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetW(M_RDMEM_OPCODE_WORD());
-		}
-	};
-	private final OpcodeFn ld_de_xword = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetW(M_RDMEM_WORD(M_RDMEM_OPCODE_WORD()));
-		}
-	};
-	private final OpcodeFn ld_de_word = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetW(M_RDMEM_OPCODE_WORD());
-		}
-	};
-	private final OpcodeFn ld_hl_xword = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetW(M_RDMEM_WORD(M_RDMEM_OPCODE_WORD()));
-		}
-	};
-	private final OpcodeFn ld_hl_word = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetW(M_RDMEM_OPCODE_WORD());
-		}
-	};
-	private final OpcodeFn ld_ix_xword = new OpcodeFn() {
-		public void handler() {
-			R.IX.SetW(M_RDMEM_WORD(M_RDMEM_OPCODE_WORD()));
-		}
-	};
-	private final OpcodeFn ld_ix_word = new OpcodeFn() {
-		public void handler() {
-			R.IX.SetW(M_RDMEM_OPCODE_WORD());
-		}
-	};
-	private final OpcodeFn ld_iy_xword = new OpcodeFn() {
-		public void handler() {
-			R.IY.SetW(M_RDMEM_WORD(M_RDMEM_OPCODE_WORD()));
-		}
-	};
-	private final OpcodeFn ld_iy_word = new OpcodeFn() {
-		public void handler() {
-			R.IY.SetW(M_RDMEM_OPCODE_WORD());
-		}
-	};
-	private final OpcodeFn ld_sp_xword = new OpcodeFn() {
-		public void handler() {
-			R.SP = M_RDMEM_WORD(M_RDMEM_OPCODE_WORD());
-		}
-	};
-	private final OpcodeFn ld_sp_word = new OpcodeFn() {
-		public void handler() {
-			R.SP = M_RDMEM_OPCODE_WORD();
-		}
-	};
-	private final OpcodeFn ld_sp_hl = new OpcodeFn() {
-		public void handler() {
-			R.SP = R.HL.W;
-		}
-	};
-	@SuppressWarnings("unused")
-	private final OpcodeFn ld_sp_ix = new OpcodeFn() {
-		public void handler() {
-			R.SP = R.IX.W;
-		}
-	};
-	private final OpcodeFn ld_sp_iy = new OpcodeFn() {
-		public void handler() {
-			R.SP = R.IY.W;
-		}
-	};
-	private final OpcodeFn ld_a_i = new OpcodeFn() {
-		public void handler() {
+	private void exec_ed(int op) {
+		switch (op) {
+		case 0x00: case 0x01: case 0x02: case 0x03: case 0x04: case 0x05:
+		case 0x06: case 0x07: case 0x08: case 0x09: case 0x0A: case 0x0B:
+		case 0x0C: case 0x0D: case 0x0E: case 0x0F: case 0x10: case 0x11:
+		case 0x12: case 0x13: case 0x14: case 0x15: case 0x16: case 0x17:
+		case 0x18: case 0x19: case 0x1A: case 0x1B: case 0x1C: case 0x1D:
+		case 0x1E: case 0x1F: case 0x20: case 0x21: case 0x22: case 0x23:
+		case 0x24: case 0x25: case 0x26: case 0x27: case 0x28: case 0x29:
+		case 0x2A: case 0x2B: case 0x2C: case 0x2D: case 0x2E: case 0x2F:
+		case 0x30: case 0x31: case 0x32: case 0x33: case 0x34: case 0x35:
+		case 0x36: case 0x37: case 0x38: case 0x39: case 0x3A: case 0x3B:
+		case 0x3C: case 0x3D: case 0x3E: case 0x3F: case 0x80: case 0x81:
+		case 0x82: case 0x83: case 0x84: case 0x85: case 0x86: case 0x87:
+		case 0x88: case 0x89: case 0x8A: case 0x8B: case 0x8C: case 0x8D:
+		case 0x8E: case 0x8F: case 0x90: case 0x91: case 0x92: case 0x93:
+		case 0x94: case 0x95: case 0x96: case 0x97: case 0x98: case 0x99:
+		case 0x9A: case 0x9B: case 0x9C: case 0x9D: case 0x9E: case 0x9F:
+		case 0xC0: case 0xC1: case 0xC2: case 0xC3: case 0xC4: case 0xC5:
+		case 0xC6: case 0xC7: case 0xC8: case 0xC9: case 0xCA: case 0xCB:
+		case 0xCC: case 0xCD: case 0xCE: case 0xCF: case 0xD0: case 0xD1:
+		case 0xD2: case 0xD3: case 0xD4: case 0xD5: case 0xD6: case 0xD7:
+		case 0xD8: case 0xD9: case 0xDA: case 0xDB: case 0xDC: case 0xDD:
+		case 0xDE: case 0xDF: case 0xE0: case 0xE1: case 0xE2: case 0xE3:
+		case 0xE4: case 0xE5: case 0xE6: case 0xE7: case 0xE8: case 0xE9:
+		case 0xEA: case 0xEB: case 0xEC: case 0xED: case 0xEE: case 0xEF:
+		case 0xF0: case 0xF1: case 0xF2: case 0xF3: case 0xF4: case 0xF5:
+		case 0xF6: case 0xF7: /* nop */
+			break;
+		case 0x40: /* in_b_c */
+			R.BC = (R.BC & 0xFF) | (M_IN() << 8);
+			break;
+		case 0x41: /* out_c_b */
+			z80_Out((R.BC & 0xFF), (R.BC >> 8));
+			break;
+		case 0x42: /* sbc_hl_bc */
+			M_SBCW(R.BC);
+			break;
+		case 0x43: /* ld_xword_bc */
+			M_WRMEM_WORD(M_RDMEM_OPCODE_WORD(), R.BC);
+			break;
+		case 0x44: case 0x4C: case 0x54: case 0x5C: case 0x64: case 0x6C:
+		case 0x74: case 0x7C: /* neg */
+			{
+				int i;
+				i = R.A;
+				R.A = 0;
+				M_SUB(i);
+			}
+			break;
+		case 0x45: case 0x55: case 0x65: case 0x75: /* retn */
+			R.IFF1 = R.IFF2; /* Z80_Retn(); */
+			M_RET();
+			break;
+		case 0x46: case 0x4E: case 0x66: case 0x6E: /* im_0 */
+			R.IM = 0;
+			break;
+		case 0x47: /* ld_i_a */
+			R.I = R.A;
+			break;
+		case 0x48: /* in_c_c */
+			R.BC = (R.BC & 0xFF00) | M_IN();
+			break;
+		case 0x4A: /* adc_hl_bc */
+			M_ADCW(R.BC);
+			break;
+		case 0x4B: /* ld_bc_xword */
+			R.BC = M_RDMEM_WORD(M_RDMEM_OPCODE_WORD());
+			break;
+		case 0x4D: case 0x5D: case 0x6D: case 0x7D: /* reti */
+			M_RET();
+			break;
+		case 0x4F: /* ld_r_a */
+			R.R = R.R2 = R.A;
+			break;
+		case 0x51: /* out_c_d */
+			z80_Out((R.BC & 0xFF), (R.DE >> 8));
+			break;
+		case 0x52: /* sbc_hl_de */
+			M_SBCW(R.DE);
+			break;
+		case 0x53: /* ld_xword_de */
+			M_WRMEM_WORD(M_RDMEM_OPCODE_WORD(), R.DE);
+			break;
+		case 0x56: case 0x76: /* im_1 */
+			R.IM = 1;
+			break;
+		case 0x57: /* ld_a_i */
 			R.A = R.I;
 			R.F = (R.F & C_FLAG) | zsTable[R.I] | (R.IFF2 << 2);
-		}
-	};
-	private final OpcodeFn ld_i_a = new OpcodeFn() {
-		public void handler() {
-			R.I = R.A;
-		}
-	};
-	private final OpcodeFn ld_a_r = new OpcodeFn() {
-		public void handler() {
+			break;
+		case 0x58: /* in_e_c */
+			R.DE = (R.DE & 0xFF00) | M_IN();
+			break;
+		case 0x59: /* out_c_e */
+			z80_Out((R.BC & 0xFF), (R.DE & 0xFF));
+			break;
+		case 0x5A: /* adc_hl_de */
+			M_ADCW(R.DE);
+			break;
+		case 0x5B: /* ld_de_xword */
+			R.DE = M_RDMEM_WORD(M_RDMEM_OPCODE_WORD());
+			break;
+		case 0x5E: case 0x7E: /* im_2 */
+			R.IM = 2;
+			break;
+		case 0x5F: /* ld_a_r */
 			R.A = (R.R & 127) | (R.R2 & 128);
 			R.F = (R.F & C_FLAG) | zsTable[R.A] | (R.IFF2 << 2);
-		}
-	};
-	private final OpcodeFn ld_r_a = new OpcodeFn() {
-		public void handler() {
-			R.R = R.R2 = R.A;
-		}
-	};
-
-	private final OpcodeFn ldd = new OpcodeFn() {
-		public void handler() {
-			M_WRMEM(R.DE.W, M_RDMEM(R.HL.W));
-			R.DE.AddW(-1);
-			R.HL.AddW(-1);
-			R.BC.AddW(-1);
-			R.F = (R.F & 0xE9) | (R.BC.W != 0 ? V_FLAG : 0);
-		}
-	};
-
-	private final OpcodeFn lddr = new OpcodeFn() {
-		public void handler() {
-			R.R -= 2;
-			do {
-				R.R += 2;
-				M_WRMEM(R.DE.W, M_RDMEM(R.HL.W));
-				R.DE.AddW(-1);
-				R.HL.AddW(-1);
-				R.BC.AddW(-1);
-				iCount -= 21;
-			} while (R.BC.W != 0 && iCount > 0);
-			R.F = (R.F & 0xE9) | (R.BC.W != 0 ? V_FLAG : 0);
-			if (R.BC.W != 0)
-				R.PC = (R.PC - 2) & 0xFFFF;
-			else
-				iCount += 5;
-
-		}
-	};
-	private final OpcodeFn ldi = new OpcodeFn() {
-		public void handler() {
-			M_WRMEM(R.DE.W, M_RDMEM(R.HL.W));
-			R.DE.AddW(1);
-			R.HL.AddW(1);
-			R.BC.AddW(-1);
-			R.F = (R.F & 0xE9) | (R.BC.W != 0 ? V_FLAG : 0);
-		}
-	};
-	private final OpcodeFn ldir = new OpcodeFn() {
-		public void handler() {
+			break;
+		case 0x61: /* out_c_h */
+			z80_Out((R.BC & 0xFF), (R.HL >> 8));
+			break;
+		case 0x67: /* rrd */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				M_WRMEM(R.HL, ((i >> 4) | (R.A << 4)) & 0xFF);
+				R.A = ((R.A & 0xF0) | (i & 0x0F)) & 0xFF;
+				R.F = (R.F & C_FLAG) | zspTable[R.A];
+			}
+			break;
+		case 0x68: /* in_l_c */
+			R.HL = (R.HL & 0xFF00) | M_IN();
+			break;
+		case 0x69: /* out_c_l */
+			z80_Out((R.BC & 0xFF), (R.HL & 0xFF));
+			break;
+		case 0x6A: /* adc_hl_hl */
+			M_ADCW(R.HL);
+			break;
+		case 0x6F: /* rld */
+			{
+				int i;
+				i = M_RDMEM(R.HL);
+				M_WRMEM(R.HL, ((i << 4) | (R.A & 0x0F)) & 0xFF);
+				R.A = ((R.A & 0xF0) | (i >> 4)) & 0xFF;
+				R.F = (R.F & C_FLAG) | zspTable[R.A];
+			}
+			break;
+		case 0x73: /* ld_xword_sp */
+			M_WRMEM_WORD(M_RDMEM_OPCODE_WORD(), R.SP);
+			break;
+		case 0x78: /* in_a_c */
+			R.A = M_IN();
+			break;
+		case 0x79: /* out_c_a */
+			z80_Out((R.BC & 0xFF), R.A);
+			break;
+		case 0x7B: /* ld_sp_xword */
+			R.SP = M_RDMEM_WORD(M_RDMEM_OPCODE_WORD());
+			break;
+		case 0xA0: /* ldi */
+			M_WRMEM(R.DE, M_RDMEM(R.HL));
+			R.DE = (R.DE + 1) & 0xFFFF;
+			R.HL = (R.HL + 1) & 0xFFFF;
+			R.BC = (R.BC - 1) & 0xFFFF;
+			R.F = (R.F & 0xE9) | (R.BC != 0 ? V_FLAG : 0);
+			break;
+		case 0xA1: /* cpi */
+			{
+				int i, j;
+				i = M_RDMEM(R.HL);
+				j = (R.A - i) & 0xFF;
+				R.HL = (R.HL + 1) & 0xFFFF;
+				R.BC = (R.BC - 1) & 0xFFFF;
+				R.F = (R.F & C_FLAG) | zsTable[j] | ((R.A ^ i ^ j) & H_FLAG)
+						| (R.BC != 0 ? V_FLAG : 0) | N_FLAG;
+			}
+			break;
+		case 0xA3: /* outi */
+			z80_Out((R.BC & 0xFF), M_RDMEM(R.HL));
+			R.HL = (R.HL + 1) & 0xFFFF;
+			R.BC = (R.BC - 0x100) & 0xFFFF;
+			R.F = ((R.BC >> 8) != 0) ? N_FLAG : (Z_FLAG | N_FLAG);
+			break;
+		case 0xA8: /* ldd */
+			M_WRMEM(R.DE, M_RDMEM(R.HL));
+			R.DE = (R.DE - 1) & 0xFFFF;
+			R.HL = (R.HL - 1) & 0xFFFF;
+			R.BC = (R.BC - 1) & 0xFFFF;
+			R.F = (R.F & 0xE9) | (R.BC != 0 ? V_FLAG : 0);
+			break;
+		case 0xB0: /* ldir */
 			R.R -= 2;
 			do {
 				R.R += 2;
-				M_WRMEM(R.DE.W, M_RDMEM(R.HL.W));
-				R.DE.AddW(1);
-				R.HL.AddW(1);
-				R.BC.AddW(-1);
+				M_WRMEM(R.DE, M_RDMEM(R.HL));
+				R.DE = (R.DE + 1) & 0xFFFF;
+				R.HL = (R.HL + 1) & 0xFFFF;
+				R.BC = (R.BC - 1) & 0xFFFF;
 				iCount -= 21;
-			} while (R.BC.W != 0 && iCount > 0);
-			R.F = (R.F & 0xE9) | (R.BC.W != 0 ? V_FLAG : 0);
-			if (R.BC.W != 0)
+			} while (R.BC != 0 && iCount > 0);
+			R.F = (R.F & 0xE9) | (R.BC != 0 ? V_FLAG : 0);
+			if (R.BC != 0)
 				R.PC = (R.PC - 2) & 0xFFFF;
 			else
 				iCount += 5;
-		}
-	};
-	private final OpcodeFn neg = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = R.A;
-			R.A = 0;
-			M_SUB(i);
-		}
-	};
-
-	private final OpcodeFn nop = new OpcodeFn() {
-		public void handler() {
-		}
-	};
-
-	private final OpcodeFn or_xhl = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XHL();
-			M_OR(i);
-		}
-	};
-	private final OpcodeFn or_xix = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIX();
-			M_OR(i);
-		}
-	};
-	private final OpcodeFn or_xiy = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIY();
-			M_OR(i);
-		}
-	};
-	private final OpcodeFn or_a = new OpcodeFn() {
-		public void handler() {
-			R.F = zspTable[R.A];
-		}
-	};
-	private final OpcodeFn or_b = new OpcodeFn() {
-		public void handler() {
-			M_OR(R.BC.H);
-		}
-	};
-	private final OpcodeFn or_c = new OpcodeFn() {
-		public void handler() {
-			M_OR(R.BC.L);
-		}
-	};
-	private final OpcodeFn or_d = new OpcodeFn() {
-		public void handler() {
-			M_OR(R.DE.H);
-		}
-	};
-	private final OpcodeFn or_e = new OpcodeFn() {
-		public void handler() {
-			M_OR(R.DE.L);
-		}
-	};
-	private final OpcodeFn or_h = new OpcodeFn() {
-		public void handler() {
-			M_OR(R.HL.H);
-		}
-	};
-	private final OpcodeFn or_l = new OpcodeFn() {
-		public void handler() {
-			M_OR(R.HL.L);
-		}
-	};
-	private final OpcodeFn or_byte = new OpcodeFn() {
-		public void handler() {
-			int i = M_RDMEM_OPCODE();
-			M_OR(i);
-		}
-	};
-
-	private final OpcodeFn outi = new OpcodeFn() {
-		public void handler() {
-			z80_Out(R.BC.L, M_RDMEM(R.HL.W));
-			R.HL.AddW(1);
-			R.BC.AddH(-1);
-			R.F = (R.BC.H != 0) ? N_FLAG : (Z_FLAG | N_FLAG);
-		}
-	};
-	private final OpcodeFn otir = new OpcodeFn() {
-		public void handler() {
+			break;
+		case 0xB1: /* cpir */
+			{
+				int i, j;
+				R.R -= 2;
+				do {
+					R.R += 2;
+					i = M_RDMEM(R.HL);
+					j = (R.A - i) & 0xFF;
+					R.HL = (R.HL + 1) & 0xFFFF;
+					R.BC = (R.BC - 1) & 0xFFFF;
+					iCount -= 21;
+				} while (R.BC != 0 && j != 0 && iCount > 0);
+				R.F = (R.F & C_FLAG) | zsTable[j] | ((R.A ^ i ^ j) & H_FLAG)
+						| (R.BC != 0 ? V_FLAG : 0) | N_FLAG;
+				if (R.BC != 0 && j != 0)
+					R.PC = (R.PC - 2) & 0xFFFF;
+				else
+					iCount += 5;
+			}
+			break;
+		case 0xB3: /* otir */
 			R.R -= 2;
 			do {
-				R.R += 2;
-				z80_Out(R.BC.L, M_RDMEM(R.HL.W));
-				R.HL.AddW(1);
-				R.BC.AddH(-1);
-				iCount -= 21;
-			} while (R.BC.H != 0 && iCount > 0);
-			R.F = (R.BC.H != 0) ? N_FLAG : (Z_FLAG | N_FLAG);
-			if (R.BC.H != 0)
-				R.PC = (R.PC - 2) & 0xFFFF;
-			else
-				iCount += 5;
-		}
-	};
-
-	private final OpcodeFn out_c_a = new OpcodeFn() {
-		public void handler() {
-			z80_Out(R.BC.L, R.A);
-		}
-	};
-	private final OpcodeFn out_c_b = new OpcodeFn() {
-		public void handler() {
-			z80_Out(R.BC.L, R.BC.H);
-		}
-	};
-	private final OpcodeFn out_c_d = new OpcodeFn() {
-		public void handler() {
-			z80_Out(R.BC.L, R.DE.H);
-		}
-	};
-	private final OpcodeFn out_c_e = new OpcodeFn() {
-		public void handler() {
-			z80_Out(R.BC.L, R.DE.L);
-		}
-	};
-	private final OpcodeFn out_c_h = new OpcodeFn() {
-		public void handler() {
-			z80_Out(R.BC.L, R.HL.H);
-		}
-	};
-	private final OpcodeFn out_c_l = new OpcodeFn() {
-		public void handler() {
-			z80_Out(R.BC.L, R.HL.L);
-		}
-	};
-	private final OpcodeFn out_byte_a = new OpcodeFn() {
-		public void handler() {
-			int i = M_RDMEM_OPCODE();
-			z80_Out(i, R.A);
-		}
-	};
-
-	private final OpcodeFn pop_af = new OpcodeFn() {
-		public void handler() {
-			R.AF = M_POP();
-			R.A = R.AF >> 8;
-			R.F = R.AF & 0xFF;
-		}
-	};
-	private final OpcodeFn pop_bc = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetW(M_POP());
-		}
-	};
-	private final OpcodeFn pop_de = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetW(M_POP());
-		}
-	};
-	private final OpcodeFn pop_hl = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetW(M_POP());
-		}
-	};
-	private final OpcodeFn pop_ix = new OpcodeFn() {
-		public void handler() {
-			R.IX.SetW(M_POP());
-		}
-	};
-	private final OpcodeFn pop_iy = new OpcodeFn() {
-		public void handler() {
-			R.IY.SetW(M_POP());
-		}
-	};
-
-	private final OpcodeFn push_af = new OpcodeFn() {
-		public void handler() {
-			M_PUSH((R.A << 8) | R.F);
-		}
-	};
-	private final OpcodeFn push_bc = new OpcodeFn() {
-		public void handler() {
-			M_PUSH(R.BC.W);
-		}
-	};
-	private final OpcodeFn push_de = new OpcodeFn() {
-		public void handler() {
-			M_PUSH(R.DE.W);
-		}
-	};
-	private final OpcodeFn push_hl = new OpcodeFn() {
-		public void handler() {
-			M_PUSH(R.HL.W);
-		}
-	};
-	private final OpcodeFn push_ix = new OpcodeFn() {
-		public void handler() {
-			M_PUSH(R.IX.W);
-		}
-	};
-	private final OpcodeFn push_iy = new OpcodeFn() {
-		public void handler() {
-			M_PUSH(R.IY.W);
-		}
-	};
-
-	private final OpcodeFn res_0_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_RES(0, i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn res_0_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_RES(0, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn res_0_xiy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIY();
-			i = M_RDMEM(j);
-			i = M_RES(0, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn res_0_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_RES(0, R.A);
-		}
-	};
-	private final OpcodeFn res_0_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_RES(0, R.BC.H));
-		}
-	};
-	private final OpcodeFn res_0_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_RES(0, R.BC.L));
-		}
-	};
-	private final OpcodeFn res_0_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_RES(0, R.DE.H));
-		}
-	};
-	private final OpcodeFn res_0_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_RES(0, R.DE.L));
-		}
-	};
-	private final OpcodeFn res_0_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_RES(0, R.HL.H));
-		}
-	};
-	private final OpcodeFn res_0_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_RES(0, R.HL.L));
-		}
-	};
-
-	private final OpcodeFn res_1_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_RES(1, i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn res_1_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_RES(1, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn res_1_xiy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIY();
-			i = M_RDMEM(j);
-			i = M_RES(1, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn res_1_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_RES(1, R.A);
-		}
-	};
-	private final OpcodeFn res_1_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_RES(1, R.BC.H));
-		}
-	};
-	private final OpcodeFn res_1_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_RES(1, R.BC.L));
-		}
-	};
-	private final OpcodeFn res_1_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_RES(1, R.DE.H));
-		}
-	};
-	private final OpcodeFn res_1_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_RES(1, R.DE.L));
-		}
-	};
-	private final OpcodeFn res_1_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_RES(1, R.HL.H));
-		}
-	};
-	private final OpcodeFn res_1_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_RES(1, R.HL.L));
-		}
-	};
-
-	private final OpcodeFn res_2_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_RES(2, i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn res_2_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_RES(2, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn res_2_xiy = new OpcodeFn() {
-		public void handler() {
-			int j = M_XIY();
-			int i = M_RDMEM(j);
-			i = M_RES(2, i);
-			M_WRMEM(j, i);
-		}
-	};
-
-	private final OpcodeFn res_2_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_RES(2, R.A);
-		}
-	};
-	private final OpcodeFn res_2_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_RES(2, R.BC.H));
-		}
-	};
-	private final OpcodeFn res_2_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_RES(2, R.BC.L));
-		}
-	};
-	private final OpcodeFn res_2_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_RES(2, R.DE.H));
-		}
-	};
-	private final OpcodeFn res_2_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_RES(2, R.DE.L));
-		}
-	};
-	private final OpcodeFn res_2_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_RES(2, R.HL.H));
-		}
-	};
-	private final OpcodeFn res_2_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_RES(2, R.HL.L));
-		}
-	};
-
-	private final OpcodeFn res_3_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_RES(3, i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn res_3_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_RES(3, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn res_3_xiy = new OpcodeFn() {
-		public void handler() {
-			int j = M_XIY();
-			int i = M_RDMEM(j);
-			i = M_RES(3, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn res_3_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_RES(3, R.A);
-		}
-	};
-	private final OpcodeFn res_3_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_RES(3, R.BC.H));
-		}
-	};
-	private final OpcodeFn res_3_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_RES(3, R.BC.L));
-		}
-	};
-	private final OpcodeFn res_3_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_RES(3, R.DE.H));
-		}
-	};
-	private final OpcodeFn res_3_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_RES(3, R.DE.L));
-		}
-	};
-	private final OpcodeFn res_3_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_RES(3, R.HL.H));
-		}
-	};
-	private final OpcodeFn res_3_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_RES(3, R.HL.L));
-		}
-	};
-
-	private final OpcodeFn res_4_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_RES(4, i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn res_4_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_RES(4, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn res_4_xiy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIY();
-			i = M_RDMEM(j);
-			i = M_RES(4, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn res_4_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_RES(4, R.A);
-		}
-	};
-	private final OpcodeFn res_4_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_RES(4, R.BC.H));
-		}
-	};
-	private final OpcodeFn res_4_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_RES(4, R.BC.L));
-		}
-	};
-	private final OpcodeFn res_4_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_RES(4, R.DE.H));
-		}
-	};
-	private final OpcodeFn res_4_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_RES(4, R.DE.L));
-		}
-	};
-	private final OpcodeFn res_4_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_RES(4, R.HL.H));
-		}
-	};
-	private final OpcodeFn res_4_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_RES(4, R.HL.L));
-		}
-	};
-
-	private final OpcodeFn res_5_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_RES(5, i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn res_5_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_RES(5, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn res_5_xiy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIY();
-			i = M_RDMEM(j);
-			i = M_RES(5, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn res_5_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_RES(5, R.A);
-		}
-	};
-	private final OpcodeFn res_5_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_RES(5, R.BC.H));
-		}
-	};
-	private final OpcodeFn res_5_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_RES(5, R.BC.L));
-		}
-	};
-	private final OpcodeFn res_5_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_RES(5, R.DE.H));
-		}
-	};
-	private final OpcodeFn res_5_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_RES(5, R.DE.L));
-		}
-	};
-	private final OpcodeFn res_5_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_RES(5, R.HL.H));
-		}
-	};
-	private final OpcodeFn res_5_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_RES(5, R.HL.L));
-		}
-	};
-
-	private final OpcodeFn res_6_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_RES(6, i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn res_6_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_RES(6, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn res_6_xiy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIY();
-			i = M_RDMEM(j);
-			i = M_RES(6, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn res_6_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_RES(6, R.A);
-		}
-	};
-	private final OpcodeFn res_6_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_RES(6, R.BC.H));
-		}
-	};
-	private final OpcodeFn res_6_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_RES(6, R.BC.L));
-		}
-	};
-	private final OpcodeFn res_6_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_RES(6, R.DE.H));
-		}
-	};
-	private final OpcodeFn res_6_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_RES(6, R.DE.L));
-		}
-	};
-	private final OpcodeFn res_6_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_RES(6, R.HL.H));
-		}
-	};
-	private final OpcodeFn res_6_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_RES(6, R.HL.L));
-		}
-	};
-
-	private final OpcodeFn res_7_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_RES(7, i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn res_7_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_RES(7, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn res_7_xiy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIY();
-			i = M_RDMEM(j);
-			i = M_RES(7, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn res_7_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_RES(7, R.A);
-		}
-	};
-	private final OpcodeFn res_7_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_RES(7, R.BC.H));
-		}
-	};
-	private final OpcodeFn res_7_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_RES(7, R.BC.L));
-		}
-	};
-	private final OpcodeFn res_7_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_RES(7, R.DE.H));
-		}
-	};
-	private final OpcodeFn res_7_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_RES(7, R.DE.L));
-		}
-	};
-	private final OpcodeFn res_7_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_RES(7, R.HL.H));
-		}
-	};
-	private final OpcodeFn res_7_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_RES(7, R.HL.L));
-		}
-	};
-
-	private final OpcodeFn ret = new OpcodeFn() {
-		public void handler() {
-			M_RET();
-		}
-	};
-	private final OpcodeFn ret_c = new OpcodeFn() {
-		public void handler() {
-			if (M_C()) {
-				M_RET();
-			} else {
-				M_SKIP_RET();
-			}
-		}
-	};
-	private final OpcodeFn ret_m = new OpcodeFn() {
-		public void handler() {
-			if (M_M()) {
-				M_RET();
-			} else {
-				M_SKIP_RET();
-			}
-		}
-	};
-	private final OpcodeFn ret_nc = new OpcodeFn() {
-		public void handler() {
-			if (M_NC()) {
-				M_RET();
-			} else {
-				M_SKIP_RET();
-			}
-		}
-	};
-	private final OpcodeFn ret_nz = new OpcodeFn() {
-		public void handler() {
-			if (M_NZ()) {
-				M_RET();
-			} else {
-				M_SKIP_RET();
-			}
-		}
-	};
-	private final OpcodeFn ret_p = new OpcodeFn() {
-		public void handler() {
-			if (M_P()) {
-				M_RET();
-			} else {
-				M_SKIP_RET();
-			}
-		}
-	};
-	private final OpcodeFn ret_pe = new OpcodeFn() {
-		public void handler() {
-			if (M_PE()) {
-				M_RET();
-			} else {
-				M_SKIP_RET();
-			}
-		}
-	};
-	private final OpcodeFn ret_po = new OpcodeFn() {
-		public void handler() {
-			if (M_PO()) {
-				M_RET();
-			} else {
-				M_SKIP_RET();
-			}
-		}
-	};
-	private final OpcodeFn ret_z = new OpcodeFn() {
-		public void handler() {
-			if (M_Z()) {
-				M_RET();
-			} else {
-				M_SKIP_RET();
-			}
-		}
-	};
-
-	private final OpcodeFn reti = new OpcodeFn() {
-		public void handler() { /* Z80_Reti(); */
-			M_RET();
-		}
-	};
-	private final OpcodeFn retn = new OpcodeFn() {
-		public void handler() {
-			R.IFF1 = R.IFF2; /* Z80_Retn(); */
-			M_RET();
-		}
-	};
-
-	private final OpcodeFn rl_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_RL(i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn rl_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_RL(i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn rl_xiy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIY();
-			i = M_RDMEM(j);
-			i = M_RL(i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn rl_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_RL(R.A);
-		}
-	};
-	private final OpcodeFn rl_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_RL(R.BC.H));
-		}
-	};
-	private final OpcodeFn rl_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_RL(R.BC.L));
-		}
-	};
-	private final OpcodeFn rl_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_RL(R.DE.H));
-		}
-	};
-	private final OpcodeFn rl_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_RL(R.DE.L));
-		}
-	};
-	private final OpcodeFn rl_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_RL(R.HL.H));
-		}
-	};
-	private final OpcodeFn rl_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_RL(R.HL.L));
-		}
-	};
-	private final OpcodeFn rla = new OpcodeFn() {
-		public void handler() {
-			M_RLA();
-		}
-	};
-
-	private final OpcodeFn rlc_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_RLC(i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn rlc_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_RLC(i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn rlc_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_RLC(R.A);
-		}
-	};
-	private final OpcodeFn rlc_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_RLC(R.BC.H));
-		}
-	};
-	private final OpcodeFn rlc_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_RLC(R.BC.L));
-		}
-	};
-	private final OpcodeFn rlc_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_RLC(R.DE.H));
-		}
-	};
-	private final OpcodeFn rlc_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_RLC(R.DE.L));
-		}
-	};
-	private final OpcodeFn rlc_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_RLC(R.HL.H));
-		}
-	};
-	private final OpcodeFn rlc_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_RLC(R.HL.L));
-		}
-	};
-	private final OpcodeFn rlca = new OpcodeFn() {
-		public void handler() {
-			M_RLCA();
-		}
-	};
-
-	private final OpcodeFn rld = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			M_WRMEM(R.HL.W, ((i << 4) | (R.A & 0x0F)) & 0xFF);
-			R.A = ((R.A & 0xF0) | (i >> 4)) & 0xFF;
-			R.F = (R.F & C_FLAG) | zspTable[R.A];
-		}
-	};
-
-	private final OpcodeFn rr_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_RR(i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn rr_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_RR(i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn rr_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_RR(R.A);
-		}
-	};
-	private final OpcodeFn rr_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_RR(R.BC.H));
-		}
-	};
-	private final OpcodeFn rr_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_RR(R.BC.L));
-		}
-	};
-	private final OpcodeFn rr_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_RR(R.DE.H));
-		}
-	};
-	private final OpcodeFn rr_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_RR(R.DE.L));
-		}
-	};
-	private final OpcodeFn rr_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_RR(R.HL.H));
-		}
-	};
-	private final OpcodeFn rr_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_RR(R.HL.L));
-		}
-	};
-	private final OpcodeFn rra = new OpcodeFn() {
-		public void handler() {
-			M_RRA();
-		}
-	};
-
-	private final OpcodeFn rrc_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_RRC(i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn rrc_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_RRC(i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn rrc_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_RRC(R.A);
-		}
-	};
-	private final OpcodeFn rrc_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_RRC(R.BC.H));
-		}
-	};
-	private final OpcodeFn rrc_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_RRC(R.BC.L));
-		}
-	};
-	private final OpcodeFn rrc_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_RRC(R.DE.H));
-		}
-	};
-	private final OpcodeFn rrc_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_RRC(R.DE.L));
-		}
-	};
-	private final OpcodeFn rrc_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_RRC(R.HL.H));
-		}
-	};
-	private final OpcodeFn rrc_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_RRC(R.HL.L));
-		}
-	};
-	private final OpcodeFn rrca = new OpcodeFn() {
-		public void handler() {
-			M_RRCA();
-		}
-	};
-	private final OpcodeFn rrd = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			M_WRMEM(R.HL.W, ((i >> 4) | (R.A << 4)) & 0xFF);
-			R.A = ((R.A & 0xF0) | (i & 0x0F)) & 0xFF;
-			R.F = (R.F & C_FLAG) | zspTable[R.A];
-		}
-	};
-	private final OpcodeFn rst_00 = new OpcodeFn() {
-		public void handler() {
-			M_RST(0x00);
-		}
-	};
-	private final OpcodeFn rst_08 = new OpcodeFn() {
-		public void handler() {
-			M_RST(0x08);
-		}
-	};
-	private final OpcodeFn rst_10 = new OpcodeFn() {
-		public void handler() {
-			M_RST(0x10);
-		}
-	};
-	private final OpcodeFn rst_18 = new OpcodeFn() {
-		public void handler() {
-			M_RST(0x18);
-		}
-	};
-	private final OpcodeFn rst_20 = new OpcodeFn() {
-		public void handler() {
-			M_RST(0x20);
-		}
-	};
-	private final OpcodeFn rst_28 = new OpcodeFn() {
-		public void handler() {
-			M_RST(0x28);
-		}
-	};
-	private final OpcodeFn rst_30 = new OpcodeFn() {
-		public void handler() {
-			M_RST(0x30);
-		}
-	};
-	private final OpcodeFn rst_38 = new OpcodeFn() {
-		public void handler() {
-			M_RST(0x38);
-		}
-	};
-	private final OpcodeFn sbc_a_byte = new OpcodeFn() {
-		public void handler() {
-			int i = M_RDMEM_OPCODE();
-			M_SBC(i);
-		}
-	};
-	private final OpcodeFn sbc_a_xhl = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XHL();
-			M_SBC(i);
-		}
-	};
-	private final OpcodeFn sbc_a_xix = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIX();
-			M_SBC(i);
-		}
-	};
-	@SuppressWarnings("unused")
-	private final OpcodeFn sbc_a_xiy = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIY();
-			M_SBC(i);
-		}
-	};
-	private final OpcodeFn sbc_a_a = new OpcodeFn() {
-		public void handler() {
-			M_SBC(R.A);
-		}
-	};
-	private final OpcodeFn sbc_a_b = new OpcodeFn() {
-		public void handler() {
-			M_SBC(R.BC.H);
-		}
-	};
-	private final OpcodeFn sbc_a_c = new OpcodeFn() {
-		public void handler() {
-			M_SBC(R.BC.L);
-		}
-	};
-	private final OpcodeFn sbc_a_d = new OpcodeFn() {
-		public void handler() {
-			M_SBC(R.DE.H);
-		}
-	};
-	private final OpcodeFn sbc_a_e = new OpcodeFn() {
-		public void handler() {
-			M_SBC(R.DE.L);
-		}
-	};
-	private final OpcodeFn sbc_a_h = new OpcodeFn() {
-		public void handler() {
-			M_SBC(R.HL.H);
-		}
-	};
-	private final OpcodeFn sbc_a_l = new OpcodeFn() {
-		public void handler() {
-			M_SBC(R.HL.L);
-		}
-	};
-
-	private final OpcodeFn sbc_hl_bc = new OpcodeFn() {
-		public void handler() {
-			M_SBCW(R.BC.W);
-		}
-	};
-	private final OpcodeFn sbc_hl_de = new OpcodeFn() {
-		public void handler() {
-			M_SBCW(R.DE.W);
-		}
-	};
-	@SuppressWarnings("unused")
-	private final OpcodeFn sbc_hl_hl = new OpcodeFn() {
-		public void handler() {
-			M_SBCW(R.HL.W);
-		}
-	};
-	@SuppressWarnings("unused")
-	private final OpcodeFn sbc_hl_sp = new OpcodeFn() {
-		public void handler() {
-			M_SBCW(R.SP);
-		}
-	};
-
-	private final OpcodeFn scf = new OpcodeFn() {
-		public void handler() {
-			R.F = (R.F & 0xEC) | C_FLAG;
-		}
-	};
-
-	private final OpcodeFn set_0_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_SET(0, i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn set_0_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_SET(0, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn set_0_xiy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIY();
-			i = M_RDMEM(j);
-			i = M_SET(0, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn set_0_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_SET(0, R.A);
-		}
-	};
-	private final OpcodeFn set_0_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_SET(0, R.BC.H));
-		}
-	};
-	private final OpcodeFn set_0_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_SET(0, R.BC.L));
-		}
-	};
-	private final OpcodeFn set_0_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_SET(0, R.DE.H));
-		}
-	};
-	private final OpcodeFn set_0_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_SET(0, R.DE.L));
-		}
-	};
-	private final OpcodeFn set_0_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_SET(0, R.HL.H));
-		}
-	};
-	private final OpcodeFn set_0_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_SET(0, R.HL.L));
-		}
-	};
-
-	private final OpcodeFn set_1_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_SET(1, i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn set_1_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_SET(1, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn set_1_xiy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIY();
-			i = M_RDMEM(j);
-			i = M_SET(1, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn set_1_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_SET(1, R.A);
-		}
-	};
-	private final OpcodeFn set_1_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_SET(1, R.BC.H));
-		}
-	};
-	private final OpcodeFn set_1_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_SET(1, R.BC.L));
-		}
-	};
-	private final OpcodeFn set_1_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_SET(1, R.DE.H));
-		}
-	};
-	private final OpcodeFn set_1_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_SET(1, R.DE.L));
-		}
-	};
-	private final OpcodeFn set_1_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_SET(1, R.HL.H));
-		}
-	};
-	private final OpcodeFn set_1_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_SET(1, R.HL.L));
-		}
-	};
-
-	private final OpcodeFn set_2_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_SET(2, i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn set_2_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_SET(2, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn set_2_xiy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIY();
-			i = M_RDMEM(j);
-			i = M_SET(2, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn set_2_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_SET(2, R.A);
-		}
-	};
-	private final OpcodeFn set_2_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_SET(2, R.BC.H));
-		}
-	};
-	private final OpcodeFn set_2_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_SET(2, R.BC.L));
-		}
-	};
-	private final OpcodeFn set_2_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_SET(2, R.DE.H));
-		}
-	};
-	private final OpcodeFn set_2_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_SET(2, R.DE.L));
-		}
-	};
-	private final OpcodeFn set_2_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_SET(2, R.HL.H));
-		}
-	};
-	private final OpcodeFn set_2_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_SET(2, R.HL.L));
-		}
-	};
-
-	private final OpcodeFn set_3_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_SET(3, i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn set_3_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_SET(3, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn set_3_xiy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIY();
-			i = M_RDMEM(j);
-			i = M_SET(3, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn set_3_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_SET(3, R.A);
-		}
-	};
-	private final OpcodeFn set_3_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_SET(3, R.BC.H));
-		}
-	};
-	private final OpcodeFn set_3_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_SET(3, R.BC.L));
-		}
-	};
-	private final OpcodeFn set_3_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_SET(3, R.DE.H));
-		}
-	};
-	private final OpcodeFn set_3_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_SET(3, R.DE.L));
-		}
-	};
-	private final OpcodeFn set_3_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_SET(3, R.HL.H));
-		}
-	};
-	private final OpcodeFn set_3_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_SET(3, R.HL.L));
-		}
-	};
-
-	private final OpcodeFn set_4_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_SET(4, i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	private final OpcodeFn set_4_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_SET(4, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn set_4_xiy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIY();
-			i = M_RDMEM(j);
-			i = M_SET(4, i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn set_4_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_SET(4, R.A);
-		}
-	};
-	
-	private final OpcodeFn set_4_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_SET(4, R.BC.H));
-		}
-	};
-	
-	private final OpcodeFn set_4_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_SET(4, R.BC.L));
-		}
-	};
-	
-	private final OpcodeFn set_4_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_SET(4, R.DE.H));
-		}
-	};
-	
-	private final OpcodeFn set_4_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_SET(4, R.DE.L));
-		}
-	};
-	
-	private final OpcodeFn set_4_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_SET(4, R.HL.H));
-		}
-	};
-	
-	private final OpcodeFn set_4_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_SET(4, R.HL.L));
-		}
-	};
-
-	private final OpcodeFn set_5_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_SET(5, i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	
-	private final OpcodeFn set_5_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_SET(5, i);
-			M_WRMEM(j, i);
-		}
-	};
-	
-	private final OpcodeFn set_5_xiy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIY();
-			i = M_RDMEM(j);
-			i = M_SET(5, i);
-			M_WRMEM(j, i);
-		}
-	};
-	
-	private final OpcodeFn set_5_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_SET(5, R.A);
-		}
-	};
-	
-	private final OpcodeFn set_5_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_SET(5, R.BC.H));
-		}
-	};
-	
-	private final OpcodeFn set_5_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_SET(5, R.BC.L));
-		}
-	};
-	
-	private final OpcodeFn set_5_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_SET(5, R.DE.H));
-		}
-	};
-	
-	private final OpcodeFn set_5_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_SET(5, R.DE.L));
-		}
-	};
-	
-	private final OpcodeFn set_5_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_SET(5, R.HL.H));
-		}
-	};
-	
-	private final OpcodeFn set_5_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_SET(5, R.HL.L));
-		}
-	};
-
-	private final OpcodeFn set_6_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_SET(6, i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	
-	private final OpcodeFn set_6_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_SET(6, i);
-			M_WRMEM(j, i);
-		}
-	};
-	
-	private final OpcodeFn set_6_xiy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIY();
-			i = M_RDMEM(j);
-			i = M_SET(6, i);
-			M_WRMEM(j, i);
-		}
-	};
-	
-	private final OpcodeFn set_6_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_SET(6, R.A);
-		}
-	};
-	
-	private final OpcodeFn set_6_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_SET(6, R.BC.H));
-		}
-	};
-	
-	private final OpcodeFn set_6_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_SET(6, R.BC.L));
-		}
-	};
-	
-	private final OpcodeFn set_6_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_SET(6, R.DE.H));
-		}
-	};
-	
-	private final OpcodeFn set_6_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_SET(6, R.DE.L));
-		}
-	};
-	
-	private final OpcodeFn set_6_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_SET(6, R.HL.H));
-		}
-	};
-	
-	private final OpcodeFn set_6_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_SET(6, R.HL.L));
-		}
-	};
-
-	private final OpcodeFn set_7_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_SET(7, i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	
-	private final OpcodeFn set_7_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_SET(7, i);
-			M_WRMEM(j, i);
-		}
-	};
-	
-	private final OpcodeFn set_7_xiy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIY();
-			i = M_RDMEM(j);
-			i = M_SET(7, i);
-			M_WRMEM(j, i);
-		}
-	};
-	
-	private final OpcodeFn set_7_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_SET(7, R.A);
-		}
-	};
-	
-	private final OpcodeFn set_7_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_SET(7, R.BC.H));
-		}
-	};
-	
-	private final OpcodeFn set_7_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_SET(7, R.BC.L));
-		}
-	};
-	
-	private final OpcodeFn set_7_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_SET(7, R.DE.H));
-		}
-	};
-	
-	private final OpcodeFn set_7_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_SET(7, R.DE.L));
-		}
-	};
-	
-	private final OpcodeFn set_7_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_SET(7, R.HL.H));
-		}
-	};
-	
-	private final OpcodeFn set_7_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_SET(7, R.HL.L));
-		}
-	};
-
-	private final OpcodeFn sla_xhl = new OpcodeFn() {
-		public void handler() {
-			int i;
-			i = M_RDMEM(R.HL.W);
-			i = M_SLA(i);
-			M_WRMEM(R.HL.W, i);
-		}
-	};
-	
-	private final OpcodeFn sla_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_SLA(i);
-			M_WRMEM(j, i);
-		}
-	};
-	
-	private final OpcodeFn sla_xiy = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIY();
-			i = M_RDMEM(j);
-			i = M_SLA(i);
-			M_WRMEM(j, i);
-		}
-	};
-
-	private final OpcodeFn sla_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_SLA(R.A);
-		}
-	};
-	
-	private final OpcodeFn sla_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_SLA(R.BC.H));
-		}
-	};
-	
-	private final OpcodeFn sla_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_SLA(R.BC.L));
-		}
-	};
-	
-	private final OpcodeFn sla_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_SLA(R.DE.H));
-		}
-	};
-	
-	private final OpcodeFn sla_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_SLA(R.DE.L));
-		}
-	};
-	
-	private final OpcodeFn sla_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_SLA(R.HL.H));
-		}
-	};
-	
-	private final OpcodeFn sla_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_SLA(R.HL.L));
-		}
-	};
-
-	private final OpcodeFn sra_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_SRA(R.A);
-		}
-	};
-	private final OpcodeFn sra_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_SRA(R.BC.H));
-		}
-	};
-	private final OpcodeFn sra_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_SRA(R.BC.L));
-		}
-	};
-	private final OpcodeFn sra_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_SRA(R.DE.H));
-		}
-	};
-	private final OpcodeFn sra_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_SRA(R.DE.L));
-		}
-	};
-	private final OpcodeFn sra_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_SRA(R.HL.H));
-		}
-	};
-	private final OpcodeFn sra_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_SRA(R.HL.L));
-		}
-	};
-
-	private final OpcodeFn srl_xix = new OpcodeFn() {
-		public void handler() {
-			int i;
-			int j;
-			j = M_XIX();
-			i = M_RDMEM(j);
-			i = M_SRL(i);
-			M_WRMEM(j, i);
-		}
-	};
-	private final OpcodeFn srl_a = new OpcodeFn() {
-		public void handler() {
-			R.A = M_SRL(R.A);
-		}
-	};
-	private final OpcodeFn srl_b = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetH(M_SRL(R.BC.H));
-		}
-	};
-	private final OpcodeFn srl_c = new OpcodeFn() {
-		public void handler() {
-			R.BC.SetL(M_SRL(R.BC.L));
-		}
-	};
-	private final OpcodeFn srl_d = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetH(M_SRL(R.DE.H));
-		}
-	};
-	private final OpcodeFn srl_e = new OpcodeFn() {
-		public void handler() {
-			R.DE.SetL(M_SRL(R.DE.L));
-		}
-	};
-	private final OpcodeFn srl_h = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetH(M_SRL(R.HL.H));
-		}
-	};
-	private final OpcodeFn srl_l = new OpcodeFn() {
-		public void handler() {
-			R.HL.SetL(M_SRL(R.HL.L));
-		}
-	};
-
-	private final OpcodeFn sub_xhl = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XHL();
-			M_SUB(i);
-		}
-	};
-	private final OpcodeFn sub_xix = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIX();
-			M_SUB(i);
-		}
-	};
-	private final OpcodeFn sub_xiy = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIY();
-			M_SUB(i);
-		}
-	};
-	private final OpcodeFn sub_a = new OpcodeFn() {
-		public void handler() {
-			R.A = 0;
-			R.F = Z_FLAG | N_FLAG;
-		}
-	};
-	private final OpcodeFn sub_b = new OpcodeFn() {
-		public void handler() {
-			M_SUB(R.BC.H);
-		}
-	};
-	private final OpcodeFn sub_c = new OpcodeFn() {
-		public void handler() {
-			M_SUB(R.BC.L);
-		}
-	};
-	private final OpcodeFn sub_d = new OpcodeFn() {
-		public void handler() {
-			M_SUB(R.DE.H);
-		}
-	};
-	private final OpcodeFn sub_e = new OpcodeFn() {
-		public void handler() {
-			M_SUB(R.DE.L);
-		}
-	};
-	private final OpcodeFn sub_h = new OpcodeFn() {
-		public void handler() {
-			M_SUB(R.HL.H);
-		}
-	};
-	private final OpcodeFn sub_l = new OpcodeFn() {
-		public void handler() {
-			M_SUB(R.HL.L);
-		}
-	};
-	private final OpcodeFn sub_ixh = new OpcodeFn() {
-		public void handler() {
-			M_SUB(R.IX.H);
-		}
-	};
-	private final OpcodeFn sub_ixl = new OpcodeFn() {
-		public void handler() {
-			M_SUB(R.IX.L);
-		}
-	};
-	private final OpcodeFn sub_byte = new OpcodeFn() {
-		public void handler() {
-			int i = M_RDMEM_OPCODE();
-			M_SUB(i);
+				R.R += 2;
+				z80_Out((R.BC & 0xFF), M_RDMEM(R.HL));
+				R.HL = (R.HL + 1) & 0xFFFF;
+				R.BC = (R.BC - 0x100) & 0xFFFF;
+				iCount -= 21;
+			} while ((R.BC >> 8) != 0 && iCount > 0);
+			R.F = ((R.BC >> 8) != 0) ? N_FLAG : (Z_FLAG | N_FLAG);
+			if ((R.BC >> 8) != 0)
+				R.PC = (R.PC - 2) & 0xFFFF;
+			else
+				iCount += 5;
+			break;
+		case 0xB8: /* lddr */
+			R.R -= 2;
+			do {
+				R.R += 2;
+				M_WRMEM(R.DE, M_RDMEM(R.HL));
+				R.DE = (R.DE - 1) & 0xFFFF;
+				R.HL = (R.HL - 1) & 0xFFFF;
+				R.BC = (R.BC - 1) & 0xFFFF;
+				iCount -= 21;
+			} while (R.BC != 0 && iCount > 0);
+			R.F = (R.F & 0xE9) | (R.BC != 0 ? V_FLAG : 0);
+			if (R.BC != 0)
+				R.PC = (R.PC - 2) & 0xFFFF;
+			else
+				iCount += 5;
+			break;
+		case 0xB9: /* cpdr */
+			{
+				int i, j;
+				R.R -= 2;
+				do {
+					R.R += 2;
+					i = M_RDMEM(R.HL);
+					j = (R.A - i) & 0xFF;
+					R.HL = (R.HL - 1) & 0xFFFF;
+					R.BC = (R.BC - 1) & 0xFFFF;
+					iCount -= 21;
+				} while (R.BC != 0 && j != 0 && iCount > 0);
+				R.F = (R.F & C_FLAG) | zsTable[j] | ((R.A ^ i ^ j) & H_FLAG)
+						| (R.BC != 0 ? V_FLAG : 0) | N_FLAG;
+				if (R.BC != 0 && j != 0)
+					R.PC = (R.PC - 2) & 0xFFFF;
+				else
+					iCount += 5;
+			}
+			break;
+		default:
+			unimplemented("ed", op);
 		}
-	};
+	}
 
-	private final OpcodeFn xor_xhl = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XHL();
-			M_XOR(i);
-		}
-	};
-	private final OpcodeFn xor_xix = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIX();
-			M_XOR(i);
-		}
-	};
-	private final OpcodeFn xor_xiy = new OpcodeFn() {
-		public void handler() {
-			int i = M_RD_XIY();
-			M_XOR(i);
-		}
-	};
-	private final OpcodeFn xor_a = new OpcodeFn() {
-		public void handler() {
-			R.A = 0;
-			R.F = Z_FLAG | V_FLAG;
-		}
-	};
-	private final OpcodeFn xor_b = new OpcodeFn() {
-		public void handler() {
-			M_XOR(R.BC.H);
-		}
-	};
-	private final OpcodeFn xor_c = new OpcodeFn() {
-		public void handler() {
-			M_XOR(R.BC.L);
-		}
-	};
-	private final OpcodeFn xor_d = new OpcodeFn() {
-		public void handler() {
-			M_XOR(R.DE.H);
-		}
-	};
-	private final OpcodeFn xor_e = new OpcodeFn() {
-		public void handler() {
-			M_XOR(R.DE.L);
-		}
-	};
-	private final OpcodeFn xor_h = new OpcodeFn() {
-		public void handler() {
-			M_XOR(R.HL.H);
-		}
-	};
-	private final OpcodeFn xor_l = new OpcodeFn() {
-		public void handler() {
-			M_XOR(R.HL.L);
-		}
-	};
-	private final OpcodeFn xor_byte = new OpcodeFn() {
-		public void handler() {
-			int i = M_RDMEM_OPCODE();
-			M_XOR(i);
-		}
-	};
-	private final OpcodeFn xor_ixh = new OpcodeFn() {
-		public void handler() {
-			M_XOR(R.IX.H);
-		}
-	};
-	private final OpcodeFn no_op = new OpcodeFn() {
-		public void handler() {
+	private void exec_fd(int op) {
+		switch (op) {
+		case 0x00: case 0x01: case 0x02: case 0x03: case 0x04: case 0x05:
+		case 0x06: case 0x07: case 0x08: case 0x0A: case 0x0B: case 0x0C:
+		case 0x0D: case 0x0E: case 0x0F: case 0x10: case 0x11: case 0x12:
+		case 0x13: case 0x14: case 0x15: case 0x16: case 0x17: case 0x18:
+		case 0x1A: case 0x1B: case 0x1C: case 0x1D: case 0x1E: case 0x1F:
+		case 0x30: case 0x31: case 0x32: case 0x33: case 0x37: case 0x38:
+		case 0x3A: case 0x3B: case 0x3C: case 0x3D: case 0x3E: case 0x3F:
+		case 0x5A: case 0x76: case 0xC0: case 0xC1: case 0xC2: case 0xC3:
+		case 0xC4: case 0xC5: case 0xC6: case 0xC7: case 0xC8: case 0xC9:
+		case 0xCA: case 0xCC: case 0xCD: case 0xCE: case 0xCF: case 0xD0:
+		case 0xD1: case 0xD2: case 0xD3: case 0xD4: case 0xD5: case 0xD6:
+		case 0xD7: case 0xD8: case 0xD9: case 0xDA: case 0xDB: case 0xDC:
+		case 0xDD: case 0xDE: case 0xDF: case 0xE0: case 0xE2: case 0xE4:
+		case 0xE6: case 0xE7: case 0xE8: case 0xEA: case 0xEB: case 0xEC:
+		case 0xED: case 0xEE: case 0xEF: case 0xF0: case 0xF1: case 0xF2:
+		case 0xF3: case 0xF4: case 0xF5: case 0xF6: case 0xF7: case 0xF8:
+		case 0xFA: case 0xFB: case 0xFC: case 0xFD: case 0xFE: case 0xFF: /* no_op */
 			R.PC = (R.PC - 1) & 0xFFFF;
+			break;
+		case 0x09: /* add_iy_bc */
+			R.IY = M_ADDW(R.IY, R.BC);
+			break;
+		case 0x19: /* add_iy_de */
+			R.IY = M_ADDW(R.IY, R.DE);
+			break;
+		case 0x21: /* ld_iy_word */
+			R.IY = M_RDMEM_OPCODE_WORD();
+			break;
+		case 0x22: /* ld_xword_iy */
+			M_WRMEM_WORD(M_RDMEM_OPCODE_WORD(), R.IY);
+			break;
+		case 0x23: /* inc_iy */
+			R.IY = (R.IY + 1) & 0xFFFF;
+			break;
+		case 0x25: /* dec_iyh */
+			R.IY = (R.IY & 0xFF) | (M_DEC(R.IY >> 8) << 8);
+			break;
+		case 0x26: /* ld_iyh_byte */
+			R.IY = (R.IY & 0xFF) | (M_RDMEM_OPCODE() << 8);
+			break;
+		case 0x2A: /* ld_iy_xword */
+			R.IY = M_RDMEM_WORD(M_RDMEM_OPCODE_WORD());
+			break;
+		case 0x2B: /* dec_iy */
+			R.IY = (R.IY - 1) & 0xFFFF;
+			break;
+		case 0x2D: /* dec_iyl */
+			R.IY = (R.IY & 0xFF00) | M_DEC(R.IY & 0xFF);
+			break;
+		case 0x2E: /* ld_iyl_byte */
+			R.IY = (R.IY & 0xFF00) | M_RDMEM_OPCODE();
+			break;
+		case 0x34: /* inc_xiy */
+			{
+				int i;
+				int j;
+				j = M_XIY();
+				i = M_RDMEM(j);
+				i = M_INC(i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0x35: /* dec_xiy */
+			{
+				int i;
+				int j;
+				j = M_XIY();
+				i = M_RDMEM(j);
+				i = M_DEC(i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0x36: /* ld_xiy_byte */
+			{
+				int i, j;
+				i = M_XIY();
+				j = M_RDMEM_OPCODE();
+				M_WRMEM(i, j);
+			}
+			break;
+		case 0x39: /* add_iy_sp */
+			R.IY = M_ADDW(R.IY, R.SP);
+			break;
+		case 0x46: /* ld_b_xiy */
+			R.BC = (R.BC & 0xFF) | (M_RD_XIY() << 8);
+			break;
+		case 0x4E: /* ld_c_xiy */
+			R.BC = (R.BC & 0xFF00) | M_RD_XIY();
+			break;
+		case 0x54: /* ld_d_iyh */
+			R.DE = (R.DE & 0xFF) | (R.IY & 0xFF00);
+			break;
+		case 0x56: /* ld_d_xiy */
+			R.DE = (R.DE & 0xFF) | (M_RD_XIY() << 8);
+			break;
+		case 0x5D: /* ld_e_iyl */
+			R.DE = (R.DE & 0xFF00) | (R.IY & 0xFF);
+			break;
+		case 0x5E: /* ld_e_xiy */
+			R.DE = (R.DE & 0xFF00) | M_RD_XIY();
+			break;
+		case 0x66: /* ld_h_xiy */
+			R.HL = (R.HL & 0xFF) | (M_RD_XIY() << 8);
+			break;
+		case 0x67: /* ld_iyh_a */
+			R.IY = (R.IY & 0xFF) | (R.A << 8);
+			break;
+		case 0x6E: /* ld_l_xiy */
+			R.HL = (R.HL & 0xFF00) | M_RD_XIY();
+			break;
+		case 0x6F: /* ld_iyl_a */
+			R.IY = (R.IY & 0xFF00) | R.A;
+			break;
+		case 0x70: /* ld_xiy_b */
+			M_WR_XIY(R.BC >> 8);
+			break;
+		case 0x71: /* ld_xiy_c */
+			M_WR_XIY(R.BC & 0xFF);
+			break;
+		case 0x72: /* ld_xiy_d */
+			M_WR_XIY(R.DE >> 8);
+			break;
+		case 0x73: /* ld_xiy_e */
+			M_WR_XIY(R.DE & 0xFF);
+			break;
+		case 0x74: /* ld_xiy_h */
+			M_WR_XIY(R.HL >> 8);
+			break;
+		case 0x75: /* ld_xiy_l */
+			M_WR_XIY(R.HL & 0xFF);
+			break;
+		case 0x77: /* ld_xiy_a */
+			M_WR_XIY(R.A);
+			break;
+		case 0x7C: /* ld_a_iyh */
+			R.A = (R.IY >> 8);
+			break;
+		case 0x7D: /* ld_a_iyl */
+			R.A = (R.IY & 0xFF);
+			break;
+		case 0x7E: /* ld_a_xiy */
+			R.A = M_RD_XIY();
+			break;
+		case 0x84: /* add_a_iyh */
+			M_ADD(R.IY >> 8);
+			break;
+		case 0x86: /* add_a_xiy */
+			{
+				int i = M_RD_XIY();
+				M_ADD(i);
+			}
+			break;
+		case 0x96: /* sub_xiy */
+			{
+				int i = M_RD_XIY();
+				M_SUB(i);
+			}
+			break;
+		case 0xA6: /* and_xiy */
+			{
+				int i = M_RD_XIY();
+				M_AND(i);
+			}
+			break;
+		case 0xAE: /* xor_xiy */
+			{
+				int i = M_RD_XIY();
+				M_XOR(i);
+			}
+			break;
+		case 0xB6: /* or_xiy */
+			{
+				int i = M_RD_XIY();
+				M_OR(i);
+			}
+			break;
+		case 0xBE: /* cp_xiy */
+			{
+				int i = M_RD_XIY();
+				M_CP(i);
+			}
+			break;
+		case 0xCB: /* fd_cb */
+			{
+				int opcode = M_RDOP_ARG((R.PC + 1) & 0xFFFF);
+				iCount -= cycles_xx_cb[opcode];
+				exec_fd_cb(opcode);
+				R.PC = (R.PC + 1) & 0xFFFF;
+			}
+			break;
+		case 0xE1: /* pop_iy */
+			R.IY = M_POP();
+			break;
+		case 0xE3: /* ex_xsp_iy */
+			{
+				int i;
+				i = M_RDMEM_WORD(R.SP);
+				M_WRMEM_WORD(R.SP, R.IY);
+				R.IY = i;
+			}
+			break;
+		case 0xE5: /* push_iy */
+			M_PUSH(R.IY);
+			break;
+		case 0xE9: /* jp_iy */
+			R.PC = R.IY;
+			break;
+		case 0xF9: /* ld_sp_iy */
+			R.SP = R.IY;
+			break;
+		default:
+			unimplemented("fd", op);
 		}
-	};
-
-	private final OpcodeFn no_op_xx = new OpcodeFn() {
-		public void handler() {
-			R.PC = (R.PC + 1) & 0xFFFF;
-		}
-	};
-	private final OpcodeFn[] opcode_dd_cb = { no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, rlc_xix, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, rrc_xix,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, rl_xix, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, rr_xix, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, sla_xix, no_op_xx, null, null, null,
-			null, null, null, null, null, null, null, null, null, null, null,
-			null, null, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, srl_xix, no_op_xx, bit_0_xix, bit_0_xix, bit_0_xix,
-			bit_0_xix, bit_0_xix, bit_0_xix, bit_0_xix, bit_0_xix, bit_1_xix,
-			bit_1_xix, bit_1_xix, bit_1_xix, bit_1_xix, bit_1_xix, bit_1_xix,
-			bit_1_xix, bit_2_xix, bit_2_xix, bit_2_xix, bit_2_xix, bit_2_xix,
-			bit_2_xix, bit_2_xix, bit_2_xix, bit_3_xix, bit_3_xix, bit_3_xix,
-			bit_3_xix, bit_3_xix, bit_3_xix, bit_3_xix, bit_3_xix, bit_4_xix,
-			bit_4_xix, bit_4_xix, bit_4_xix, bit_4_xix, bit_4_xix, bit_4_xix,
-			bit_4_xix, bit_5_xix, bit_5_xix, bit_5_xix, bit_5_xix, bit_5_xix,
-			bit_5_xix, bit_5_xix, bit_5_xix, bit_6_xix, bit_6_xix, bit_6_xix,
-			bit_6_xix, bit_6_xix, bit_6_xix, bit_6_xix, bit_6_xix, bit_7_xix,
-			bit_7_xix, bit_7_xix, bit_7_xix, bit_7_xix, bit_7_xix, bit_7_xix,
-			bit_7_xix, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, res_0_xix, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, res_1_xix, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, res_2_xix,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, res_3_xix, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, res_4_xix, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, res_5_xix,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, res_6_xix, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, res_7_xix, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, set_0_xix,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, set_1_xix, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, set_2_xix, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, set_3_xix,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, set_4_xix, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, set_5_xix, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, set_6_xix,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, set_7_xix, no_op_xx };
-
-	private final OpcodeFn[] opcode_fd_cb = { null, null, null, null, null, null,
-			null, null, null, null, null, null, null, null, null, null,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, rl_xiy,
-			no_op_xx, null, null, null, null, null, null, null, null, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, sla_xiy,
-			no_op_xx, null, null, null, null, null, null, null, null, null,
-			null, null, null, null, null, null, null, null, null, null, null,
-			null, null, null, null, bit_0_xiy, bit_0_xiy, bit_0_xiy, bit_0_xiy,
-			bit_0_xiy, bit_0_xiy, bit_0_xiy, bit_0_xiy, bit_1_xiy, bit_1_xiy,
-			bit_1_xiy, bit_1_xiy, bit_1_xiy, bit_1_xiy, bit_1_xiy, bit_1_xiy,
-			bit_2_xiy, bit_2_xiy, bit_2_xiy, bit_2_xiy, bit_2_xiy, bit_2_xiy,
-			bit_2_xiy, bit_2_xiy, bit_3_xiy, bit_3_xiy, bit_3_xiy, bit_3_xiy,
-			bit_3_xiy, bit_3_xiy, bit_3_xiy, bit_3_xiy, bit_4_xiy, bit_4_xiy,
-			bit_4_xiy, bit_4_xiy, bit_4_xiy, bit_4_xiy, bit_4_xiy, bit_4_xiy,
-			bit_5_xiy, bit_5_xiy, bit_5_xiy, bit_5_xiy, bit_5_xiy, bit_5_xiy,
-			bit_5_xiy, bit_5_xiy, bit_6_xiy, bit_6_xiy, bit_6_xiy, bit_6_xiy,
-			bit_6_xiy, bit_6_xiy, bit_6_xiy, bit_6_xiy, bit_7_xiy, bit_7_xiy,
-			bit_7_xiy, bit_7_xiy, bit_7_xiy, bit_7_xiy, bit_7_xiy, bit_7_xiy,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			res_0_xiy, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, res_1_xiy, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, res_2_xiy, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			res_3_xiy, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, res_4_xiy, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, res_5_xiy, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			res_6_xiy, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, res_7_xiy, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, set_0_xiy, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			set_1_xiy, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, set_2_xiy, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, set_3_xiy, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			set_4_xiy, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, set_5_xiy, no_op_xx, no_op_xx, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, set_6_xiy, no_op_xx,
-			no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx, no_op_xx,
-			set_7_xiy, no_op_xx };
-
-	private final OpcodeFn dd_cb = new OpcodeFn() {
-		public void handler() {
-			int opcode = M_RDOP_ARG((R.PC + 1) & 0xFFFF);
-			iCount -= cycles_xx_cb[opcode];
-			opcode_dd_cb[opcode].handler();
-			R.PC = (R.PC + 1) & 0xFFFF;
-		}
-	};
-	private final OpcodeFn fd_cb = new OpcodeFn() {
-		public void handler() {
-
-			int opcode = M_RDOP_ARG((R.PC + 1) & 0xFFFF);
-			iCount -= cycles_xx_cb[opcode];
-			opcode_fd_cb[opcode].handler();
-			R.PC = (R.PC + 1) & 0xFFFF;
-		}
-	};
-
-	private final OpcodeFn[] opcode_cb = { rlc_b, rlc_c, rlc_d, rlc_e, rlc_h, rlc_l,
-			rlc_xhl, rlc_a, rrc_b, rrc_c, rrc_d, rrc_e, rrc_h, rrc_l, rrc_xhl,
-			rrc_a, rl_b, rl_c, rl_d, rl_e, rl_h, rl_l, rl_xhl, rl_a, rr_b,
-			rr_c, rr_d, rr_e, rr_h, rr_l, rr_xhl, rr_a, sla_b, sla_c, sla_d,
-			sla_e, sla_h, sla_l, sla_xhl, sla_a, sra_b, sra_c, sra_d, sra_e,
-			sra_h, sra_l, null, sra_a, null, null, null, null, null, null,
-			null, null, srl_b, srl_c, srl_d, srl_e, srl_h, srl_l, null, srl_a,
-			bit_0_b, bit_0_c, bit_0_d, bit_0_e, bit_0_h, bit_0_l, bit_0_xhl,
-			bit_0_a, bit_1_b, bit_1_c, bit_1_d, bit_1_e, bit_1_h, bit_1_l,
-			bit_1_xhl, bit_1_a, bit_2_b, bit_2_c, bit_2_d, bit_2_e, bit_2_h,
-			bit_2_l, bit_2_xhl, bit_2_a, bit_3_b, bit_3_c, bit_3_d, bit_3_e,
-			bit_3_h, bit_3_l, bit_3_xhl, bit_3_a, bit_4_b, bit_4_c, bit_4_d,
-			bit_4_e, bit_4_h, bit_4_l, bit_4_xhl, bit_4_a, bit_5_b, bit_5_c,
-			bit_5_d, bit_5_e, bit_5_h, bit_5_l, bit_5_xhl, bit_5_a, bit_6_b,
-			bit_6_c, bit_6_d, bit_6_e, bit_6_h, bit_6_l, bit_6_xhl, bit_6_a,
-			bit_7_b, bit_7_c, bit_7_d, bit_7_e, bit_7_h, bit_7_l, bit_7_xhl,
-			bit_7_a, res_0_b, res_0_c, res_0_d, res_0_e, res_0_h, res_0_l,
-			res_0_xhl, res_0_a, res_1_b, res_1_c, res_1_d, res_1_e, res_1_h,
-			res_1_l, res_1_xhl, res_1_a, res_2_b, res_2_c, res_2_d, res_2_e,
-			res_2_h, res_2_l, res_2_xhl, res_2_a, res_3_b, res_3_c, res_3_d,
-			res_3_e, res_3_h, res_3_l, res_3_xhl, res_3_a, res_4_b, res_4_c,
-			res_4_d, res_4_e, res_4_h, res_4_l, res_4_xhl, res_4_a, res_5_b,
-			res_5_c, res_5_d, res_5_e, res_5_h, res_5_l, res_5_xhl, res_5_a,
-			res_6_b, res_6_c, res_6_d, res_6_e, res_6_h, res_6_l, res_6_xhl,
-			res_6_a, res_7_b, res_7_c, res_7_d, res_7_e, res_7_h, res_7_l,
-			res_7_xhl, res_7_a, set_0_b, set_0_c, set_0_d, set_0_e, set_0_h,
-			set_0_l, set_0_xhl, set_0_a, set_1_b, set_1_c, set_1_d, set_1_e,
-			set_1_h, set_1_l, set_1_xhl, set_1_a, set_2_b, set_2_c, set_2_d,
-			set_2_e, set_2_h, set_2_l, set_2_xhl, set_2_a, set_3_b, set_3_c,
-			set_3_d, set_3_e, set_3_h, set_3_l, set_3_xhl, set_3_a, set_4_b,
-			set_4_c, set_4_d, set_4_e, set_4_h, set_4_l, set_4_xhl, set_4_a,
-			set_5_b, set_5_c, set_5_d, set_5_e, set_5_h, set_5_l, set_5_xhl,
-			set_5_a, set_6_b, set_6_c, set_6_d, set_6_e, set_6_h, set_6_l,
-			set_6_xhl, set_6_a, set_7_b, set_7_c, set_7_d, set_7_e, set_7_h,
-			set_7_l, set_7_xhl, set_7_a };
-
-	private final OpcodeFn[] opcode_dd = { no_op, no_op, no_op, no_op, no_op, no_op,
-			no_op, no_op, no_op, add_ix_bc, no_op, no_op, no_op, no_op, no_op,
-			no_op, no_op, no_op, no_op, no_op, no_op, no_op, no_op, no_op,
-			no_op, add_ix_de, no_op, no_op, no_op, no_op, no_op, no_op, null,
-			ld_ix_word, ld_xword_ix, inc_ix, null, null, ld_ixh_byte, null,
-			no_op, add_ix_ix, ld_ix_xword, dec_ix, inc_ixl, dec_ixl,
-			ld_ixl_byte, no_op, no_op, no_op, no_op, no_op, inc_xix, dec_xix,
-			ld_xix_byte, no_op, no_op, add_ix_sp, no_op, no_op, no_op, no_op,
-			no_op, no_op, null, null, null, null, null, null, ld_b_xix, null,
-			null, null, null, null, ld_c_ixh, null, ld_c_xix, null, null, null,
-			null, null, null, null, ld_d_xix, null, null, null, null, null,
-			null, ld_e_ixl, ld_e_xix, null, ld_ixh_b, ld_ixh_c, ld_ixh_d,
-			ld_ixh_e, null, null, ld_h_xix, ld_ixh_a, null, null, null, null,
-			null, null, ld_l_xix, ld_ixl_a, ld_xix_b, ld_xix_c, ld_xix_d,
-			ld_xix_e, ld_xix_h, ld_xix_l, no_op, ld_xix_a, no_op, no_op, no_op,
-			no_op, ld_a_ixh, ld_a_ixl, ld_a_xix, no_op, no_op, no_op, no_op,
-			no_op, add_a_ixh, add_a_ixl, add_a_xix, no_op, null, null, null,
-			null, null, null, adc_a_xix, null, no_op, no_op, no_op, no_op,
-			sub_ixh, sub_ixl, sub_xix, no_op, null, null, null, null, null,
-			null, sbc_a_xix, null, null, null, null, null, null, null, and_xix,
-			null, null, null, null, null, xor_ixh, null, xor_xix, null, null,
-			null, null, null, null, null, or_xix, null, null, null, null, null,
-			null, null, cp_xix, null, no_op, no_op, no_op, no_op, no_op, no_op,
-			no_op, no_op, no_op, no_op, no_op, dd_cb, no_op, no_op, no_op,
-			no_op, no_op, no_op, no_op, no_op, no_op, no_op, no_op, no_op,
-			no_op, no_op, no_op, no_op, no_op, no_op, no_op, no_op, no_op,
-			pop_ix, no_op, ex_xsp_ix, no_op, push_ix, no_op, no_op, no_op,
-			jp_ix, no_op, no_op, no_op, no_op, no_op, no_op, no_op, no_op,
-			no_op, no_op, no_op, no_op, no_op, no_op, null, null, null, null,
-			null, no_op, no_op, null };
-
-	private final OpcodeFn[] opcode_ed = { nop, nop, nop, nop, nop, nop, nop, nop,
-			nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop,
-			nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop,
-			nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop,
-			nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop,
-			nop, nop, nop, nop, in_b_c, out_c_b, sbc_hl_bc, ld_xword_bc, neg,
-			retn, im_0, ld_i_a, in_c_c, null, adc_hl_bc, ld_bc_xword, neg,
-			reti, im_0, ld_r_a, null, out_c_d, sbc_hl_de, ld_xword_de, neg,
-			retn, im_1, ld_a_i, in_e_c, out_c_e, adc_hl_de, ld_de_xword, neg,
-			reti, im_2, ld_a_r, null, out_c_h, null, null, neg, retn, im_0,
-			rrd, in_l_c, out_c_l, adc_hl_hl, null, neg, reti, im_0, rld, null,
-			null, null, ld_xword_sp, neg, retn, im_1, null, in_a_c, out_c_a,
-			null, ld_sp_xword, neg, reti, im_2, null, nop, nop, nop, nop, nop,
-			nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop,
-			nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop,
-			nop, ldi, cpi, null, outi, null, null, null, null, ldd, null, null,
-			null, null, null, null, null, ldir, cpir, null, otir, null, null,
-			null, null, lddr, cpdr, null, null, null, null, null, null, nop,
-			nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop,
-			nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop,
-			nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop,
-			nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop, nop,
-			nop, nop, nop, null, null, null, null, null, null, null, null };
-
-	private final OpcodeFn[] opcode_fd = { no_op, no_op, no_op, no_op, no_op, no_op,
-			no_op, no_op, no_op, add_iy_bc, no_op, no_op, no_op, no_op, no_op,
-			no_op, no_op, no_op, no_op, no_op, no_op, no_op, no_op, no_op,
-			no_op, add_iy_de, no_op, no_op, no_op, no_op, no_op, no_op, null,
-			ld_iy_word, ld_xword_iy, inc_iy, null, dec_iyh, ld_iyh_byte, null,
-			null, null, ld_iy_xword, dec_iy, null, dec_iyl, ld_iyl_byte, null,
-			no_op, no_op, no_op, no_op, inc_xiy, dec_xiy, ld_xiy_byte, no_op,
-			no_op, add_iy_sp, no_op, no_op, no_op, no_op, no_op, no_op, null,
-			null, null, null, null, null, ld_b_xiy, null, null, null, null,
-			null, null, null, ld_c_xiy, null, null, null, null, null, ld_d_iyh,
-			null, ld_d_xiy, null, null, null, no_op, null, null, ld_e_iyl,
-			ld_e_xiy, null, null, null, null, null, null, null, ld_h_xiy,
-			ld_iyh_a, null, null, null, null, null, null, ld_l_xiy, ld_iyl_a,
-			ld_xiy_b, ld_xiy_c, ld_xiy_d, ld_xiy_e, ld_xiy_h, ld_xiy_l, no_op,
-			ld_xiy_a, null, null, null, null, ld_a_iyh, ld_a_iyl, ld_a_xiy,
-			null, null, null, null, null, add_a_iyh, null, add_a_xiy, null,
-			null, null, null, null, null, null, null, null, null, null, null,
-			null, null, null, sub_xiy, null, null, null, null, null, null,
-			null, null, null, null, null, null, null, null, null, and_xiy,
-			null, null, null, null, null, null, null, xor_xiy, null, null,
-			null, null, null, null, null, or_xiy, null, null, null, null, null,
-			null, null, cp_xiy, null, no_op, no_op, no_op, no_op, no_op, no_op,
-			no_op, no_op, no_op, no_op, no_op, fd_cb, no_op, no_op, no_op,
-			no_op, no_op, no_op, no_op, no_op, no_op, no_op, no_op, no_op,
-			no_op, no_op, no_op, no_op, no_op, no_op, no_op, no_op, no_op,
-			pop_iy, no_op, ex_xsp_iy, no_op, push_iy, no_op, no_op, no_op,
-			jp_iy, no_op, no_op, no_op, no_op, no_op, no_op, no_op, no_op,
-			no_op, no_op, no_op, no_op, no_op, no_op, no_op, ld_sp_iy, no_op,
-			no_op, no_op, no_op, no_op, no_op };
-
-	private final OpcodeFn cb = new OpcodeFn() {
-		public void handler() {
-			R.R += 1;
-			int opcode = M_RDOP(R.PC);
-			R.PC = (R.PC + 1) & 0xFFFF;
-			iCount -= cycles_cb[opcode];
-			opcode_cb[opcode].handler();
-		}
-	};
-
-	private final OpcodeFn dd = new OpcodeFn() {
-		public void handler() {
-
-			R.R += 1;
-			int opcode = M_RDOP(R.PC);
-			R.PC = (R.PC + 1) & 0xFFFF;
-			iCount -= cycles_xx[opcode];
-			opcode_dd[opcode].handler();
-		}
-	};
-	private final OpcodeFn ed = new OpcodeFn() {
-		public void handler() {
+	}
 
-			R.R += 1;
-			int opcode = M_RDOP(R.PC);
+	private void exec_dd_cb(int op) {
+		switch (op) {
+		case 0x00: case 0x01: case 0x02: case 0x03: case 0x04: case 0x05:
+		case 0x07: case 0x08: case 0x09: case 0x0A: case 0x0B: case 0x0C:
+		case 0x0D: case 0x0F: case 0x10: case 0x11: case 0x12: case 0x13:
+		case 0x14: case 0x15: case 0x17: case 0x18: case 0x19: case 0x1A:
+		case 0x1B: case 0x1C: case 0x1D: case 0x1F: case 0x20: case 0x21:
+		case 0x22: case 0x23: case 0x24: case 0x25: case 0x27: case 0x38:
+		case 0x39: case 0x3A: case 0x3B: case 0x3C: case 0x3D: case 0x3F:
+		case 0x80: case 0x81: case 0x82: case 0x83: case 0x84: case 0x85:
+		case 0x87: case 0x88: case 0x89: case 0x8A: case 0x8B: case 0x8C:
+		case 0x8D: case 0x8F: case 0x90: case 0x91: case 0x92: case 0x93:
+		case 0x94: case 0x95: case 0x97: case 0x98: case 0x99: case 0x9A:
+		case 0x9B: case 0x9C: case 0x9D: case 0x9F: case 0xA0: case 0xA1:
+		case 0xA2: case 0xA3: case 0xA4: case 0xA5: case 0xA7: case 0xA8:
+		case 0xA9: case 0xAA: case 0xAB: case 0xAC: case 0xAD: case 0xAF:
+		case 0xB0: case 0xB1: case 0xB2: case 0xB3: case 0xB4: case 0xB5:
+		case 0xB7: case 0xB8: case 0xB9: case 0xBA: case 0xBB: case 0xBC:
+		case 0xBD: case 0xBF: case 0xC0: case 0xC1: case 0xC2: case 0xC3:
+		case 0xC4: case 0xC5: case 0xC7: case 0xC8: case 0xC9: case 0xCA:
+		case 0xCB: case 0xCC: case 0xCD: case 0xCF: case 0xD0: case 0xD1:
+		case 0xD2: case 0xD3: case 0xD4: case 0xD5: case 0xD7: case 0xD8:
+		case 0xD9: case 0xDA: case 0xDB: case 0xDC: case 0xDD: case 0xDF:
+		case 0xE0: case 0xE1: case 0xE2: case 0xE3: case 0xE4: case 0xE5:
+		case 0xE7: case 0xE8: case 0xE9: case 0xEA: case 0xEB: case 0xEC:
+		case 0xED: case 0xEF: case 0xF0: case 0xF1: case 0xF2: case 0xF3:
+		case 0xF4: case 0xF5: case 0xF7: case 0xF8: case 0xF9: case 0xFA:
+		case 0xFB: case 0xFC: case 0xFD: case 0xFF: /* no_op_xx */
 			R.PC = (R.PC + 1) & 0xFFFF;
-			iCount -= cycles_ed[opcode];
-			opcode_ed[opcode].handler();
+			break;
+		case 0x06: /* rlc_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_RLC(i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0x0E: /* rrc_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_RRC(i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0x16: /* rl_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_RL(i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0x1E: /* rr_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_RR(i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0x26: /* sla_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_SLA(i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0x3E: /* srl_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_SRL(i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0x40: case 0x41: case 0x42: case 0x43: case 0x44: case 0x45:
+		case 0x46: case 0x47: /* bit_0_xix */
+			{
+				int i = M_RD_XIX();
+				M_BIT(0, i);
+			}
+			break;
+		case 0x48: case 0x49: case 0x4A: case 0x4B: case 0x4C: case 0x4D:
+		case 0x4E: case 0x4F: /* bit_1_xix */
+			{
+				int i = M_RD_XIX();
+				M_BIT(1, i);
+			}
+			break;
+		case 0x50: case 0x51: case 0x52: case 0x53: case 0x54: case 0x55:
+		case 0x56: case 0x57: /* bit_2_xix */
+			{
+				int i = M_RD_XIX();
+				M_BIT(2, i);
+			}
+			break;
+		case 0x58: case 0x59: case 0x5A: case 0x5B: case 0x5C: case 0x5D:
+		case 0x5E: case 0x5F: /* bit_3_xix */
+			{
+				int i = M_RD_XIX();
+				M_BIT(3, i);
+			}
+			break;
+		case 0x60: case 0x61: case 0x62: case 0x63: case 0x64: case 0x65:
+		case 0x66: case 0x67: /* bit_4_xix */
+			{
+				int i = M_RD_XIX();
+				M_BIT(4, i);
+			}
+			break;
+		case 0x68: case 0x69: case 0x6A: case 0x6B: case 0x6C: case 0x6D:
+		case 0x6E: case 0x6F: /* bit_5_xix */
+			{
+				int i = M_RD_XIX();
+				M_BIT(5, i);
+			}
+			break;
+		case 0x70: case 0x71: case 0x72: case 0x73: case 0x74: case 0x75:
+		case 0x76: case 0x77: /* bit_6_xix */
+			{
+				int i = M_RD_XIX();
+				M_BIT(6, i);
+			}
+			break;
+		case 0x78: case 0x79: case 0x7A: case 0x7B: case 0x7C: case 0x7D:
+		case 0x7E: case 0x7F: /* bit_7_xix */
+			{
+				int i = M_RD_XIX();
+				M_BIT(7, i);
+			}
+			break;
+		case 0x86: /* res_0_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_RES(0, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0x8E: /* res_1_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_RES(1, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0x96: /* res_2_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_RES(2, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0x9E: /* res_3_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_RES(3, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xA6: /* res_4_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_RES(4, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xAE: /* res_5_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_RES(5, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xB6: /* res_6_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_RES(6, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xBE: /* res_7_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_RES(7, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xC6: /* set_0_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_SET(0, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xCE: /* set_1_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_SET(1, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xD6: /* set_2_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_SET(2, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xDE: /* set_3_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_SET(3, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xE6: /* set_4_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_SET(4, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xEE: /* set_5_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_SET(5, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xF6: /* set_6_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_SET(6, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xFE: /* set_7_xix */
+			{
+				int i;
+				int j;
+				j = M_XIX();
+				i = M_RDMEM(j);
+				i = M_SET(7, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		default:
+			unimplemented("dd_cb", op);
 		}
-	};
-	private final OpcodeFn fd = new OpcodeFn() {
-		public void handler() {
+	}
 
-			R.R += 1;
-			int opcode = M_RDOP(R.PC);
+	private void exec_fd_cb(int op) {
+		switch (op) {
+		case 0x10: case 0x11: case 0x12: case 0x13: case 0x14: case 0x15:
+		case 0x17: case 0x20: case 0x21: case 0x22: case 0x23: case 0x24:
+		case 0x25: case 0x27: case 0x80: case 0x81: case 0x82: case 0x83:
+		case 0x84: case 0x85: case 0x87: case 0x88: case 0x89: case 0x8A:
+		case 0x8B: case 0x8C: case 0x8D: case 0x8F: case 0x90: case 0x91:
+		case 0x92: case 0x93: case 0x94: case 0x95: case 0x97: case 0x98:
+		case 0x99: case 0x9A: case 0x9B: case 0x9C: case 0x9D: case 0x9F:
+		case 0xA0: case 0xA1: case 0xA2: case 0xA3: case 0xA4: case 0xA5:
+		case 0xA7: case 0xA8: case 0xA9: case 0xAA: case 0xAB: case 0xAC:
+		case 0xAD: case 0xAF: case 0xB0: case 0xB1: case 0xB2: case 0xB3:
+		case 0xB4: case 0xB5: case 0xB7: case 0xB8: case 0xB9: case 0xBA:
+		case 0xBB: case 0xBC: case 0xBD: case 0xBF: case 0xC0: case 0xC1:
+		case 0xC2: case 0xC3: case 0xC4: case 0xC5: case 0xC7: case 0xC8:
+		case 0xC9: case 0xCA: case 0xCB: case 0xCC: case 0xCD: case 0xCF:
+		case 0xD0: case 0xD1: case 0xD2: case 0xD3: case 0xD4: case 0xD5:
+		case 0xD7: case 0xD8: case 0xD9: case 0xDA: case 0xDB: case 0xDC:
+		case 0xDD: case 0xDF: case 0xE0: case 0xE1: case 0xE2: case 0xE3:
+		case 0xE4: case 0xE5: case 0xE7: case 0xE8: case 0xE9: case 0xEA:
+		case 0xEB: case 0xEC: case 0xED: case 0xEF: case 0xF0: case 0xF1:
+		case 0xF2: case 0xF3: case 0xF4: case 0xF5: case 0xF7: case 0xF8:
+		case 0xF9: case 0xFA: case 0xFB: case 0xFC: case 0xFD: case 0xFF: /* no_op_xx */
 			R.PC = (R.PC + 1) & 0xFFFF;
-			iCount -= cycles_xx[opcode];
-			opcode_fd[opcode].handler();
-		}
-	};
-	private final OpcodeFn ei = new OpcodeFn() {
-		public void handler() {
-			int opcode;
-			/*
-			 * If interrupts were disabled, execute one more instruction and
-			 * check the IRQ line. If not, simply set interrupt flip/flop 2
-			 * */
-			if (R.IFF1 == 0) {
-				R.IFF1 = R.IFF2 = 1;
-				R.R += 1;
-				opcode = M_RDOP(R.PC);
-				R.PC = (R.PC + 1) & 0xFFFF;
-				iCount -= cycles_main[opcode];
-				opcode_main[opcode].handler();
-				interrupt();
-			} else
-				R.IFF2 = 1;
+			break;
+		case 0x16: /* rl_xiy */
+			{
+				int i;
+				int j;
+				j = M_XIY();
+				i = M_RDMEM(j);
+				i = M_RL(i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0x26: /* sla_xiy */
+			{
+				int i;
+				int j;
+				j = M_XIY();
+				i = M_RDMEM(j);
+				i = M_SLA(i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0x40: case 0x41: case 0x42: case 0x43: case 0x44: case 0x45:
+		case 0x46: case 0x47: /* bit_0_xiy */
+			{
+				int i = M_RD_XIY();
+				M_BIT(0, i);
+			}
+			break;
+		case 0x48: case 0x49: case 0x4A: case 0x4B: case 0x4C: case 0x4D:
+		case 0x4E: case 0x4F: /* bit_1_xiy */
+			{
+				int i = M_RD_XIY();
+				M_BIT(1, i);
+			}
+			break;
+		case 0x50: case 0x51: case 0x52: case 0x53: case 0x54: case 0x55:
+		case 0x56: case 0x57: /* bit_2_xiy */
+			{
+				int i = M_RD_XIY();
+				M_BIT(2, i);
+			}
+			break;
+		case 0x58: case 0x59: case 0x5A: case 0x5B: case 0x5C: case 0x5D:
+		case 0x5E: case 0x5F: /* bit_3_xiy */
+			{
+				int i = M_RD_XIY();
+				M_BIT(3, i);
+			}
+			break;
+		case 0x60: case 0x61: case 0x62: case 0x63: case 0x64: case 0x65:
+		case 0x66: case 0x67: /* bit_4_xiy */
+			{
+				int i = M_RD_XIY();
+				M_BIT(4, i);
+			}
+			break;
+		case 0x68: case 0x69: case 0x6A: case 0x6B: case 0x6C: case 0x6D:
+		case 0x6E: case 0x6F: /* bit_5_xiy */
+			{
+				int i = M_RD_XIY();
+				M_BIT(5, i);
+			}
+			break;
+		case 0x70: case 0x71: case 0x72: case 0x73: case 0x74: case 0x75:
+		case 0x76: case 0x77: /* bit_6_xiy */
+			{
+				int i = M_RD_XIY();
+				M_BIT(6, i);
+			}
+			break;
+		case 0x78: case 0x79: case 0x7A: case 0x7B: case 0x7C: case 0x7D:
+		case 0x7E: case 0x7F: /* bit_7_xiy */
+			{
+				int i = M_RD_XIY();
+				M_BIT(7, i);
+			}
+			break;
+		case 0x86: /* res_0_xiy */
+			{
+				int i;
+				int j;
+				j = M_XIY();
+				i = M_RDMEM(j);
+				i = M_RES(0, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0x8E: /* res_1_xiy */
+			{
+				int i;
+				int j;
+				j = M_XIY();
+				i = M_RDMEM(j);
+				i = M_RES(1, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0x96: /* res_2_xiy */
+			{
+				int j = M_XIY();
+				int i = M_RDMEM(j);
+				i = M_RES(2, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0x9E: /* res_3_xiy */
+			{
+				int j = M_XIY();
+				int i = M_RDMEM(j);
+				i = M_RES(3, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xA6: /* res_4_xiy */
+			{
+				int i;
+				int j;
+				j = M_XIY();
+				i = M_RDMEM(j);
+				i = M_RES(4, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xAE: /* res_5_xiy */
+			{
+				int i;
+				int j;
+				j = M_XIY();
+				i = M_RDMEM(j);
+				i = M_RES(5, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xB6: /* res_6_xiy */
+			{
+				int i;
+				int j;
+				j = M_XIY();
+				i = M_RDMEM(j);
+				i = M_RES(6, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xBE: /* res_7_xiy */
+			{
+				int i;
+				int j;
+				j = M_XIY();
+				i = M_RDMEM(j);
+				i = M_RES(7, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xC6: /* set_0_xiy */
+			{
+				int i;
+				int j;
+				j = M_XIY();
+				i = M_RDMEM(j);
+				i = M_SET(0, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xCE: /* set_1_xiy */
+			{
+				int i;
+				int j;
+				j = M_XIY();
+				i = M_RDMEM(j);
+				i = M_SET(1, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xD6: /* set_2_xiy */
+			{
+				int i;
+				int j;
+				j = M_XIY();
+				i = M_RDMEM(j);
+				i = M_SET(2, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xDE: /* set_3_xiy */
+			{
+				int i;
+				int j;
+				j = M_XIY();
+				i = M_RDMEM(j);
+				i = M_SET(3, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xE6: /* set_4_xiy */
+			{
+				int i;
+				int j;
+				j = M_XIY();
+				i = M_RDMEM(j);
+				i = M_SET(4, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xEE: /* set_5_xiy */
+			{
+				int i;
+				int j;
+				j = M_XIY();
+				i = M_RDMEM(j);
+				i = M_SET(5, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xF6: /* set_6_xiy */
+			{
+				int i;
+				int j;
+				j = M_XIY();
+				i = M_RDMEM(j);
+				i = M_SET(6, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		case 0xFE: /* set_7_xiy */
+			{
+				int i;
+				int j;
+				j = M_XIY();
+				i = M_RDMEM(j);
+				i = M_SET(7, i);
+				M_WRMEM(j, i);
+			}
+			break;
+		default:
+			unimplemented("fd_cb", op);
 		}
-	};
+	}
 
-	private final OpcodeFn[] opcode_main = { nop, ld_bc_word, ld_xbc_a, inc_bc,
-			inc_b, dec_b, ld_b_byte, rlca, ex_af_af, add_hl_bc, ld_a_xbc,
-			dec_bc, inc_c, dec_c, ld_c_byte, rrca, djnz, ld_de_word, ld_xde_a,
-			inc_de, inc_d, dec_d, ld_d_byte, rla, jr, add_hl_de, ld_a_xde,
-			dec_de, inc_e, dec_e, ld_e_byte, rra, jr_nz, ld_hl_word,
-			ld_xword_hl, inc_hl, inc_h, dec_h, ld_h_byte, daa, jr_z, add_hl_hl,
-			ld_hl_xword, dec_hl, inc_l, dec_l, ld_l_byte, cpl, jr_nc,
-			ld_sp_word, ld_xbyte_a, inc_sp, inc_xhl, dec_xhl, ld_xhl_byte, scf,
-			jr_c, add_hl_sp, ld_a_xbyte, dec_sp, inc_a, dec_a, ld_a_byte, ccf,
-			ld_b_b, ld_b_c, ld_b_d, ld_b_e, ld_b_h, ld_b_l, ld_b_xhl, ld_b_a,
-			ld_c_b, ld_c_c, ld_c_d, ld_c_e, ld_c_h, ld_c_l, ld_c_xhl, ld_c_a,
-			ld_d_b, ld_d_c, ld_d_d, ld_d_e, ld_d_h, ld_d_l, ld_d_xhl, ld_d_a,
-			ld_e_b, ld_e_c, ld_e_d, ld_e_e, ld_e_h, ld_e_l, ld_e_xhl, ld_e_a,
-			ld_h_b, ld_h_c, ld_h_d, ld_h_e, ld_h_h, ld_h_l, ld_h_xhl, ld_h_a,
-			ld_l_b, ld_l_c, ld_l_d, ld_l_e, ld_l_h, ld_l_l, ld_l_xhl, ld_l_a,
-			ld_xhl_b, ld_xhl_c, ld_xhl_d, ld_xhl_e, ld_xhl_h, ld_xhl_l, halt,
-			ld_xhl_a, ld_a_b, ld_a_c, ld_a_d, ld_a_e, ld_a_h, ld_a_l, ld_a_xhl,
-			ld_a_a, add_a_b, add_a_c, add_a_d, add_a_e, add_a_h, add_a_l,
-			add_a_xhl, add_a_a, adc_a_b, adc_a_c, adc_a_d, adc_a_e, adc_a_h,
-			adc_a_l, adc_a_xhl, adc_a_a, sub_b, sub_c, sub_d, sub_e, sub_h,
-			sub_l, sub_xhl, sub_a, sbc_a_b, sbc_a_c, sbc_a_d, sbc_a_e, sbc_a_h,
-			sbc_a_l, sbc_a_xhl, sbc_a_a, and_b, and_c, and_d, and_e, and_h,
-			and_l, and_xhl, and_a, xor_b, xor_c, xor_d, xor_e, xor_h, xor_l,
-			xor_xhl, xor_a, or_b, or_c, or_d, or_e, or_h, or_l, or_xhl, or_a,
-			cp_b, cp_c, cp_d, cp_e, cp_h, cp_l, cp_xhl, cp_a, ret_nz, pop_bc,
-			jp_nz, jp, call_nz, push_bc, add_a_byte, rst_00, ret_z, ret, jp_z,
-			cb, call_z, call, adc_a_byte, rst_08, ret_nc, pop_de, jp_nc,
-			out_byte_a, call_nc, push_de, sub_byte, rst_10, ret_c, exx, jp_c,
-			in_a_byte, call_c, dd, sbc_a_byte, rst_18, ret_po, pop_hl, jp_po,
-			ex_xsp_hl, null, push_hl, and_byte, rst_20, ret_pe, jp_hl, jp_pe,
-			ex_de_hl, null, ed, xor_byte, rst_28, ret_p, pop_af, jp_p, di,
-			call_p, push_af, or_byte, rst_30, ret_m, ld_sp_hl, jp_m, ei,
-			call_m, fd, cp_byte, rst_38 };
+	private void unimplemented(String table, int opcode) {
+		throw new IllegalStateException(String.format(
+				"Z80: unimplemented %s opcode %02X at PC:%04X", table, opcode, R.PC));
+	}
 
 	// ----------------------------------------------------------------------------------------
 
@@ -4,6 +4,9 @@ package emulator.cpu.z80;
 /*
  * The Z80 registers. HALT is set to 1 when the CPU is halted, the refresh
  * register is calculated as follows: refresh=(Regs.R&127)|(Regs.R2&128)
+ *
+ * BC, DE, HL, IX and IY are held as 16 bit values; the high and low bytes
+ * are (BC >> 8) and (BC & 0xFF).
  */
 public class Z80Regs {
 
@@ -11,12 +14,37 @@ public class Z80Regs {
 	public int IFF1, IFF2, HALT, IM, I, R, R2;
 	public int AF, PC, SP;
 	public int A, F;
-	public Z80Pair BC = new Z80Pair();
-	public Z80Pair DE = new Z80Pair();
-	public Z80Pair HL = new Z80Pair();
-	public Z80Pair IX = new Z80Pair();
-	public Z80Pair IY = new Z80Pair();
+	public int BC, DE, HL, IX, IY;
 	public int pending_irq = 0;
 	public int pending_nmi;
 
+	/*
+	 * Copy every register from regs, so a snapshot can be saved or restored
+	 * without allocating.
+	 */
+	public void set(Z80Regs regs) {
+		AF = regs.AF;
+		PC = regs.PC;
+		SP = regs.SP;
+		A = regs.A;
+		F = regs.F;
+		BC = regs.BC;
+		DE = regs.DE;
+		HL = regs.HL;
+		IX = regs.IX;
+		IY = regs.IY;
+		AF2 = regs.AF2;
+		BC2 = regs.BC2;
+		DE2 = regs.DE2;
+		HL2 = regs.HL2;
+		IFF1 = regs.IFF1;
+		IFF2 = regs.IFF2;
+		HALT = regs.HALT;
+		IM = regs.IM;
+		I = regs.I;
+		R = regs.R;
+		R2 = regs.R2;
+		pending_irq = regs.pending_irq;
+		pending_nmi = regs.pending_nmi;
+	}
 }
@@ -3,12 +3,14 @@ package emulator.games;
 import static emulator.arcadeflex.RomModuleMacros.ROM_END;
 import static emulator.arcadeflex.RomModuleMacros.ROM_LOAD;
 import static emulator.arcadeflex.RomModuleMacros.ROM_REGION;
+
+import java.nio.ByteBuffer;
+
 import emulator.arcadeflex.FileStuff;
 import emulator.arcadeflex.RomModuleMacros;
 import emulator.memory.CharPtr;
 import emulator.memory.MemoryMappedIO;
 import emulator.memory.Pointers.RomLoadPtr;
-import emulator.video.GenericVideo;
 import emulator.video.GfxDecodeInfo;
 import emulator.video.GfxLayout;
 import emulator.video.Pengo;
@@ -23,13 +25,18 @@ public class Pacman {
 	private final CharPtr[] spriteram;
 	private final char[][] memoryRegions;
 
+	/*
+	 * The ROM regions as loaded from disk, shared by every instance. Never
+	 * written to: each instance copies the code region to make its memory.
+	 */
+	private static char[][] romImage;
+
 	public Pacman() {
 
-		romLoader.handler();
-		memoryRegions = FileStuff.readroms(
-				RomModuleMacros.rommodule_macro, "roms/mspacman", 2);
+		char[][] image = getRomImage();
+		RAM = image[0].clone();
+		memoryRegions = new char[][]{ RAM, image[1] };
 
-		RAM = memoryRegions[0];
 		videoram  = new CharPtr(RAM, 0x4000);
 		colourram = new CharPtr(RAM, 0x4400);
 		spriteram = new CharPtr[]{ new CharPtr(RAM, 0x4ff0), new CharPtr(RAM, 0x5060) };
@@ -42,13 +49,26 @@ public class Pacman {
 	}
 
 
-	private final GfxLayout charLayout = new GfxLayout(
+	private static synchronized char[][] getRomImage() {
+		if(romImage == null) {
+			romLoader.handler();
+			ByteBuffer[] regions = FileStuff.maproms(
+					RomModuleMacros.rommodule_macro, "roms/mspacman", 2);
+			if(regions == null) {
+				throw new IllegalStateException("Unable to load the ROMs in roms/mspacman");
+			}
+			romImage = new char[][]{ FileStuff.tochars(regions[0]), FileStuff.tochars(regions[1]) };
+		}
+		return romImage;
+	}
+
+	private static final GfxLayout charLayout = new GfxLayout(
 			8, 8, 256, 2,
 			new int[] {0, 4 }, 
 			new int[] { 56, 48, 40, 32, 24, 16, 8, 0 },
 			new int[] { 64, 65, 66, 67,  0,  1, 2, 3 }, 128);
 
-	private final GfxLayout spriteLayout = new GfxLayout(
+	private static final GfxLayout spriteLayout = new GfxLayout(
 			16, 16, 64, 2,
 			new int[] { 0, 4 }, /*
 								 * the two bitplanes for 4 pixels are packed
@@ -60,13 +80,13 @@ public class Pacman {
 						192, 193, 194, 195,   0,   1,   2,   3 }, 
 			512);
 
-	private final GfxDecodeInfo[] gfxDecodeInfo = {
+	private static final GfxDecodeInfo[] gfxDecodeInfo = {
 			new GfxDecodeInfo(1, 0x0000, charLayout, 0, 32),
 			new GfxDecodeInfo(1, 0x1000, spriteLayout, 0, 32),
 			new GfxDecodeInfo(-1) /* end of array */
 	};
 
-	private final char[] colourData = {
+	private static final char[] colourData = {
 			/* palette */
 			0x00, 0x07, 0x66, 0xEF,
 			0x00, 0xF8, 0xEA, 0x6F,
@@ -94,7 +114,7 @@ public class Pacman {
 	 * Game driver
 	 ***************************************************************************/
 
-	private final RomLoadPtr romLoader = new RomLoadPtr() {
+	private static final RomLoadPtr romLoader = new RomLoadPtr() {
 
 		public void handler() {
 			ROM_REGION(0x10000); /* 64k for code */
@@ -123,11 +143,27 @@ public class Pacman {
 		return 60;
 	}
 
-	public GenericVideo getVideo() {
+	/*
+	 * Start of the main loop's wait for the VBLANK interrupt to queue a task:
+	 * 238d LD HL,(4c82) / LD A,(HL) / AND A / JP M,238d
+	 */
+	public int[] getIdleLoops() {
+		return new int[]{ 0x238d };
+	}
+
+	public Pengo getVideo() {
+		return getVideo(false);
+	}
+
+	/*
+	 * A headless video draws into a pixel array, with no Swing panel.
+	 */
+	public Pengo getVideo(boolean headless) {
 		Pengo pengo = new Pengo(28 * 8, 36 * 8, false, 1, new Rectangle(0 * 8,
 				28 * 8 - 1, 0 * 8, 36 * 8 - 1), colourData, 16,
 				gfxDecodeInfo, videoram, new int[]{1024}, colourram,
 				spriteram, new int[]{16,0,0});
+		pengo.setHeadless(headless);
 		pengo.init(memoryRegions);
 		return pengo;
 	}
@@ -0,0 +1,77 @@
+package emulator.machine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import emulator.games.Pacman;
+import emulator.video.CaptureWriter;
+import emulator.video.Pengo;
+import emulator.video.Screen;
+
+/*
+ * A PartMachine that can record what it would have shown: while a capture
+ * is open, every frame is drawn, with no Swing, and written to the capture
+ * file. With no capture open it costs next to nothing over a PartMachine.
+ */
+public class CaptureMachine extends PartMachine {
+
+	private final Pengo video;
+	private CaptureWriter capture;
+
+	public CaptureMachine(Pacman pacman) {
+		super(pacman);
+		video = pacman.getVideo(true);
+		mapWrite(0x4000, 0x43ff, video.videoRamWrite);
+		mapWrite(0x4400, 0x47ff, video.colourRamWrite);
+	}
+
+	@Override
+	public void step() {
+		super.step();
+		if(capture != null) {
+			video.publish();
+			video.screenRefresh();
+			video.updateDisplay();
+			try {
+				capture.write(video.getScreen().getPixels());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/*
+	 * Loading a snapshot bypasses the video's write handlers.
+	 */
+	@Override
+	public void syncToSnapshot(Snapshot snapshot) {
+		super.syncToSnapshot(snapshot);
+		video.markAllDirty();
+	}
+
+	/*
+	 * Write every frame from now on to the file, closing any capture
+	 * already open.
+	 */
+	public void startCapture(File file) throws IOException {
+		stopCapture();
+		Screen screen = video.getScreen();
+		int width = screen.getStride();
+		capture = new CaptureWriter(file, width, screen.getPixels().length / width, fps);
+	}
+
+	public void stopCapture() throws IOException {
+		if(capture != null) {
+			try {
+				capture.close();
+			} finally {
+				capture = null;
+			}
+		}
+	}
+
+	public boolean isCapturing() {
+		return capture != null;
+	}
+}
@@ -1,40 +1,63 @@
 package emulator.machine;
 
 import java.awt.event.KeyListener;
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutput;
-import java.io.ObjectOutputStream;
-import java.io.OutputStream;
+import java.util.concurrent.locks.LockSupport;
 
 import javax.swing.JPanel;
 
 import emulator.games.Pacman;
-import emulator.video.GenericVideo;
+import emulator.video.Pengo;
 
 public class FullMachine extends PartMachine {
 
 	private final Keyboard keyboard;
-	private final GenericVideo video;
+	private final Pengo video;
+	/* one slot per function key */
+	private static final int SNAPSHOT_SLOTS = 12;
+	private SnapshotFile snapshots;
+	/* seconds of play that can be stepped back through */
+	private static final int REWIND_SECONDS = 10;
+	private final RewindBuffer rewind;
+	private final Thread renderer;
 	
 	public FullMachine(Pacman pacman) {
 		super(pacman);
+		/* the AI reads snapshots while the next frame runs */
+		setSnapshotInterval(1);
+		rewind = new RewindBuffer(REWIND_SECONDS, fps);
 		video = pacman.getVideo();
+		/* so the video only redraws the characters that change */
+		mapWrite(0x4000, 0x43ff, video.videoRamWrite);
+		mapWrite(0x4400, 0x47ff, video.colourRamWrite);
 		keyboard = new Keyboard(this);
+		renderer = new Thread(this::render, "Renderer");
+		renderer.setDaemon(true);
+		renderer.start();
 	}
 	
 	@Override
 	public void step() {
 		super.step();
+		rewind.record(getSnapshot());
 		keyboard.poll();
-		video.screenRefresh();
-		video.updateDisplay();
+		video.publish();
+		LockSupport.unpark(renderer);
+	}
+
+	/*
+	 * Draws the frames step() publishes, off the thread running the
+	 * emulation, so drawing never holds up the game. If it falls behind,
+	 * frames are dropped and it draws the latest.
+	 */
+	private void render() {
+		while(true) {
+			LockSupport.park(this);
+			if(video.screenRefresh()) {
+				video.updateDisplay();
+			}
+		}
 	}
 
 	public KeyListener getKeyboard() {
@@ -49,30 +72,51 @@ public class FullMachine extends PartMachine {
 		return fps;
 	}
 	
-	public  void revertToSnapshot(int i) {
+	/*
+	 * Go back the given number of frames, as far as the rewind buffer
+	 * reaches. Play carries on from there.
+	 */
+	public void rewind(int frames) {
+		frames = Math.min(frames, rewind.size() - 1);
+		if(frames > 0) {
+			syncToSnapshot(rewind.rewind(frames, getSnapshot()));
+		}
+	}
+
+	/*
+	 * Loading a snapshot bypasses the video's write handlers.
+	 */
+	@Override
+	public void syncToSnapshot(Snapshot snapshot) {
+		super.syncToSnapshot(snapshot);
+		video.markAllDirty();
+	}
+
+	public void revertToSnapshot(int slot) {
 		try {
-			InputStream file = new FileInputStream("res/snap" + i + ".dat");
-			BufferedInputStream buffer = new BufferedInputStream(file);
-			ObjectInputStream input = new ObjectInputStream(buffer);
-			super.syncToSnapshot((Snapshot) input.readObject());
-			input.close();
-			file.close();
-		} catch (IOException | ClassNotFoundException e) {
+			Snapshot saved = getSnapshotFile().read(slot, getSnapshot());
+			if(saved != null) {
+				syncToSnapshot(saved);
+			}
+		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
 	
-	public void saveSnapshot(int i) {
+	public void saveSnapshot(int slot) {
 		try {
-			OutputStream file = new FileOutputStream(new File("res/snap" + i + ".dat"));
-			OutputStream buffer = new BufferedOutputStream(file);
-			ObjectOutput output = new ObjectOutputStream(buffer);
-			output.writeObject(snapshot);
-			output.close();
+			getSnapshotFile().write(slot, getSnapshot());
 			System.out.println("Saved");
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
 		
 	}
-}
+
+	private SnapshotFile getSnapshotFile() throws IOException {
+		if(snapshots == null) {
+			snapshots = new SnapshotFile(new File("res/snapshots.dat"), SNAPSHOT_SLOTS);
+		}
+		return snapshots;
+	}
+}
\ No newline at end of file
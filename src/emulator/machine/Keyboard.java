@@ -96,7 +96,7 @@ public class Keyboard implements KeyListener {
 		if(isKeyPressed(OSD_KEY_CONTROL)) {
 			for(int key = OSD_KEY_F1 ; key <= OSD_KEY_F12 ; key++) {
 				if (isKeyPressed(key)) {
-					machine.saveSnapshot(key);
+					machine.saveSnapshot(key - OSD_KEY_F1);
 				}
 			}
 		}
@@ -106,10 +106,17 @@ public class Keyboard implements KeyListener {
 		 */
 		for(int i = OSD_KEY_F1 ; i <= OSD_KEY_F12 ; i++) {
 			if (isKeyPressed(i)) {
-				machine.revertToSnapshot(i);
+				machine.revertToSnapshot(i - OSD_KEY_F1);
 			}
 		}
 
+		/*
+		 * Hold R to play backwards
+		 */
+		if(isKeyPressed(OSD_KEY_R)) {
+			machine.rewind(2);
+		}
+
 		/*
 		 * Space to skip level
 		 */
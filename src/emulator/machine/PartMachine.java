@@ -1,10 +1,13 @@
 package emulator.machine;
 
+import java.util.Arrays;
 import java.util.Random;
 
 import emulator.cpu.z80.Z80;
 import emulator.games.Pacman;
+import emulator.memory.MemoryBus;
 import emulator.memory.MemoryMappedIO;
+import emulator.memory.Pointers.WriteHandlerPtr;
 
 public class PartMachine implements Machine {
 	
@@ -12,19 +15,28 @@ public class PartMachine implements Machine {
 	protected final int fps;
 	private final Z80 cpu;
 	private final char[] memory;
+	private final MemoryBus bus;
 	private final MemoryMappedIO[] io;
-	private final Random rng;
+	private Random rng;
 	protected Snapshot snapshot;
+	private int snapshotInterval;
+	private int framesSinceSnapshot;
+	private boolean snapshotCurrent = true;
 	
 	public PartMachine(Pacman pacman) {
 		fps = pacman.getFPS();
-		cpu = new Z80(this);
-		rng = new Random();
+		rng = RandomProvider.create();
 		memory = pacman.getMemory();
-		/* more random */
-		memory[0x4dc9] = (char) rng.nextInt(0x5000);
-		memory[0x4dca] = (char) rng.nextInt(0x5000);
+		/* more random; RAM holds bytes, so only 8 bits of it */
+		memory[0x4dc9] = (char) rng.nextInt(0x100);
+		memory[0x4dca] = (char) rng.nextInt(0x100);
 		io = pacman.getIO();
+		bus = new MemoryBus(memory);
+		for(MemoryMappedIO mmio : io) {
+			bus.mapWrite(mmio.address, mmio.address, ioWrite);
+		}
+		cpu = new Z80(bus);
+		cpu.setIdleLoops(pacman.getIdleLoops());
 		cycles = pacman.getClock() / pacman.getFPS();
 	}
 
@@ -32,10 +44,42 @@ public class PartMachine implements Machine {
 	public void step() {
 		for(MemoryMappedIO mmio : io) {
 			memory[mmio.address] = mmio.value;
+			bus.markDirty(mmio.address);
 		}
 		cpu.execute(cycles);
 		cpu.causeInterrupt(0);
-		snapshot = new Snapshot(memory.clone(), cpu.getRegs());
+		snapshotCurrent = false;
+		if(snapshotInterval > 0 && ++framesSinceSnapshot >= snapshotInterval) {
+			snapshot = capture();
+		}
+	}
+
+	/*
+	 * How often step() takes a snapshot: every n frames, or never for 0, in
+	 * which case getSnapshot() takes one when it is asked for. Look-ahead
+	 * machines mostly never look at theirs, so 0 is the default.
+	 */
+	public void setSnapshotInterval(int frames) {
+		snapshotInterval = frames;
+	}
+
+	/*
+	 * Memory is always the last snapshot's pages plus whatever the bus has
+	 * marked dirty since, so only the dirty pages need copying. The rest
+	 * are shared with the previous snapshot.
+	 */
+	private Snapshot capture() {
+		char[][] pages = snapshot == null ? new char[Snapshot.PAGES][] : snapshot.pages.clone();
+		for(int page = 0 ; page < Snapshot.PAGES ; page++) {
+			if(pages[page] == null || bus.isDirty(page)) {
+				int start = page << Snapshot.PAGE_BITS;
+				pages[page] = Arrays.copyOfRange(memory, start, start + Snapshot.PAGE_SIZE);
+			}
+		}
+		bus.clearDirty();
+		framesSinceSnapshot = 0;
+		snapshotCurrent = true;
+		return new Snapshot(pages, cpu.getRegs());
 	}
 
 	@Override
@@ -45,10 +89,36 @@ public class PartMachine implements Machine {
 
 	@Override
 	public void memoryWrite(int address, int data) {
-		//Memory mapped IO. This will probably mess up the sound, but we don't use sound.
-		if(address == 0x5000 || address == 0x5040 || address == 0x5080)
-			return;
-		memory[address] = (char) data;
+		bus.write(address, data);
+	}
+
+	/*
+	 * Writes to the IO page. The ports themselves are read only; reads still
+	 * come from memory, where step() latches the port values each frame.
+	 * This will probably mess up the sound, but we don't use sound.
+	 */
+	private final WriteHandlerPtr ioWrite = new WriteHandlerPtr() {
+		@Override
+		public void handler(int offset, int data) {
+			for(MemoryMappedIO mmio : io) {
+				if(mmio.address == offset)
+					return;
+			}
+			memory[offset] = (char) data;
+		}
+	};
+
+	/*
+	 * Route the CPU's writes to [start, end] to the handler which, as in
+	 * MAME, is given the offset from start.
+	 */
+	protected void mapWrite(int start, int end, WriteHandlerPtr handler) {
+		bus.mapWrite(start, end, new WriteHandlerPtr() {
+			@Override
+			public void handler(int address, int data) {
+				handler.handler(address - start, data);
+			}
+		});
 	}
 
 	@Override
@@ -61,23 +131,53 @@ public class PartMachine implements Machine {
 		return io[port].value;
 	}
 
+	public long getSkippedCycles() {
+		return cpu.getSkippedCycles();
+	}
+
+	/*
+	 * With a snapshot interval of 1 this is the snapshot taken at the end of
+	 * the last frame. Otherwise one is taken now if the machine has been
+	 * stepped since the last, and so includes any writes made since then.
+	 */
 	@Override
 	public Snapshot getSnapshot() {
+		if(!snapshotCurrent && snapshotInterval != 1) {
+			snapshot = capture();
+		}
 		return snapshot;
 	}
 
+	/*
+	 * Reseed what syncToSnapshot() writes to 0x4dc9/0x4dca, so a machine
+	 * shared between threads gives the same results for the same seed.
+	 */
+	public void setSeed(long seed) {
+		rng = RandomProvider.create(seed);
+	}
+
+	/*
+	 * Only pages that are dirty, or that the target does not share with the
+	 * snapshot memory currently matches, are copied back.
+	 */
 	@Override
 	public void syncToSnapshot(Snapshot snapshot) {
+		for(int page = 0 ; page < Snapshot.PAGES ; page++) {
+			char[] src = snapshot.pages[page];
+			if(this.snapshot == null || this.snapshot.pages[page] != src || bus.isDirty(page)) {
+				pageCopy(page << Snapshot.PAGE_BITS, src);
+			}
+		}
+		bus.clearDirty();
 		this.snapshot = snapshot;
-		snapshot.RAM[0x4dc9] = (char) rng.nextInt(0x10000);
-		snapshot.RAM[0x4dca] = (char) rng.nextInt(0x10000);
-		memCopy(memory, snapshot.RAM);
+		snapshotCurrent = true;
+		framesSinceSnapshot = 0;
+		memoryWrite(0x4dc9, rng.nextInt(0x100));
+		memoryWrite(0x4dca, rng.nextInt(0x100));
 		cpu.setRegs(snapshot.regs);
 	}
 	
-	private synchronized void memCopy(char[] dest, char[] src) {
-		for(int i = 0 ; i < dest.length ; i++) {
-			dest[i] = src[i];
-		}
+	private void pageCopy(int start, char[] src) {
+		System.arraycopy(src, 0, memory, start, src.length);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package emulator.machine;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/*
+ * Where the emulator, simulators and AIs get their random numbers. With no
+ * seed set every generator is independently seeded, as new Random() would
+ * be. With a seed, each new generator is split off its thread's root in
+ * creation order, so a thread that creates them in the same order gets the
+ * same numbers every time.
+ *
+ * The seed can be set for the whole process (setSeed, or -Dpacman.seed=n)
+ * or for the current thread only (setThreadSeed), so parallel games can
+ * each be reproducible whatever order their threads run in. A thread with
+ * no seed of its own takes a root split off the process seed the first
+ * time it asks, so it never falls back to an unseeded generator while a
+ * seed is set. Which split a worker thread gets still depends on when it
+ * first asks; work handed to other threads should be given a seed drawn on
+ * the thread that hands it over, and use create(long).
+ */
+public final class RandomProvider {
+
+	private static SplittableRandom global;
+	private static final ThreadLocal<SplittableRandom> local = new ThreadLocal<>();
+	/* this thread's root split off global, and the global it came from */
+	private static final ThreadLocal<SplittableRandom[]> derived = new ThreadLocal<>();
+
+	static {
+		Long seed = Long.getLong("pacman.seed");
+		if(seed != null) {
+			setSeed(seed);
+		}
+	}
+
+	private RandomProvider() {
+	}
+
+	public static synchronized void setSeed(long seed) {
+		global = new SplittableRandom(seed);
+	}
+
+	public static synchronized void clearSeed() {
+		global = null;
+	}
+
+	public static void setThreadSeed(long seed) {
+		local.set(new SplittableRandom(seed));
+	}
+
+	public static void clearThreadSeed() {
+		local.remove();
+	}
+
+	/*
+	 * A new generator, for one object to keep and use from one thread.
+	 */
+	public static Random create() {
+		SplittableRandom root = local.get();
+		if(root == null) {
+			root = derivedRoot();
+		}
+		if(root != null) {
+			return new SplitRandom(root.split());
+		}
+		return new SplitRandom(new SplittableRandom());
+	}
+
+	/*
+	 * This thread's root off the process seed, split the first time it is
+	 * asked for and again whenever the process seed changes. Null if there
+	 * is no process seed.
+	 */
+	private static SplittableRandom derivedRoot() {
+		SplittableRandom[] pair = derived.get();
+		synchronized(RandomProvider.class) {
+			if(global == null) {
+				return null;
+			}
+			if(pair == null || pair[0] != global) {
+				pair = new SplittableRandom[]{ global, global.split() };
+				derived.set(pair);
+			}
+		}
+		return pair[1];
+	}
+
+	/*
+	 * A new generator from the given seed alone, whatever seed is set, for
+	 * work handed to another thread that must still be reproducible.
+	 */
+	public static Random create(long seed) {
+		return new SplitRandom(new SplittableRandom(seed));
+	}
+
+	/*
+	 * A Random backed by a SplittableRandom, which has no atomic seed update
+	 * and so is cheaper per call. Not thread safe.
+	 */
+	private static final class SplitRandom extends Random {
+
+		private static final long serialVersionUID = 1L;
+		private final SplittableRandom source;
+
+		SplitRandom(SplittableRandom source) {
+			super(0);
+			this.source = source;
+		}
+
+		@Override
+		protected int next(int bits) {
+			return source.nextInt() >>> (32 - bits);
+		}
+
+		@Override
+		public int nextInt() {
+			return source.nextInt();
+		}
+
+		@Override
+		public int nextInt(int bound) {
+			return source.nextInt(bound);
+		}
+
+		@Override
+		public long nextLong() {
+			return source.nextLong();
+		}
+
+		@Override
+		public double nextDouble() {
+			return source.nextDouble();
+		}
+
+		@Override
+		public boolean nextBoolean() {
+			return source.nextBoolean();
+		}
+
+		@Override
+		public synchronized void setSeed(long seed) {
+			/* called by Random's constructor; the source is already seeded */
+		}
+	}
+}
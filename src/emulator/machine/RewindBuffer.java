@@ -0,0 +1,203 @@
+package emulator.machine;
+
+import emulator.cpu.z80.Z80Regs;
+
+/*
+ * The last few seconds of frames, so a game can be stepped backwards.
+ * Only the RAM (0x4000-0x4FFF) and registers are kept; ROM and the IO page
+ * come from the snapshot a frame is rebuilt against.
+ *
+ * Frames are kept in groups. The first frame of a group is a keyframe, a
+ * full copy of the RAM; every other frame is the list of bytes that
+ * changed since the frame before it. Deltas live in one circular arena,
+ * so the whole buffer is allocated up front. When the buffer is out of
+ * frames, keyframes or arena, the oldest group is dropped, so the buffer
+ * always holds at least capacity - keyframeInterval frames once full.
+ */
+public class RewindBuffer {
+
+	private static final int RAM_START = 0x4000;
+	private static final int RAM_SIZE = 0x1000;
+
+	private final int capacity;
+	private final int keyframeInterval;
+
+	/* per frame, indexed by frame % capacity */
+	private final Z80Regs[] regs;
+	private final int[] deltaStart;
+	private final int[] deltaLength;
+	private final int[] keyOf;
+
+	/* keyframes, indexed by group % keyframes.length */
+	private final char[][] keyframes;
+	private final long[] keyframeAt;
+
+	/* changed bytes as (offset << 16) | value */
+	private final int[] arena;
+	private int arenaHead, arenaUsed;
+
+	private final char[] last = new char[RAM_SIZE];
+	private final int[] scratch = new int[RAM_SIZE];
+	private long first, next;
+	private long firstGroup, nextGroup;
+
+	/*
+	 * Keep about seconds worth of frames at the given frame rate, with a
+	 * keyframe every second.
+	 */
+	public RewindBuffer(int seconds, int fps) {
+		this(seconds * fps, fps, seconds * fps * 256);
+	}
+
+	public RewindBuffer(int capacity, int keyframeInterval, int deltaBudget) {
+		if(keyframeInterval < 1 || capacity < keyframeInterval || deltaBudget < RAM_SIZE) {
+			throw new IllegalArgumentException("RewindBuffer: bad sizes " + capacity
+					+ ", " + keyframeInterval + ", " + deltaBudget);
+		}
+		this.capacity = capacity;
+		this.keyframeInterval = keyframeInterval;
+		regs = new Z80Regs[capacity];
+		for(int i = 0 ; i < capacity ; i++) {
+			regs[i] = new Z80Regs();
+		}
+		deltaStart = new int[capacity];
+		deltaLength = new int[capacity];
+		keyOf = new int[capacity];
+		int keys = capacity / keyframeInterval + 2;
+		keyframes = new char[keys][RAM_SIZE];
+		keyframeAt = new long[keys];
+		arena = new int[deltaBudget];
+	}
+
+	/*
+	 * Append the frame the snapshot holds. Costs one pass over the RAM and
+	 * the changed bytes, whatever is in the buffer.
+	 */
+	public void record(Snapshot snapshot) {
+		int changes = 0;
+		if(next > first) {
+			for(int i = 0 ; i < RAM_SIZE ; i++) {
+				char value = snapshot.read(RAM_START + i);
+				if(value != last[i]) {
+					scratch[changes++] = (i << 16) | value;
+					last[i] = value;
+				}
+			}
+		} else {
+			for(int i = 0 ; i < RAM_SIZE ; i++) {
+				last[i] = snapshot.read(RAM_START + i);
+			}
+		}
+
+		boolean keyframe = next == first
+				|| next - keyframeAt[slot(nextGroup - 1)] >= keyframeInterval;
+		while(!keyframe && (next - first == capacity || arenaUsed + changes > arena.length)) {
+			if(firstGroup == nextGroup - 1) {
+				keyframe = true;
+			} else {
+				dropGroup();
+			}
+		}
+		if(keyframe) {
+			while(nextGroup - firstGroup == keyframes.length || next - first == capacity) {
+				dropGroup();
+			}
+			int key = slot(nextGroup++);
+			System.arraycopy(last, 0, keyframes[key], 0, RAM_SIZE);
+			keyframeAt[key] = next;
+			changes = 0;
+		}
+
+		int frame = (int) (next % capacity);
+		regs[frame].set(snapshot.regs);
+		keyOf[frame] = slot(nextGroup - 1);
+		deltaStart[frame] = arenaHead;
+		deltaLength[frame] = changes;
+		for(int i = 0 ; i < changes ; i++) {
+			arena[arenaHead] = scratch[i];
+			arenaHead = (arenaHead + 1) % arena.length;
+		}
+		arenaUsed += changes;
+		next++;
+	}
+
+	/*
+	 * Number of frames that can currently be rebuilt, the newest included.
+	 */
+	public int size() {
+		return (int) (next - first);
+	}
+
+	/*
+	 * The frame framesBack frames before the newest, with every page outside
+	 * the RAM shared with base.
+	 */
+	public Snapshot get(int framesBack, Snapshot base) {
+		if(framesBack < 0 || framesBack >= size()) {
+			throw new IndexOutOfBoundsException("Rewind " + framesBack + " of " + size());
+		}
+		long target = next - 1 - framesBack;
+		char[] ram = new char[RAM_SIZE];
+		rebuild(target, ram);
+		char[][] pages = base.pages.clone();
+		for(int page = 0 ; page < RAM_SIZE / Snapshot.PAGE_SIZE ; page++) {
+			char[] data = new char[Snapshot.PAGE_SIZE];
+			System.arraycopy(ram, page << Snapshot.PAGE_BITS, data, 0, Snapshot.PAGE_SIZE);
+			pages[(RAM_START >> Snapshot.PAGE_BITS) + page] = data;
+		}
+		Z80Regs r = new Z80Regs();
+		r.set(regs[(int) (target % capacity)]);
+		return new Snapshot(pages, r);
+	}
+
+	/*
+	 * As get(), but the frames after the one returned are discarded, so
+	 * recording carries on from it.
+	 */
+	public Snapshot rewind(int framesBack, Snapshot base) {
+		Snapshot snapshot = get(framesBack, base);
+		for(int i = 0 ; i < framesBack ; i++) {
+			int frame = (int) (--next % capacity);
+			arenaHead = (arenaHead - deltaLength[frame] + arena.length) % arena.length;
+			arenaUsed -= deltaLength[frame];
+			if(keyframeAt[keyOf[frame]] == next) {
+				nextGroup--;
+			}
+		}
+		rebuild(next - 1, last);
+		return snapshot;
+	}
+
+	public void clear() {
+		first = next = 0;
+		firstGroup = nextGroup = 0;
+		arenaHead = arenaUsed = 0;
+	}
+
+	private void rebuild(long target, char[] ram) {
+		int frame = (int) (target % capacity);
+		int key = keyOf[frame];
+		System.arraycopy(keyframes[key], 0, ram, 0, RAM_SIZE);
+		for(long f = keyframeAt[key] + 1 ; f <= target ; f++) {
+			int slot = (int) (f % capacity);
+			int at = deltaStart[slot];
+			for(int i = 0 ; i < deltaLength[slot] ; i++) {
+				int change = arena[at];
+				ram[change >>> 16] = (char) change;
+				at = (at + 1) % arena.length;
+			}
+		}
+	}
+
+	private void dropGroup() {
+		long end = firstGroup + 1 < nextGroup ? keyframeAt[slot(firstGroup + 1)] : next;
+		for(; first < end ; first++) {
+			arenaUsed -= deltaLength[(int) (first % capacity)];
+		}
+		firstGroup++;
+	}
+
+	private int slot(long group) {
+		return (int) (group % keyframes.length);
+	}
+}
@@ -5,18 +5,51 @@ import java.io.Serializable;
 
 import emulator.cpu.z80.Z80Regs;
 
+/*
+ * Machine state at the end of a frame. Memory is held as 256 byte pages,
+ * and a page that did not change between two snapshots is the same array
+ * in both, so pages must never be written to once a snapshot is built.
+ */
 public class Snapshot implements Serializable {
 
 	private static final long serialVersionUID = -6423426747622876164L;
-	public final char[] RAM;
+	public static final int PAGE_BITS = 8;
+	public static final int PAGE_SIZE = 1 << PAGE_BITS;
+	public static final int PAGES = 0x10000 >> PAGE_BITS;
+
+	public final char[][] pages;
 	public final Z80Regs regs;
+	/* volatile, as snapshots are read from several threads at once */
+	private transient volatile char[] RAM;
 	
-	public Snapshot (char[] RAM, Z80Regs regs) {
-		this.RAM = RAM;
+	public Snapshot (char[][] pages, Z80Regs regs) {
+		this.pages = pages;
 		this.regs = regs;
 	}
 
+	public char read(int address) {
+		return pages[address >> PAGE_BITS][address & (PAGE_SIZE - 1)];
+	}
+
+	/*
+	 * The whole address space as one array, built the first time it is
+	 * asked for. Only read it; it is not written back to the machine.
+	 * It is filled before it is published, so another thread never sees
+	 * it half built; two threads may each build one, which is harmless.
+	 */
+	public char[] getRAM() {
+		char[] ram = RAM;
+		if(ram == null) {
+			ram = new char[PAGES * PAGE_SIZE];
+			for(int page = 0 ; page < PAGES ; page++) {
+				System.arraycopy(pages[page], 0, ram, page << PAGE_BITS, PAGE_SIZE);
+			}
+			RAM = ram;
+		}
+		return ram;
+	}
+
 	public Point getPacman() {
-		return new Point(new Point(255-RAM[0x4d09], RAM[0x4d08]));
+		return new Point(new Point(255-read(0x4d09), read(0x4d08)));
 	}
 }
@@ -0,0 +1,158 @@
+package emulator.machine;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import emulator.cpu.z80.Z80Regs;
+
+/*
+ * A file of numbered snapshot slots, memory mapped so that reading or
+ * writing a slot is a copy into or out of the page cache. Only the RAM
+ * (0x4000-0x4FFF, one byte per address) and the registers are stored;
+ * ROM and the IO page come from the snapshot a slot is read against.
+ *
+ * Layout, big endian:
+ *   header: magic "JSNP", version (short), 0 (short), slot count, slot size
+ *   slot:   used (byte), registers (REGS_SIZE bytes), RAM
+ */
+public class SnapshotFile implements Closeable {
+
+	public static final int VERSION = 1;
+	private static final int MAGIC = 0x4a534e50;
+	private static final int HEADER_SIZE = 16;
+	private static final int RAM_START = 0x4000;
+	private static final int RAM_SIZE = 0x1000;
+	private static final int REGS_SIZE = 12 * 2 + 8 + 3 * 4;
+	public static final int SLOT_SIZE = 1 + REGS_SIZE + RAM_SIZE;
+
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final int slots;
+
+	/*
+	 * Open the file, creating it if needed. An existing file keeps its slots
+	 * and is grown if it has fewer than asked for.
+	 */
+	public SnapshotFile(File file, int slots) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		channel = raf.getChannel();
+		if(raf.length() >= HEADER_SIZE) {
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			if(header.getInt(0) != MAGIC || header.getShort(4) != VERSION
+					|| header.getInt(12) != SLOT_SIZE) {
+				raf.close();
+				throw new IOException(file + " is not a version " + VERSION + " snapshot file");
+			}
+			slots = Math.max(slots, header.getInt(8));
+		}
+		this.slots = slots;
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) slots * SLOT_SIZE);
+		buffer.putInt(0, MAGIC);
+		buffer.putShort(4, (short) VERSION);
+		buffer.putShort(6, (short) 0);
+		buffer.putInt(8, slots);
+		buffer.putInt(12, SLOT_SIZE);
+	}
+
+	public int getSlots() {
+		return slots;
+	}
+
+	public boolean isUsed(int slot) {
+		return buffer.get(offset(slot)) != 0;
+	}
+
+	public void write(int slot, Snapshot snapshot) {
+		int at = offset(slot);
+		buffer.put(at, (byte) 1);
+		writeRegs(at + 1, snapshot.regs);
+		at += 1 + REGS_SIZE;
+		for(int i = 0 ; i < RAM_SIZE ; i++) {
+			buffer.put(at + i, (byte) snapshot.read(RAM_START + i));
+		}
+	}
+
+	/*
+	 * The snapshot in the slot, with every page outside the RAM shared with
+	 * base, or null if nothing was ever written to the slot.
+	 */
+	public Snapshot read(int slot, Snapshot base) {
+		int at = offset(slot);
+		if(buffer.get(at) == 0) {
+			return null;
+		}
+		Z80Regs regs = readRegs(at + 1);
+		at += 1 + REGS_SIZE;
+		char[][] pages = base.pages.clone();
+		for(int page = 0 ; page < RAM_SIZE / Snapshot.PAGE_SIZE ; page++) {
+			char[] data = new char[Snapshot.PAGE_SIZE];
+			for(int i = 0 ; i < data.length ; i++) {
+				data[i] = (char) (buffer.get(at++) & 0xFF);
+			}
+			pages[(RAM_START >> Snapshot.PAGE_BITS) + page] = data;
+		}
+		return new Snapshot(pages, regs);
+	}
+
+	public void clear(int slot) {
+		buffer.put(offset(slot), (byte) 0);
+	}
+
+	public void flush() {
+		buffer.force();
+	}
+
+	@Override
+	public void close() throws IOException {
+		buffer.force();
+		channel.close();
+	}
+
+	private int offset(int slot) {
+		if(slot < 0 || slot >= slots) {
+			throw new IndexOutOfBoundsException("Snapshot slot " + slot + " of " + slots);
+		}
+		return HEADER_SIZE + slot * SLOT_SIZE;
+	}
+
+	private void writeRegs(int at, Z80Regs r) {
+		int[] words = { r.AF, r.PC, r.SP, r.BC, r.DE, r.HL, r.IX, r.IY,
+				r.AF2, r.BC2, r.DE2, r.HL2 };
+		for(int word : words) {
+			buffer.putShort(at, (short) word);
+			at += 2;
+		}
+		int[] bytes = { r.A, r.F, r.IFF1, r.IFF2, r.HALT, r.IM, r.I, r.R2 };
+		for(int b : bytes) {
+			buffer.put(at++, (byte) b);
+		}
+		buffer.putInt(at, r.R);
+		buffer.putInt(at + 4, r.pending_irq);
+		buffer.putInt(at + 8, r.pending_nmi);
+	}
+
+	private Z80Regs readRegs(int at) {
+		Z80Regs r = new Z80Regs();
+		r.AF  = word(at);      r.PC  = word(at + 2);  r.SP  = word(at + 4);
+		r.BC  = word(at + 6);  r.DE  = word(at + 8);  r.HL  = word(at + 10);
+		r.IX  = word(at + 12); r.IY  = word(at + 14); r.AF2 = word(at + 16);
+		r.BC2 = word(at + 18); r.DE2 = word(at + 20); r.HL2 = word(at + 22);
+		at += 24;
+		r.A    = buffer.get(at) & 0xFF;     r.F    = buffer.get(at + 1) & 0xFF;
+		r.IFF1 = buffer.get(at + 2) & 0xFF; r.IFF2 = buffer.get(at + 3) & 0xFF;
+		r.HALT = buffer.get(at + 4) & 0xFF; r.IM   = buffer.get(at + 5) & 0xFF;
+		r.I    = buffer.get(at + 6) & 0xFF; r.R2   = buffer.get(at + 7) & 0xFF;
+		r.R = buffer.getInt(at + 8);
+		r.pending_irq = buffer.getInt(at + 12);
+		r.pending_nmi = buffer.getInt(at + 16);
+		return r;
+	}
+
+	private int word(int at) {
+		return buffer.getShort(at) & 0xFFFF;
+	}
+}
@@ -0,0 +1,50 @@
+package emulator.machine;
+
+/*
+ * A read-only Machine over one Snapshot. Snapshot pages are never written
+ * once taken, so any number of threads can read through it while the
+ * machine the snapshot came from carries on.
+ */
+public class SnapshotMachine implements Machine {
+
+	private final Snapshot snapshot;
+
+	public SnapshotMachine(Snapshot snapshot) {
+		this.snapshot = snapshot;
+	}
+
+	@Override
+	public void step() {
+		throw new UnsupportedOperationException("SnapshotMachine is read only");
+	}
+
+	@Override
+	public int memoryRead(int address) {
+		return snapshot.read(address);
+	}
+
+	@Override
+	public void memoryWrite(int address, int data) {
+		throw new UnsupportedOperationException("SnapshotMachine is read only");
+	}
+
+	@Override
+	public void portWrite(int port, char value) {
+		throw new UnsupportedOperationException("SnapshotMachine is read only");
+	}
+
+	@Override
+	public char portRead(int port) {
+		throw new UnsupportedOperationException("SnapshotMachine has no ports");
+	}
+
+	@Override
+	public Snapshot getSnapshot() {
+		return snapshot;
+	}
+
+	@Override
+	public void syncToSnapshot(Snapshot snapshot) {
+		throw new UnsupportedOperationException("SnapshotMachine is read only");
+	}
+}
@@ -0,0 +1,71 @@
+package emulator.memory;
+
+import java.util.Arrays;
+
+import emulator.memory.Pointers.ReadHandlerPtr;
+import emulator.memory.Pointers.WriteHandlerPtr;
+
+/*
+ * The CPU's view of the address space. Plain memory is a char array the
+ * CPU reads and writes directly; 256 byte pages that need more than that
+ * (memory mapped IO) get a read or write handler. A null page entry means
+ * plain memory, so the common case is one table load and an array access.
+ * Every write marks its page dirty, so the machine can tell which pages
+ * changed since it last cleared them.
+ */
+public final class MemoryBus {
+
+	public final char[] memory;
+	private final ReadHandlerPtr[] readPages = new ReadHandlerPtr[0x100];
+	private final WriteHandlerPtr[] writePages = new WriteHandlerPtr[0x100];
+	private final boolean[] dirtyPages = new boolean[0x100];
+
+	public MemoryBus(char[] memory) {
+		this.memory = memory;
+	}
+
+	/*
+	 * Route reads of every page in [start, end] to the handler, which gets
+	 * the full address. Passing null maps the pages back to plain memory.
+	 */
+	public void mapRead(int start, int end, ReadHandlerPtr handler) {
+		for (int page = start >> 8; page <= end >> 8; page++) {
+			readPages[page] = handler;
+		}
+	}
+
+	public void mapWrite(int start, int end, WriteHandlerPtr handler) {
+		for (int page = start >> 8; page <= end >> 8; page++) {
+			writePages[page] = handler;
+		}
+	}
+
+	public int read(int address) {
+		ReadHandlerPtr handler = readPages[address >> 8];
+		return handler == null ? memory[address] : handler.handler(address);
+	}
+
+	public void write(int address, int data) {
+		dirtyPages[address >> 8] = true;
+		WriteHandlerPtr handler = writePages[address >> 8];
+		if (handler == null)
+			memory[address] = (char) data;
+		else
+			handler.handler(address, data);
+	}
+
+	/*
+	 * For changes made to memory without going through write().
+	 */
+	public void markDirty(int address) {
+		dirtyPages[address >> 8] = true;
+	}
+
+	public boolean isDirty(int page) {
+		return dirtyPages[page];
+	}
+
+	public void clearDirty() {
+		Arrays.fill(dirtyPages, false);
+	}
+}
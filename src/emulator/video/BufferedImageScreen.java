@@ -6,6 +6,7 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
 
@@ -17,12 +18,21 @@ public class BufferedImageScreen extends JPanel implements Screen {
 	private static final long serialVersionUID = -7316069649903725892L;
 	private static final boolean SMOOTH_RESIZE = false;
 	private final BufferedImage[] bi;
+	/* the images' own pixel arrays, written to directly */
+	private final int[][] pixels;
+	private final int width;
 	private final double ratio;
-	private int biIndex = 0;
+	/* flipped by the drawing thread, read by paintComponent() */
+	private volatile int biIndex = 0;
 
 	public BufferedImageScreen (int width, int height) {
 		bi = new BufferedImage[]{new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB),
 								 new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB)};
+		pixels = new int[bi.length][];
+		for(int i = 0 ; i < bi.length ; i++) {
+			pixels[i] = ((DataBufferInt) bi[i].getRaster().getDataBuffer()).getData();
+		}
+		this.width = width;
 		ratio = (double)width / (double)height;
 		setPreferredSize(new Dimension(width*2, height*2));
 		setBackground(Color.BLACK);
@@ -68,7 +78,27 @@ public class BufferedImageScreen extends JPanel implements Screen {
 
 	@Override
 	public void setPixel(int x, int y, int rgb) {
-		bi[biIndex].setRGB(x, y, rgb);
+		pixels[biIndex][y * width + x] = rgb;
+	}
+
+	@Override
+	public int[] getPixels() {
+		return pixels[biIndex];
+	}
+
+	@Override
+	public int getStride() {
+		return width;
+	}
+
+	@Override
+	public void blitRow(int x, int y, int[] src, int srcPos, int length) {
+		System.arraycopy(src, srcPos, pixels[biIndex], y * width + x, length);
+	}
+
+	@Override
+	public int getBackBuffer() {
+		return biIndex;
 	}
 
 	@Override
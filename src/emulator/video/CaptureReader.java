@@ -0,0 +1,116 @@
+package emulator.video;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.InflaterInputStream;
+
+/*
+ * Reads back the frames of a file written by CaptureWriter, in order.
+ */
+public class CaptureReader implements Closeable {
+
+	private final DataInputStream in;
+	private final int width, height, fps;
+	private final byte[] indices;
+	private final int[] palette = new int[CaptureWriter.MAX_COLOURS];
+	private int colours;
+	private int frames;
+
+	public CaptureReader(File file) throws IOException {
+		InputStream stream = new FileInputStream(file);
+		try {
+			DataInputStream header = new DataInputStream(stream);
+			if (header.readInt() != CaptureWriter.MAGIC
+					|| header.readShort() != CaptureWriter.VERSION) {
+				throw new IOException(file + " is not a version "
+						+ CaptureWriter.VERSION + " capture file");
+			}
+			header.readShort();
+			width = header.readInt();
+			height = header.readInt();
+			fps = header.readInt();
+		} catch (IOException e) {
+			stream.close();
+			throw e;
+		}
+		in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(stream), 1 << 16));
+		indices = new byte[width * height];
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getFPS() {
+		return fps;
+	}
+
+	/* frames read so far */
+	public int getFrames() {
+		return frames;
+	}
+
+	/*
+	 * Read the next frame into rgb, width * height pixels row after row.
+	 * Returns false at the end of the file.
+	 */
+	public boolean next(int[] rgb) throws IOException {
+		int first = in.read();
+		if (first < 0) {
+			return false;
+		}
+		int count = readVarint(first);
+		for (int c = 0; c < count; c++) {
+			if (colours == palette.length) {
+				throw new IOException("More than " + palette.length + " colours");
+			}
+			palette[colours++] = in.readUnsignedByte() << 16
+					| in.readUnsignedByte() << 8 | in.readUnsignedByte();
+		}
+		int at = 0;
+		while (true) {
+			at += readVarint();
+			int length = readVarint();
+			if (length == 0) {
+				break;
+			}
+			in.readFully(indices, at, length);
+			at += length;
+		}
+		for (int i = 0; i < indices.length; i++) {
+			rgb[i] = palette[indices[i] & 0xff];
+		}
+		frames++;
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	private int readVarint() throws IOException {
+		return readVarint(in.readUnsignedByte());
+	}
+
+	private int readVarint(int b) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			value |= (b & 0x7f) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+			b = in.readUnsignedByte();
+		}
+		throw new IOException("Bad varint in frame " + frames);
+	}
+}
@@ -0,0 +1,145 @@
+package emulator.video;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/*
+ * Writes frames to a capture file, for CaptureReader to play back. Pixels
+ * are stored as indices into a palette that grows as new colours turn up,
+ * and each frame only as the runs of pixels that changed since the one
+ * before, so a frame where little moves costs a few bytes.
+ *
+ * Layout, big endian:
+ *   header: magic "JCAP", version (short), 0 (short), width, height, fps
+ *   then a deflate stream of frames, each:
+ *     new colour count (varint), then each colour's RGB in 3 bytes
+ *     runs: skip (varint), count (varint), count palette indices (bytes)
+ *     ended by a run with a count of 0
+ * Before the first frame every pixel is palette index 0.
+ */
+public class CaptureWriter implements Closeable {
+
+	public static final int VERSION = 1;
+	static final int MAGIC = 0x4a434150;
+	static final int MAX_COLOURS = 256;
+	/* unchanged pixels between two runs that are cheaper sent than skipped */
+	private static final int GAP = 4;
+
+	private final DataOutputStream out;
+	private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+	private final int width, height;
+	/* the RGB and palette index of every pixel, as of the last frame */
+	private final int[] lastRgb;
+	private final byte[] indices;
+	private final boolean[] changed;
+	private final int[] palette = new int[MAX_COLOURS];
+	private int colours;
+	private int lastColour = -1, lastIndex;
+
+	public CaptureWriter(File file, int width, int height, int fps) throws IOException {
+		this.width = width;
+		this.height = height;
+		lastRgb = new int[width * height];
+		/* no colour is -1, so the first frame is sent whole */
+		Arrays.fill(lastRgb, -1);
+		indices = new byte[width * height];
+		changed = new boolean[width * height];
+		OutputStream stream = new BufferedOutputStream(new FileOutputStream(file));
+		DataOutputStream header = new DataOutputStream(stream);
+		header.writeInt(MAGIC);
+		header.writeShort(VERSION);
+		header.writeShort(0);
+		header.writeInt(width);
+		header.writeInt(height);
+		header.writeInt(fps);
+		out = new DataOutputStream(new DeflaterOutputStream(stream,
+				deflater, 1 << 16));
+	}
+
+	/*
+	 * Add a frame of width * height RGB pixels, row after row.
+	 */
+	public void write(int[] rgb) throws IOException {
+		int size = width * height;
+		int first = colours;
+		for (int i = 0; i < size; i++) {
+			if (rgb[i] != lastRgb[i]) {
+				lastRgb[i] = rgb[i];
+				indices[i] = (byte) index(rgb[i]);
+				changed[i] = true;
+			}
+		}
+
+		writeVarint(colours - first);
+		for (int c = first; c < colours; c++) {
+			out.writeByte(palette[c] >> 16);
+			out.writeByte(palette[c] >> 8);
+			out.writeByte(palette[c]);
+		}
+
+		int end = 0;
+		for (int i = 0; i < size; i++) {
+			if (!changed[i]) {
+				continue;
+			}
+			/* take in the next changes while the gaps are small */
+			int last = i;
+			for (int j = i + 1; j < size && j - last <= GAP; j++) {
+				if (changed[j]) {
+					last = j;
+				}
+			}
+			writeVarint(i - end);
+			writeVarint(last - i + 1);
+			out.write(indices, i, last - i + 1);
+			Arrays.fill(changed, i, last + 1, false);
+			end = last + 1;
+			i = last;
+		}
+		writeVarint(0);
+		writeVarint(0);
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			out.close();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private int index(int rgb) {
+		if (rgb == lastColour) {
+			return lastIndex;
+		}
+		int c = 0;
+		while (c < colours && palette[c] != rgb) {
+			c++;
+		}
+		if (c == colours) {
+			if (colours == MAX_COLOURS) {
+				throw new IllegalStateException("More than " + MAX_COLOURS + " colours");
+			}
+			palette[colours++] = rgb;
+		}
+		lastColour = rgb;
+		return lastIndex = c;
+	}
+
+	private void writeVarint(int value) throws IOException {
+		while ((value & ~0x7f) != 0) {
+			out.writeByte((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+}
@@ -25,6 +25,9 @@ along with Arcadeflex.  If not, see <http://www.gnu.org/licenses/>.
 
 package emulator.video;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import emulator.memory.CharPtr;
 import emulator.memory.Pointers.VhConvertColourPromPtr;
 
@@ -62,6 +65,8 @@ public abstract class GenericVideo {
 	public static final int MAX_PENS = 256;
 	public static final int MAX_GFX_ELEMENTS = 10;
 	public static final int MAX_MEMORY_REGIONS = 10;
+	/* pre-coloured characters and sprites kept by each video */
+	public static final int GFX_CACHE_SIZE = 1024;
 
 	protected GfxElement[] gfx;
 	protected GfxDecodeInfo[] gfxDecodeInfo;
@@ -80,11 +85,15 @@ public abstract class GenericVideo {
 	protected Screen screen;
 	
 	private int orientation;
+	/* draw into a plain pixel array rather than a Swing panel */
+	private boolean headless;
 	
     private char[] pens = new char[256];
 	private int width;
 	private int height;
 	private int firstFreePen = 0;
+	private final GfxCache gfxCache = new GfxCache(GFX_CACHE_SIZE, palette);
+	private final Rectangle myclip = new Rectangle();
 
 	public GenericVideo (int width, int height, int orientation, char[] color_prom,
 			int totalColors, GfxDecodeInfo[] gfxdecodeinfo) {
@@ -109,10 +118,9 @@ public abstract class GenericVideo {
 		if (gfxDecodeInfo != null) {
 			for (i = 0; i < MAX_GFX_ELEMENTS && gfxDecodeInfo[i].memoryRegion != -1; i++) {
 				gfx[i] = decodeGfx(
-						new CharPtr(
-								memoryRegion[gfxDecodeInfo[i].memoryRegion],
-								gfxDecodeInfo[i].start),
-								gfxDecodeInfo[i].gfxLayout);
+						memoryRegion[gfxDecodeInfo[i].memoryRegion],
+						gfxDecodeInfo[i].start,
+						gfxDecodeInfo[i].gfxLayout);
 				
 				gfx[i].colourTable = new CharPtr(remappedTable, gfxDecodeInfo[i].colourCodesStart);
 				gfx[i].totalColours = gfxDecodeInfo[i].totalColourCodes;
@@ -154,7 +162,8 @@ public abstract class GenericVideo {
 	}
 
 	private void createDisplay() {
-		screen = new BufferedImageScreen(width, height);
+		screen = headless ? new RasterScreen(width, height)
+				: new BufferedImageScreen(width, height);
 		if ((orientation & ORIENTATION_SWAP_XY) != 0) {
 			width  ^= height;
 			height ^= width;
@@ -188,8 +197,7 @@ public abstract class GenericVideo {
 	public void drawgfx(GfxElement gfx, int code,
 			int color, boolean flipX, boolean flipY, int sx, int sy, Rectangle clip,
 			int transparency, int transparent_color) {
-		int ox, oy, ex, ey, x, y, start, dy, col;
-		Rectangle myclip = new Rectangle();
+		int ox, oy, ex, ey, x, y, col;
 		if (gfx == null) {
 			return;
 		}
@@ -275,15 +283,6 @@ public abstract class GenericVideo {
 			return;
 		}
 
-		if (flipY) {
-			start = (code % gfx.totalElements) 
-					* gfx.height + gfx.height - 1 - (sy - oy);
-			dy = -1;
-		} else /* normal */{
-			start = (code % gfx.totalElements) * gfx.height + (sy - oy);
-			dy = 1;
-		}
-
 		/* if necessary, remap the transparent color */
 		if (transparency == TRANSPARENCY_COLOR
 				|| transparency == TRANSPARENCY_THROUGH) {
@@ -291,23 +290,20 @@ public abstract class GenericVideo {
 		}
 
 		if (gfx.colourTable != null) {
-			CharPtr paldata = new CharPtr(gfx.colourTable,
-					gfx.colourGranularity * (color % gfx.totalColours));
-			
+			int w = gfx.width;
+			int[] pixels = screen.getPixels();
+			int stride = screen.getStride();
+			/* first block pixel to draw, the clipped corner */
+			int src = (sy - oy) * w + (sx - ox);
+			int[] block;
+
 			switch (transparency) {
 			case TRANSPARENCY_NONE:
+				block = gfxCache.get(gfx, code % gfx.totalElements,
+						color % gfx.totalColours, flipX, flipY, -1);
 				for (y = sy; y <= ey; y++) {
-					for (x = sx; x <= ex - 7; x += 8) {
-						screen.setPixel(x,   y, palette[paldata.read(gfx.bitmap.line[start][0])]);
-						screen.setPixel(x+1, y, palette[paldata.read(gfx.bitmap.line[start][1])]);
-						screen.setPixel(x+2, y, palette[paldata.read(gfx.bitmap.line[start][2])]);
-						screen.setPixel(x+3, y, palette[paldata.read(gfx.bitmap.line[start][3])]);
-						screen.setPixel(x+4, y, palette[paldata.read(gfx.bitmap.line[start][4])]);
-						screen.setPixel(x+5, y, palette[paldata.read(gfx.bitmap.line[start][5])]);
-						screen.setPixel(x+6, y, palette[paldata.read(gfx.bitmap.line[start][6])]);
-						screen.setPixel(x+7, y, palette[paldata.read(gfx.bitmap.line[start][7])]);
-					}
-					start += dy;
+					screen.blitRow(sx, y, block, src, ex - sx + 1);
+					src += w;
 				}
 				break;
 
@@ -315,28 +311,18 @@ public abstract class GenericVideo {
 				break;
 
 			case TRANSPARENCY_COLOR:
-				if (flipX) {
-					for (y = sy; y <= ey; y++) {
-						int j = 15 + (ox - sx);
-						for (x = sx ; x <= ex ; x++) {
-							col = paldata.read(gfx.bitmap.line[start][j--]);
-							if (col != transparent_color) {
-								screen.setPixel(x, y, palette[col]);
-							}
-						}
-						start += dy;
-					}
-				} else {
-					for (y = sy; y <= ey; y++) {
-						int j = -(ox - sx);
-						for (x = sx ; x <= ex ; x++) {
-							col = paldata.read(gfx.bitmap.line[start][j++]);
-							if (col != transparent_color) {
-								screen.setPixel(x, y, palette[col]);
-							}
+				block = gfxCache.get(gfx, code % gfx.totalElements,
+						color % gfx.totalColours, flipX, flipY, transparent_color);
+				for (y = sy; y <= ey; y++) {
+					int p = y * stride;
+					int j = src;
+					for (x = sx ; x <= ex ; x++) {
+						col = block[j++];
+						if (col != GfxCache.TRANSPARENT) {
+							pixels[p + x] = col;
 						}
-						start += dy;
 					}
+					src += w;
 				}
 				break;
 
@@ -351,7 +337,43 @@ public abstract class GenericVideo {
 		screen.blit();
 	}
 	
-	private GfxElement decodeGfx(CharPtr src, GfxLayout gl) {
+	/*
+	 * Decoded graphics, shared by every video decoding the same ROM region
+	 * with the same layout and orientation. The bitmaps are only read once
+	 * decoded.
+	 */
+	private static final Map<GfxKey, Bitmap> decodedGfx = new HashMap<>();
+
+	private static final class GfxKey {
+		private final char[] region;
+		private final int start;
+		private final GfxLayout layout;
+		private final int orientation;
+
+		GfxKey(char[] region, int start, GfxLayout layout, int orientation) {
+			this.region = region;
+			this.start = start;
+			this.layout = layout;
+			this.orientation = orientation;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof GfxKey))
+				return false;
+			GfxKey k = (GfxKey) o;
+			return region == k.region && start == k.start && layout == k.layout
+					&& orientation == k.orientation;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(region) * 31 + start
+					+ System.identityHashCode(layout) * 17 + orientation;
+		}
+	}
+
+	private GfxElement decodeGfx(char[] region, int start, GfxLayout gl) {
 
 		int c;
 		Bitmap bm;
@@ -362,19 +384,30 @@ public abstract class GenericVideo {
 		if ((orientation & ORIENTATION_SWAP_XY) != 0) {
 			gfx.width = gl.height;
 			gfx.height = gl.width;
-			bm = createBitmap(gl.total * gfx.height, gfx.width, true);
 		} else {
 			gfx.width = gl.width;
 			gfx.height = gl.height;
-			bm = createBitmap(gfx.width, gl.total * gfx.height, false);
 		}
 
 		gfx.totalElements = gl.total;
 		gfx.colourGranularity = 1 << gl.planes;
-		gfx.bitmap = bm;
 
-		for (c = 0; c < gl.total; c++)
-			decodeChar(gfx, c, src, gl);
+		GfxKey key = new GfxKey(region, start, gl, orientation);
+		synchronized (decodedGfx) {
+			bm = decodedGfx.get(key);
+			if (bm == null) {
+				if ((orientation & ORIENTATION_SWAP_XY) != 0)
+					bm = createBitmap(gl.total * gfx.height, gfx.width, true);
+				else
+					bm = createBitmap(gfx.width, gl.total * gfx.height, false);
+				gfx.bitmap = bm;
+				CharPtr src = new CharPtr(region, start);
+				for (c = 0; c < gl.total; c++)
+					decodeChar(gfx, c, src, gl);
+				decodedGfx.put(key, bm);
+			}
+		}
+		gfx.bitmap = bm;
 
 		return gfx;
 	}
@@ -428,6 +461,13 @@ public abstract class GenericVideo {
 		return (src.read(bitnum / 8) >> (7 - bitnum % 8)) & 1;
 	}
 
+	/*
+	 * Must be set before init(), which makes the screen.
+	 */
+	public void setHeadless(boolean headless) {
+		this.headless = headless;
+	}
+
 	protected void setConvertColorProm(VhConvertColourPromPtr convertColourRom) {
 		this.convertColourRom = convertColourRom;
 	}
@@ -436,6 +476,10 @@ public abstract class GenericVideo {
 		return screen;
 	}
 	
-	public abstract void screenRefresh();
+	/*
+	 * Draw a frame into the back buffer, returning false if there was no
+	 * new one to draw.
+	 */
+	public abstract boolean screenRefresh();
 	
 }
\ No newline at end of file
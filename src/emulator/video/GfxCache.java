@@ -0,0 +1,133 @@
+package emulator.video;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/*
+ * Characters and sprites resolved all the way to RGB: one block of
+ * width * height pixels for each (element, code, colour, flipX, flipY),
+ * row after row as they go on the screen. Blocks are made the first time
+ * they are drawn, and once there are capacity of them the least recently
+ * used one makes way. Pixels in the transparent pen are TRANSPARENT.
+ *
+ * The palette is read when a block is made, so the cache has to be
+ * cleared if the palette ever changes.
+ */
+final class GfxCache {
+
+	static final int TRANSPARENT = -1;
+
+	private final int capacity;
+	private final int[] palette;
+	/* for each element, the entry holding each of its blocks, or -1 */
+	private final Map<GfxElement, int[]> slots = new IdentityHashMap<>();
+
+	/* entries, linked from most to least recently used */
+	private final int[][] blocks;
+	private final int[][] entrySlots;
+	private final int[] entrySlot;
+	private final int[] entryPen;
+	private final int[] prev;
+	private final int[] next;
+	private int head = -1, tail = -1, size;
+
+	GfxCache(int capacity, int[] palette) {
+		this.capacity = capacity;
+		this.palette = palette;
+		blocks = new int[capacity][];
+		entrySlots = new int[capacity][];
+		entrySlot = new int[capacity];
+		entryPen = new int[capacity];
+		prev = new int[capacity];
+		next = new int[capacity];
+	}
+
+	/*
+	 * The block for the given code and colour, which must already be in
+	 * range for the element. transparentPen is -1 for an opaque block.
+	 */
+	int[] get(GfxElement gfx, int code, int colour, boolean flipX, boolean flipY,
+			int transparentPen) {
+		int[] slot = slots.get(gfx);
+		if (slot == null) {
+			slot = new int[gfx.totalElements * gfx.totalColours * 4];
+			Arrays.fill(slot, -1);
+			slots.put(gfx, slot);
+		}
+		int s = ((code * gfx.totalColours + colour) << 2)
+				| (flipX ? 1 : 0) | (flipY ? 2 : 0);
+		int e = slot[s];
+		if (e >= 0) {
+			unlink(e);
+			link(e);
+			if (entryPen[e] == transparentPen) {
+				return blocks[e];
+			}
+		} else {
+			e = size < capacity ? size++ : evict();
+			slot[s] = e;
+			entrySlots[e] = slot;
+			entrySlot[e] = s;
+			link(e);
+		}
+		entryPen[e] = transparentPen;
+		return blocks[e] = colour(gfx, code, colour, flipX, flipY, transparentPen, blocks[e]);
+	}
+
+	void clear() {
+		for (int[] slot : slots.values()) {
+			Arrays.fill(slot, -1);
+		}
+		head = tail = -1;
+		size = 0;
+	}
+
+	private int[] colour(GfxElement gfx, int code, int colour, boolean flipX, boolean flipY,
+			int transparentPen, int[] block) {
+		int w = gfx.width, h = gfx.height;
+		if (block == null || block.length != w * h) {
+			block = new int[w * h];
+		}
+		int base = gfx.colourGranularity * colour;
+		for (int r = 0; r < h; r++) {
+			char[] line = gfx.bitmap.line[code * h + (flipY ? h - 1 - r : r)];
+			for (int c = 0; c < w; c++) {
+				int pen = gfx.colourTable.read(base + line[flipX ? w - 1 - c : c]);
+				block[r * w + c] = pen == transparentPen ? TRANSPARENT : palette[pen];
+			}
+		}
+		return block;
+	}
+
+	private int evict() {
+		int e = tail;
+		entrySlots[e][entrySlot[e]] = -1;
+		unlink(e);
+		return e;
+	}
+
+	private void link(int e) {
+		prev[e] = -1;
+		next[e] = head;
+		if (head >= 0) {
+			prev[head] = e;
+		} else {
+			tail = e;
+		}
+		head = e;
+	}
+
+	private void unlink(int e) {
+		if (prev[e] >= 0) {
+			next[prev[e]] = next[e];
+		} else {
+			head = next[e];
+		}
+		if (next[e] >= 0) {
+			prev[next[e]] = prev[e];
+		} else {
+			tail = prev[e];
+		}
+	}
+}
@@ -1,5 +1,8 @@
 package emulator.video;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
 import emulator.memory.CharPtr;
 import emulator.memory.Pointers.VhConvertColourPromPtr;
 import emulator.memory.Pointers.WriteHandlerPtr;
@@ -16,6 +19,50 @@ public class Pengo extends GenericVideo {
 	private final CharPtr colourRam;
 	private final CharPtr[] spriteRam;
 	private final int[] spriteRamSize;
+
+	/*
+	 * What video, colour and sprite RAM held at the end of a frame, copied
+	 * so it can be drawn on another thread while the next frame runs.
+	 * changed marks the characters written since the frame before.
+	 */
+	private static final class Frame {
+		final char[] videoRam, colourRam, sprites, spriteCoords;
+		final boolean[] changed;
+		final boolean flipScreen;
+		final int gfxBank;
+
+		Frame(char[] videoRam, char[] colourRam, char[] sprites, char[] spriteCoords,
+				boolean[] changed, boolean flipScreen, int gfxBank) {
+			this.videoRam = videoRam;
+			this.colourRam = colourRam;
+			this.sprites = sprites;
+			this.spriteCoords = spriteCoords;
+			this.changed = changed;
+			this.flipScreen = flipScreen;
+			this.gfxBank = gfxBank;
+		}
+	}
+
+	/* the latest frame published and not yet drawn */
+	private final AtomicReference<Frame> mailbox = new AtomicReference<>();
+	/* characters written since the last publish(), by the emulation thread */
+	private boolean[] changed;
+
+	/*
+	 * The rest belongs to the thread drawing the screen.
+	 *
+	 * One bit per screen buffer for each character: set while the character
+	 * has to be redrawn in that buffer. A character changing sets every
+	 * bit, drawing into a buffer clears that buffer's.
+	 */
+	private final byte[] dirty;
+	/* character offset at each screen tile, unflipped, or -1 */
+	private final int[] tileOffset;
+	private final int columns, rows;
+	/* where the sprites were last drawn into each buffer */
+	private final int[][] spriteX, spriteY;
+	private boolean drawnFlipScreen;
+	private int drawnGfxBank;
 	
 	public Screen getScreen() {
 		return screen;
@@ -27,6 +74,28 @@ public class Pengo extends GenericVideo {
 		}
 	};
 
+	/*
+	 * Handlers for the CPU's writes to video and colour RAM, given the
+	 * offset into each.
+	 */
+	public final WriteHandlerPtr videoRamWrite = new WriteHandlerPtr() {
+		public void handler(int offset, int data) {
+			if (videoRam.read(offset) != data) {
+				changed[offset] = true;
+				videoRam.write(offset, data);
+			}
+		}
+	};
+
+	public final WriteHandlerPtr colourRamWrite = new WriteHandlerPtr() {
+		public void handler(int offset, int data) {
+			if (colourRam.read(offset) != data) {
+				changed[offset] = true;
+				colourRam.write(offset, data);
+			}
+		}
+	};
+
 	public Pengo (int width, int height, boolean flipScreen, 
 			int xOffset, Rectangle visibleArea, char[] colourRom, 
 			int totalColors, GfxDecodeInfo[] gfxDecodeInfo, CharPtr videoRam,
@@ -42,6 +111,106 @@ public class Pengo extends GenericVideo {
 		this.spriteRam = spriteRam;
 		this.spriteRamSize = spriteRamSize;
 		super.setConvertColorProm(pengoConvertColourRom);
+
+		changed = new boolean[videoRamSize[0]];
+		dirty = new byte[videoRamSize[0]];
+		Arrays.fill(dirty, (byte) -1);
+		columns = (visibleArea.max_x + 1) / 8;
+		rows = (visibleArea.max_y + 1) / 8;
+		tileOffset = new int[columns * rows];
+		Arrays.fill(tileOffset, -1);
+		for (int offs = 0; offs < videoRamSize[0]; offs++) {
+			int sx = tileX(offs), sy = tileY(offs);
+			if (sx >= 0 && sx < columns && sy >= 0 && sy < rows) {
+				tileOffset[sy * columns + sx] = offs;
+			}
+		}
+		spriteX = new int[Byte.SIZE][spriteRamSize[0] / 2];
+		spriteY = new int[Byte.SIZE][spriteRamSize[0] / 2];
+		for (int b = 0; b < Byte.SIZE; b++) {
+			Arrays.fill(spriteX[b], Integer.MIN_VALUE);
+		}
+	}
+
+	/*
+	 * Redraw everything, for when video RAM has changed without going
+	 * through the write handlers (a snapshot being loaded). Called on the
+	 * emulation thread.
+	 */
+	public void markAllDirty() {
+		Arrays.fill(changed, true);
+	}
+
+	/*
+	 * Hand the frame just emulated to the drawing thread. Never waits: a
+	 * frame that has not been picked up yet is replaced, and the characters
+	 * it changed are passed on with the new one.
+	 */
+	public void publish() {
+		Frame frame = new Frame(
+				copy(videoRam, videoRamSize[0]),
+				copy(colourRam, videoRamSize[0]),
+				copy(spriteRam[0], spriteRamSize[0]),
+				copy(spriteRam[1], spriteRamSize[0]),
+				changed, flipScreen, gfxBank);
+		changed = new boolean[videoRamSize[0]];
+		while (true) {
+			Frame dropped = mailbox.get();
+			if (dropped != null) {
+				for (int offs = 0; offs < frame.changed.length; offs++) {
+					frame.changed[offs] |= dropped.changed[offs];
+				}
+			}
+			if (mailbox.compareAndSet(dropped, frame)) {
+				return;
+			}
+		}
+	}
+
+	private static char[] copy(CharPtr src, int length) {
+		char[] copy = new char[length];
+		for (int i = 0; i < length; i++) {
+			copy[i] = src.read(i);
+		}
+		return copy;
+	}
+
+	/* unflipped screen column of a character */
+	private static int tileX(int offs) {
+		int mx = offs / 32, my = offs % 32;
+		return (mx <= 1 || mx >= 30) ? 29 - my : 29 - mx;
+	}
+
+	/* unflipped screen row of a character */
+	private static int tileY(int offs) {
+		int mx = offs / 32, my = offs % 32;
+		if (mx <= 1) {
+			return mx + 34;
+		} else if (mx >= 30) {
+			return mx - 30;
+		}
+		return my + 2;
+	}
+
+	/*
+	 * Mark the characters under a sprite drawn at (x, y) for redrawing in
+	 * the buffers in mask.
+	 */
+	private void markSprite(int x, int y, int mask, boolean flipScreen) {
+		int minX = Math.max(x, SPRITE_VISIBLE_AREA.min_x);
+		int maxX = Math.min(x + 15, SPRITE_VISIBLE_AREA.max_x);
+		int minY = Math.max(y, SPRITE_VISIBLE_AREA.min_y);
+		int maxY = Math.min(y + 15, SPRITE_VISIBLE_AREA.max_y);
+		for (int ty = minY >> 3; ty <= maxY >> 3; ty++) {
+			for (int tx = minX >> 3; tx <= maxX >> 3; tx++) {
+				int sx = flipScreen ? columns - 1 - tx : tx;
+				int sy = flipScreen ? rows - 1 - ty : ty;
+				int offs = tileOffset[sy * columns + sx];
+				if (offs >= 0) {
+					dirty[offs] |= mask;
+				}
+			}
+		}
 	}
 
 	public static final Rectangle SPRITE_VISIBLE_AREA =
@@ -122,30 +291,54 @@ public class Pengo extends GenericVideo {
 	 * Draw the game screen in the given osd_bitmap. Do NOT call
 	 * osd_update_display() from this function, it will be called by the main
 	 * emulation engine.
+	 *
+	 * Draws the latest published frame, if there is one it has not drawn.
 	 ***************************************************************************/
-	public void screenRefresh () {
+	public boolean screenRefresh () {
+			Frame frame = mailbox.getAndSet(null);
+			if (frame == null) {
+				return false;
+			}
 			int offs;
+			boolean flipScreen = frame.flipScreen;
+			int gfxBank = frame.gfxBank;
+			char[] sprites = frame.sprites, coords = frame.spriteCoords;
+			int buffer = screen.getBackBuffer();
+			int mask = 1 << buffer;
+			int[] lastX = spriteX[buffer], lastY = spriteY[buffer];
+
+			for (offs = 0; offs < videoRamSize[0]; offs++) {
+				if (frame.changed[offs]) {
+					dirty[offs] = -1;
+				}
+			}
+			if (flipScreen != drawnFlipScreen || gfxBank != drawnGfxBank) {
+				drawnFlipScreen = flipScreen;
+				drawnGfxBank = gfxBank;
+				Arrays.fill(dirty, (byte) -1);
+			}
+
+			/* the sprites drawn into this buffer last time have to go */
+			for (int i = 0; i < lastX.length; i++) {
+				if (lastX[i] != Integer.MIN_VALUE) {
+					markSprite(lastX[i], lastY[i], mask, flipScreen);
+				}
+			}
 
 			/*
 			 * for every character in the Video RAM, check if it has been
 			 * modified since last time and update it accordingly.
 			 */
 			for (offs = 0; offs < videoRamSize[0]; offs++) {
-				int sx, sy, mx, my;
-
-				mx = offs / 32;
-				my = offs % 32;
-
-				if (mx <= 1) {
-					sx = 29 - my;
-					sy = mx + 34;
-				} else if (mx >= 30) {
-					sx = 29 - my;
-					sy = mx - 30;
-				} else {
-					sx = 29 - mx;
-					sy = my + 2;
+				int sx, sy;
+
+				if ((dirty[offs] & mask) == 0) {
+					continue;
 				}
+				dirty[offs] &= ~mask;
+
+				sx = tileX(offs);
+				sy = tileY(offs);
 				if (flipScreen) {
 					sx = 27 - sx;
 					sy = 35 - sy;
@@ -153,8 +346,8 @@ public class Pengo extends GenericVideo {
 
 				drawgfx(
 						gfx[2 * gfxBank],
-						videoRam.read(offs),
-						colourRam.read(offs),
+						frame.videoRam[offs],
+						frame.colourRam[offs],
 						flipScreen,
 						flipScreen,
 						8 * sx,
@@ -170,14 +363,16 @@ public class Pengo extends GenericVideo {
 			 * in this order, to have the correct priorities.
 			 * sprites #0 and #7 are not used */
 			for (offs = spriteRamSize[0] - 2; offs > 2 * 2; offs -= 2) {
+				lastX[offs / 2] = 239 - coords[offs];
+				lastY[offs / 2] = 272 - coords[offs + 1];
 				drawgfx(
 						gfx[1 + 2 * gfxBank],
-						spriteRam[0].read(offs) >> 2, 
-						spriteRam[0].read(offs + 1),
-						(spriteRam[0].read(offs) & 2) > 0, 
-						(spriteRam[0].read(offs) & 1) > 0,
-						239 - spriteRam[1].read(offs),
-						272 - spriteRam[1].read(offs + 1), 
+						sprites[offs] >> 2, 
+						sprites[offs + 1],
+						(sprites[offs] & 2) > 0, 
+						(sprites[offs] & 1) > 0,
+						239 - coords[offs],
+						272 - coords[offs + 1], 
 						SPRITE_VISIBLE_AREA,
 						TRANSPARENCY_COLOR, 
 						0
@@ -188,17 +383,19 @@ public class Pengo extends GenericVideo {
 			 * be offset one pixel to the left to get a more correct placement
 			 */
 			for (offs = 2 * 2; offs >= 0; offs -= 2) {
+				lastX[offs / 2] = 239 - xOffset - coords[offs];
+				lastY[offs / 2] = 272 - coords[offs + 1];
 				drawgfx(gfx[1 + 2 * gfxBank],
-						spriteRam[0].read(offs) >> 2, 
-						spriteRam[0].read(offs + 1),
-						(spriteRam[0].read(offs) & 2) > 0, 
-						(spriteRam[0].read(offs) & 1) > 0, 
-						239 - xOffset - spriteRam[1].read(offs),
-						272 - spriteRam[1].read(offs + 1), 
+						sprites[offs] >> 2, 
+						sprites[offs + 1],
+						(sprites[offs] & 2) > 0, 
+						(sprites[offs] & 1) > 0, 
+						239 - xOffset - coords[offs],
+						272 - coords[offs + 1], 
 						SPRITE_VISIBLE_AREA,
 						TRANSPARENCY_COLOR, 0);
 			}
-		
+			return true;
 	}
 
 	public CharPtr getSpriteram(int bank) {
@@ -0,0 +1,71 @@
+package emulator.video;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+import javax.swing.JPanel;
+
+/*
+ * A screen that is only a pixel array, for drawing frames with no display.
+ * There is one buffer, so after screenRefresh() getPixels() is the whole
+ * frame.
+ */
+public class RasterScreen implements Screen {
+
+	private final int width, height;
+	private final int[] pixels;
+
+	public RasterScreen(int width, int height) {
+		this.width = width;
+		this.height = height;
+		pixels = new int[width * height];
+	}
+
+	@Override
+	public JPanel getPanel() {
+		return null;
+	}
+
+	@Override
+	public void blit() {
+	}
+
+	@Override
+	public void setPixel(int x, int y, int rgb) {
+		pixels[y * width + x] = rgb;
+	}
+
+	@Override
+	public void saveScreenShot() {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		image.setRGB(0, 0, width, height, pixels, 0, width);
+		int time = (int) (System.currentTimeMillis() / 60000L);
+		try {
+			ImageIO.write(image, "png", new File("res/img" + time + ".png"));
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	@Override
+	public int getBackBuffer() {
+		return 0;
+	}
+
+	@Override
+	public int[] getPixels() {
+		return pixels;
+	}
+
+	@Override
+	public int getStride() {
+		return width;
+	}
+
+	@Override
+	public void blitRow(int x, int y, int[] src, int srcPos, int length) {
+		System.arraycopy(src, srcPos, pixels, y * width + x, length);
+	}
+}
@@ -8,4 +8,14 @@ public interface Screen {
 	void blit();
 	void setPixel(int x, int y, int i);
 	void saveScreenShot();
+	/* which buffer, counting from 0, setPixel() draws into; fewer than 8 */
+	int getBackBuffer();
+	/*
+	 * The back buffer's RGB pixels, row after row, getStride() apart.
+	 * Only valid until the next blit().
+	 */
+	int[] getPixels();
+	int getStride();
+	/* copy length pixels from src[srcPos] into row y of the back buffer, from x */
+	void blitRow(int x, int y, int[] src, int srcPos, int length);
 }
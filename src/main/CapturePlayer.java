@@ -0,0 +1,167 @@
+package main;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import emulator.video.CaptureReader;
+
+/*
+ * Plays back a file recorded by CaptureMachine.
+ *
+ *   CapturePlayer file [speed]
+ *
+ * Space pauses, right arrow steps a frame while paused, up and down
+ * double and halve the speed. Frames are skipped to keep up at speeds the
+ * screen cannot show.
+ */
+public class CapturePlayer extends JPanel {
+
+	private static final long serialVersionUID = 1L;
+
+	private final CaptureReader reader;
+	private final File file;
+	private final BufferedImage image;
+	private final int[] pixels;
+	private final Timer timer;
+	private double speed;
+	private boolean paused, ended;
+	/* the frame and time playback was last measured from */
+	private int baseFrame;
+	private long baseTime;
+
+	public static void main(String[] args) throws IOException {
+		if(args.length < 1) {
+			System.err.println("CapturePlayer file [speed]");
+			System.exit(1);
+		}
+		File file = new File(args[0]);
+		double speed = args.length > 1 ? Double.parseDouble(args[1]) : 1;
+		CaptureReader reader = new CaptureReader(file);
+		SwingUtilities.invokeLater(() -> {
+			CapturePlayer player = new CapturePlayer(file, reader, speed);
+			JFrame frame = new JFrame();
+			frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+			frame.getContentPane().add(player);
+			frame.addKeyListener(player.keys);
+			frame.pack();
+			frame.setVisible(true);
+			player.start();
+		});
+	}
+
+	public CapturePlayer(File file, CaptureReader reader, double speed) {
+		this.file = file;
+		this.reader = reader;
+		this.speed = speed;
+		image = new BufferedImage(reader.getWidth(), reader.getHeight(), BufferedImage.TYPE_INT_RGB);
+		pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		timer = new Timer(1000 / reader.getFPS(), e -> tick());
+		setPreferredSize(new Dimension(reader.getWidth() * 2, reader.getHeight() * 2));
+		setBackground(Color.BLACK);
+	}
+
+	public void start() {
+		rebase();
+		timer.start();
+	}
+
+	private final KeyAdapter keys = new KeyAdapter() {
+		@Override
+		public void keyPressed(KeyEvent e) {
+			switch(e.getKeyCode()) {
+			case KeyEvent.VK_SPACE:
+				paused = !paused;
+				break;
+			case KeyEvent.VK_RIGHT:
+				if(paused) {
+					advance(reader.getFrames() + 1);
+				}
+				break;
+			case KeyEvent.VK_UP:
+				speed *= 2;
+				break;
+			case KeyEvent.VK_DOWN:
+				speed /= 2;
+				break;
+			default:
+				return;
+			}
+			rebase();
+			updateTitle();
+		}
+	};
+
+	private void rebase() {
+		baseFrame = reader.getFrames();
+		baseTime = System.nanoTime();
+	}
+
+	private void tick() {
+		if(!paused && !ended) {
+			double seconds = (System.nanoTime() - baseTime) / 1e9;
+			advance(baseFrame + (int) (seconds * reader.getFPS() * speed));
+		}
+	}
+
+	/*
+	 * Read up to the given frame, and show it.
+	 */
+	private void advance(int frame) {
+		boolean read = false;
+		try {
+			while(!ended && reader.getFrames() < frame) {
+				if(reader.next(pixels)) {
+					read = true;
+				} else {
+					ended = true;
+				}
+			}
+		} catch (IOException e) {
+			/* a capture cut short still plays up to where it stops */
+			System.err.println(file + ": " + e);
+			ended = true;
+		}
+		if(read || ended) {
+			updateTitle();
+		}
+		if(read) {
+			repaint();
+		}
+	}
+
+	private void updateTitle() {
+		JFrame frame = (JFrame) SwingUtilities.getWindowAncestor(this);
+		if(frame != null) {
+			frame.setTitle(String.format("%s  frame %d  x%s%s%s", file.getName(),
+					reader.getFrames(), speed, paused ? "  paused" : "",
+					ended ? "  end" : ""));
+		}
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		super.paintComponent(g);
+		double ratio = (double) image.getWidth() / image.getHeight();
+		int w, h;
+		if(getHeight() * ratio < getWidth()) {
+			h = getHeight();
+			w = (int) (h * ratio);
+		} else {
+			w = getWidth();
+			h = (int) (w / ratio);
+		}
+		g.drawImage(image, (getWidth() - w) / 2, (getHeight() - h) / 2, w, h, null);
+	}
+}
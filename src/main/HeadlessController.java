@@ -0,0 +1,151 @@
+package main;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Function;
+
+import ai.AI;
+import ai.common.Game;
+import ai.ensemble.EnsembleAI;
+import ai.ensemble.LatencyHistogram;
+import emulator.games.Pacman;
+import emulator.machine.CaptureMachine;
+import emulator.machine.PartMachine;
+import emulator.machine.RandomProvider;
+
+/*
+ * Runs the game with no screen and no timer, as fast as the AI can play.
+ * Each frame the game is stepped and then the AI gets one tick() on the
+ * same thread, so the AI sees every frame exactly once however long its
+ * decisions take. Game still exits after logging 100 games.
+ *
+ * Given a capture directory, every game is recorded there, as
+ * game-<n>.cap, for CapturePlayer. A file runs from the end of the game
+ * before to the end of its own.
+ *
+ *   HeadlessController [frames] [seed] [capture directory]
+ */
+public class HeadlessController {
+
+	private final PartMachine machine;
+	private final Game game;
+	private final AI ai;
+	private long frames;
+	/* where games are recorded, or null */
+	private final File captureDir;
+	private final String captureName;
+	private int capturedGame = -1;
+
+	public static void main(String[] args) {
+		long frames = args.length > 0 ? Long.parseLong(args[0]) : Long.MAX_VALUE;
+		if(args.length > 1) {
+			RandomProvider.setSeed(Long.parseLong(args[1]));
+		}
+		HeadlessController controller = args.length > 2
+				? new HeadlessController(EnsembleAI::new, new File(args[2]), "game")
+				: new HeadlessController();
+		controller.run(frames);
+		controller.stopCapture();
+	}
+
+	public HeadlessController() {
+		this(EnsembleAI::new);
+//		this(MCTSPlayer::new);
+	}
+
+	public HeadlessController(Function<Game, AI> player) {
+		this(player, null, null);
+	}
+
+	/*
+	 * Record each game to captureDir, as <name>-<n>.cap where n counts the
+	 * games this controller has played.
+	 */
+	public HeadlessController(Function<Game, AI> player, File captureDir, String name) {
+		this.captureDir = captureDir;
+		captureName = name;
+		if(captureDir != null) {
+			captureDir.mkdirs();
+			machine = new CaptureMachine(new Pacman());
+		} else {
+			machine = new PartMachine(new Pacman());
+		}
+		/* the AI reads a snapshot every frame anyway */
+		machine.setSnapshotInterval(1);
+		game = new Game(machine);
+		ai = player.apply(game);
+	}
+
+	public Game getGame() {
+		return game;
+	}
+
+	public long getFrames() {
+		return frames;
+	}
+
+	public void run(long frames) {
+		long start = System.nanoTime();
+		for(long frame = 1 ; frame <= frames ; frame++) {
+			step();
+			if(frame % 36000 == 0) {
+				double seconds = (System.nanoTime() - start) / 1e9;
+				System.out.printf("%d frames, %.0f fps, level %d, score %d%n",
+						frame, frame / seconds, game.getLevel(), game.getScore());
+				if(ai instanceof EnsembleAI) {
+					for(LatencyHistogram latency : ((EnsembleAI) ai).getLatencies()) {
+						System.out.println("  " + latency);
+					}
+				}
+			}
+		}
+	}
+
+	/*
+	 * Play until the given number of games have ended, or maxFrames frames
+	 * have been run. Returns false if it ran out of frames.
+	 */
+	public boolean playGames(int games, long maxFrames) {
+		int target = game.getGamesPlayed() + games;
+		for(long frame = 0 ; frame < maxFrames ; frame++) {
+			step();
+			if(game.getGamesPlayed() >= target) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Close the file of the game being recorded, if there is one.
+	 */
+	public void stopCapture() {
+		if(captureDir != null) {
+			try {
+				((CaptureMachine) machine).stopCapture();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	private void step() {
+		if(captureDir != null && capturedGame != game.getGamesPlayed()) {
+			capturedGame = game.getGamesPlayed();
+			File file = new File(captureDir, captureName + "-" + capturedGame + ".cap");
+			try {
+				((CaptureMachine) machine).startCapture(file);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		game.update();
+		machine.step();
+		/* release the buttons, as the keyboard does on screen */
+		machine.portWrite(0, (char) 0xFF);
+		machine.portWrite(1, (char) 0xFF);
+		ai.tick();
+		frames++;
+	}
+}
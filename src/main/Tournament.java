@@ -0,0 +1,195 @@
+package main;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import ai.AI;
+import ai.common.Game;
+import ai.ensemble.EnsembleAI;
+import ai.mcts.MCTSPlayer;
+import emulator.machine.RandomProvider;
+
+/*
+ * Plays a number of independent headless games on a thread pool, each with
+ * its own machine, Game and AI, and writes every result plus a summary to
+ * one file in res/.
+ *
+ *   Tournament [ensemble|mcts] [games] [threads] [seed] [capture directory]
+ *
+ * With a seed, game i runs with thread seed seed + i, so any single game
+ * can be replayed. The seed is also set for the process, so threads that
+ * are not a game's own still get seeded generators. With a capture directory, game i is also recorded there
+ * as game<i>-0.cap, for CapturePlayer.
+ */
+public class Tournament {
+
+	/* a game that runs longer than this (30 minutes of play) is cut off */
+	private static final long MAX_FRAMES = 60L * 60 * 30;
+
+	private final String name;
+	private final Function<Game, AI> player;
+	private Long seed;
+	private File captureDir;
+
+	public static void main(String[] args) throws Exception {
+		String name = args.length > 0 ? args[0] : "ensemble";
+		int games = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+		int threads = args.length > 2 ? Integer.parseInt(args[2])
+				: Runtime.getRuntime().availableProcessors();
+		Function<Game, AI> player;
+		switch(name) {
+		case "mcts":
+			player = MCTSPlayer::new;
+			break;
+		case "ensemble":
+			player = EnsembleAI::new;
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown AI " + name);
+		}
+		Tournament tournament = new Tournament(name, player);
+		if(args.length > 3) {
+			tournament.setSeed(Long.parseLong(args[3]));
+		}
+		if(args.length > 4) {
+			tournament.setCaptureDir(new File(args[4]));
+		}
+		tournament.run(games, threads);
+		System.exit(0);
+	}
+
+	public Tournament(String name, Function<Game, AI> player) {
+		this.name = name;
+		this.player = player;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public void setCaptureDir(File captureDir) {
+		this.captureDir = captureDir;
+	}
+
+	public static class Result {
+		public final int level, score;
+		public final long frames;
+		public final boolean finished;
+
+		Result(int level, int score, long frames, boolean finished) {
+			this.level = level;
+			this.score = score;
+			this.frames = frames;
+			this.finished = finished;
+		}
+	}
+
+	public List<Result> run(int games, int threads) throws Exception {
+		long start = System.currentTimeMillis();
+		if(seed != null) {
+			RandomProvider.setSeed(seed);
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<Result>> futures = new ArrayList<>();
+		for(int i = 0 ; i < games ; i++) {
+			final int game = i;
+			futures.add(pool.submit(() -> playOne(game)));
+		}
+		List<Result> results = new ArrayList<>();
+		try {
+			for(Future<Result> future : futures) {
+				Result result = future.get();
+				results.add(result);
+				System.out.println(results.size() + "/" + games + ": level "
+						+ result.level + " score " + result.score);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		write(results, threads, System.currentTimeMillis() - start);
+		return results;
+	}
+
+	private Result playOne(int index) {
+		if(seed != null) {
+			RandomProvider.setThreadSeed(seed + index);
+		}
+		HeadlessController controller = null;
+		try {
+			controller = new HeadlessController(player, captureDir, "game" + index);
+			Game game = controller.getGame();
+			game.setLogFile(null);
+			if(controller.playGames(1, MAX_FRAMES)) {
+				return new Result(game.getLastGameLevel(), game.getLastGameScore(),
+						controller.getFrames(), true);
+			}
+			return new Result(game.getLevel(), game.getScore(), controller.getFrames(), false);
+		} finally {
+			if(controller != null) {
+				controller.stopCapture();
+			}
+			RandomProvider.clearThreadSeed();
+		}
+	}
+
+	private void write(List<Result> results, int threads, long millis) throws IOException {
+		String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+		File file = new File("res/Tournament_" + name + "_" + stamp + ".txt");
+		int[] scores = new int[results.size()];
+		Map<Integer, Integer> levels = new TreeMap<>();
+		long frames = 0;
+		int unfinished = 0;
+		for(int i = 0 ; i < scores.length ; i++) {
+			Result result = results.get(i);
+			scores[i] = result.score;
+			levels.merge(result.level, 1, Integer::sum);
+			frames += result.frames;
+			if(!result.finished) {
+				unfinished++;
+			}
+		}
+		Arrays.sort(scores);
+		double mean = 0;
+		for(int score : scores) {
+			mean += score;
+		}
+		mean /= Math.max(1, scores.length);
+		double variance = 0;
+		for(int score : scores) {
+			variance += (score - mean) * (score - mean);
+		}
+		variance /= Math.max(1, scores.length - 1);
+
+		try (PrintWriter out = new PrintWriter(new FileWriter(file))) {
+			/* level score frames, one line per game, as the Game logs */
+			for(Result result : results) {
+				out.println(result.level + " " + result.score + " " + result.frames
+						+ (result.finished ? "" : " unfinished"));
+			}
+			out.println("# " + name + ", " + results.size() + " games on " + threads
+					+ " threads in " + (millis / 1000) + " s, " + frames + " frames"
+					+ (seed == null ? "" : ", seed " + seed));
+			if(scores.length > 0) {
+				out.printf("# score mean %.1f sd %.1f min %d median %d max %d%n",
+						mean, Math.sqrt(variance), scores[0],
+						scores[scores.length / 2], scores[scores.length - 1]);
+			}
+			out.println("# levels " + levels);
+			out.println("# unfinished " + unfinished);
+		}
+		System.out.println("Results written to " + file);
+	}
+}